@@ -0,0 +1,108 @@
+package com.taskadapter.redmineapi.http2;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import com.taskadapter.redmineapi.Include;
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RedmineManager;
+import com.taskadapter.redmineapi.bean.Issue;
+import com.taskadapter.redmineapi.bean.Project;
+import com.taskadapter.redmineapi.bean.TimeEntry;
+import com.taskadapter.redmineapi.bean.User;
+
+/**
+ * Runs manager calls asynchronously. With a manager from
+ * {@link Http2RedmineManagerFactory}, concurrent calls share a few
+ * multiplexed HTTP/2 connections instead of one connection per call.
+ * <p>Manager calls are blocking: each call occupies a thread of the executor
+ * until the response is processed, so the executor bounds the number of
+ * calls in flight. Use a bounded executor, calls beyond its size wait in its
+ * queue:
+ * <pre>
+ * ExecutorService executor = Executors.newFixedThreadPool(8);
+ * AsyncRedmineManager async = AsyncRedmineManager.create(manager, executor);
+ * </pre>
+ * <p>Futures complete exceptionally with a {@link CompletionException}
+ * wrapping the {@link RedmineException} of the call.
+ */
+public final class AsyncRedmineManager {
+	/**
+	 * Call of a Redmine manager.
+	 */
+	@FunctionalInterface
+	public interface Call<T> {
+		T call(RedmineManager manager) throws RedmineException;
+	}
+
+	private final RedmineManager manager;
+	private final Executor executor;
+
+	private AsyncRedmineManager(final RedmineManager manager, final Executor executor) {
+		this.manager = manager;
+		this.executor = executor;
+	}
+
+	/**
+	 * @param executor bounded executor running blocking manager calls, one
+	 *            thread per call in flight. Owned by the caller.
+	 */
+	public static AsyncRedmineManager create(final RedmineManager manager, final Executor executor) {
+		return new AsyncRedmineManager(manager, executor);
+	}
+
+	public RedmineManager getManager() {
+		return manager;
+	}
+
+	public <T> CompletableFuture<T> submit(final Call<T> call) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return call.call(manager);
+			} catch (final RedmineException e) {
+				throw new CompletionException(e);
+			}
+		}, executor);
+	}
+
+	public CompletableFuture<Issue> getIssueById(final Integer id, final Include... include) {
+		return submit(m -> m.getIssueManager().getIssueById(id, include));
+	}
+
+	public CompletableFuture<List<Issue>> getIssues(final Map<String, String> parameters) {
+		return submit(m -> m.getIssueManager().getIssues(parameters));
+	}
+
+	public CompletableFuture<Issue> createIssue(final Issue issue) {
+		return submit(m -> m.getIssueManager().createIssue(issue));
+	}
+
+	public CompletableFuture<Void> updateIssue(final Issue issue) {
+		return submit(m -> {
+			m.getIssueManager().update(issue);
+			return null;
+		});
+	}
+
+	public CompletableFuture<Void> deleteIssue(final Integer id) {
+		return submit(m -> {
+			m.getIssueManager().deleteIssue(id);
+			return null;
+		});
+	}
+
+	public CompletableFuture<List<TimeEntry>> getTimeEntries(final Map<String, String> parameters) {
+		return submit(m -> m.getIssueManager().getTimeEntries(parameters));
+	}
+
+	public CompletableFuture<List<Project>> getProjects() {
+		return submit(m -> m.getProjectManager().getProjects());
+	}
+
+	public CompletableFuture<User> getUserById(final Integer id) {
+		return submit(m -> m.getUserManager().getUserById(id));
+	}
+}
@@ -0,0 +1,231 @@
+package com.taskadapter.redmineapi.http2;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.Cancellable;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.taskadapter.redmineapi.RedmineCommunicationException;
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RedmineRequestAbortedException;
+import com.taskadapter.redmineapi.RedmineTransportException;
+import com.taskadapter.redmineapi.internal.comm.Communicator;
+import com.taskadapter.redmineapi.internal.comm.ContentHandler;
+import com.taskadapter.redmineapi.internal.comm.RequestAbortScope;
+
+/**
+ * Sends requests with {@link HttpClient}. Concurrent requests to an HTTP/2
+ * server are multiplexed over one connection. Responses are adapted to the
+ * Apache {@link HttpResponse}, so the usual content handlers (decoding, error
+ * handling, JSON parsing) process them exactly as with the default transport.
+ * <p>Blocking requests sent in a {@link RequestAbortScope} are released with
+ * {@link RedmineRequestAbortedException} when the scope is aborted.
+ */
+public final class Http2Communicator implements Communicator<HttpResponse> {
+	private static final Logger logger = LoggerFactory.getLogger(Http2Communicator.class);
+
+	/** Headers set by {@link HttpClient} itself. */
+	private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect",
+			"host", "upgrade");
+
+	private static final ProtocolVersion HTTP_2 = new ProtocolVersion("HTTP", 2, 0);
+
+	private final HttpClient client;
+	private final Duration requestTimeout;
+
+	/**
+	 * @param client client to send requests with.
+	 * @param requestTimeout timeout of one request until response headers are
+	 *            received.
+	 */
+	public Http2Communicator(final HttpClient client, final Duration requestTimeout) {
+		this.client = client;
+		this.requestTimeout = requestTimeout;
+	}
+
+	/**
+	 * Creates a client preferring HTTP/2 and falling back to HTTP/1.1 for
+	 * servers without HTTP/2 support.
+	 */
+	public static HttpClient createDefaultClient() {
+		return HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.followRedirects(HttpClient.Redirect.NORMAL)
+				.connectTimeout(Duration.ofSeconds(30))
+				.build();
+	}
+
+	@Override
+	public <R> R sendRequest(final HttpRequest request, final ContentHandler<HttpResponse, R> handler)
+			throws RedmineException {
+		logger.debug(request.getRequestLine().toString());
+		final CompletableFuture<java.net.http.HttpResponse<InputStream>> future = client.sendAsync(
+				toJavaRequest(request), BodyHandlers.ofInputStream());
+		// lets RequestAbortScope.abort() release the waiting thread
+		final Cancellable call = () -> future.cancel(true);
+		RequestAbortScope.register(call);
+		final java.net.http.HttpResponse<InputStream> response;
+		try {
+			response = future.get();
+		} catch (final CancellationException e) {
+			throw new RedmineRequestAbortedException("Request to " + getMessageURI(request) + " was aborted", e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause() == null ? e : e.getCause();
+			// since JDK 16 cancelling the future cancels the exchange, which fails it
+			if (future.isCancelled() || cause instanceof CancellationException
+					|| RequestAbortScope.isCurrentAborted()) {
+				throw new RedmineRequestAbortedException("Request to " + getMessageURI(request) + " was aborted",
+						cause);
+			}
+			throw new RedmineTransportException("Cannot fetch data from " + getMessageURI(request) + " : "
+					+ cause.toString(), cause);
+		} catch (final InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new RedmineCommunicationException("Interrupted while waiting for " + getMessageURI(request), e);
+		} finally {
+			RequestAbortScope.unregister(call);
+		}
+		return process(response, handler);
+	}
+
+	/**
+	 * Sends the request without blocking. The response is processed by the
+	 * handler on the given executor, because handlers read the response body
+	 * with blocking calls.
+	 *
+	 * @return future completed with the handler result, or exceptionally
+	 *         with a {@link CompletionException} wrapping a
+	 *         {@link RedmineException}.
+	 */
+	public <R> CompletableFuture<R> sendRequestAsync(final HttpRequest request,
+			final ContentHandler<HttpResponse, R> handler, final Executor executor) {
+		logger.debug(request.getRequestLine().toString());
+		return client.sendAsync(toJavaRequest(request), BodyHandlers.ofInputStream())
+				.handleAsync((response, failure) -> {
+					if (failure != null) {
+						final Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+								? failure.getCause() : failure;
+						throw new CompletionException(new RedmineTransportException("Cannot fetch data from "
+								+ getMessageURI(request) + " : " + cause.toString(), cause));
+					}
+					try {
+						return process(response, handler);
+					} catch (final RedmineException e) {
+						throw new CompletionException(e);
+					}
+				}, executor);
+	}
+
+	private <R> R process(final java.net.http.HttpResponse<InputStream> response,
+			final ContentHandler<HttpResponse, R> handler) throws RedmineException {
+		final InputStream body = response.body();
+		try {
+			return handler.processContent(toApacheResponse(response, body));
+		} finally {
+			try {
+				body.close();
+			} catch (final IOException e) {
+				logger.debug("Cannot close response body", e);
+			}
+		}
+	}
+
+	private java.net.http.HttpRequest toJavaRequest(final HttpRequest request) {
+		final java.net.http.HttpRequest.Builder builder = java.net.http.HttpRequest.newBuilder(getURI(request))
+				.timeout(requestTimeout)
+				.header("Accept-Encoding", "gzip");
+		for (final Header header : request.getAllHeaders()) {
+			if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase())) {
+				builder.setHeader(header.getName(), header.getValue());
+			}
+		}
+		BodyPublisher body = BodyPublishers.noBody();
+		if (request instanceof HttpEntityEnclosingRequest) {
+			final HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+			if (entity != null) {
+				body = toBodyPublisher(entity);
+				if (entity.getContentType() != null) {
+					builder.setHeader("Content-Type", entity.getContentType().getValue());
+				}
+			}
+		}
+		return builder.method(request.getRequestLine().getMethod(), body).build();
+	}
+
+	private static BodyPublisher toBodyPublisher(final HttpEntity entity) {
+		final BodyPublisher content = BodyPublishers.ofInputStream(() -> {
+			try {
+				return entity.getContent();
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		final long length = entity.getContentLength();
+		return length >= 0 ? BodyPublishers.fromPublisher(content, length) : content;
+	}
+
+	private static HttpResponse toApacheResponse(final java.net.http.HttpResponse<InputStream> response,
+			final InputStream body) {
+		final ProtocolVersion version = response.version() == HttpClient.Version.HTTP_2 ? HTTP_2
+				: HttpVersion.HTTP_1_1;
+		final BasicHttpResponse result = new BasicHttpResponse(
+				new BasicStatusLine(version, response.statusCode(), ""));
+		for (final Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+			for (final String value : header.getValue()) {
+				result.addHeader(header.getKey(), value);
+			}
+		}
+		final BasicHttpEntity entity = new BasicHttpEntity();
+		entity.setContent(body);
+		entity.setContentLength(response.headers().firstValueAsLong("Content-Length").orElse(-1));
+		response.headers().firstValue("Content-Type").ifPresent(entity::setContentType);
+		response.headers().firstValue("Content-Encoding").ifPresent(entity::setContentEncoding);
+		result.setEntity(entity);
+		return result;
+	}
+
+	private static URI getURI(final HttpRequest request) {
+		if (request instanceof HttpUriRequest) {
+			return ((HttpUriRequest) request).getURI();
+		}
+		return URI.create(request.getRequestLine().getUri());
+	}
+
+	private static String getMessageURI(final HttpRequest request) {
+		final String uri = request.getRequestLine().getUri();
+		final int paramsIndex = uri.indexOf('?');
+		if (paramsIndex >= 0) {
+			return uri.substring(0, paramsIndex);
+		}
+		return uri;
+	}
+}
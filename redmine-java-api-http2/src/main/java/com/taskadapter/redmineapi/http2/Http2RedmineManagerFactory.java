@@ -0,0 +1,69 @@
+package com.taskadapter.redmineapi.http2;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import com.taskadapter.redmineapi.RedmineManager;
+import com.taskadapter.redmineapi.RedmineManagerFactory;
+import com.taskadapter.redmineapi.TransportConfiguration;
+
+/**
+ * Creates managers talking to Redmine over {@link HttpClient}, with HTTP/2
+ * when the server (or the proxy in front of it) supports it. The managers
+ * behave like the ones from {@link RedmineManagerFactory}: same JSON
+ * processing, same exceptions for server errors.
+ * <p>Sample usage:
+ * <pre>
+ * RedmineManager manager = Http2RedmineManagerFactory.createWithApiKey(uri, apiKey);
+ * AsyncRedmineManager async = AsyncRedmineManager.create(manager, Executors.newFixedThreadPool(8));
+ * </pre>
+ */
+public final class Http2RedmineManagerFactory {
+	/** Timeout of one request when nothing else is specified. */
+	public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+	private static final HttpClient DEFAULT_CLIENT = Http2Communicator.createDefaultClient();
+
+	private Http2RedmineManagerFactory() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Creates a transport configuration sending requests with the client.
+	 * Add retries, circuit breaker or limits to it and pass it to
+	 * {@link RedmineManagerFactory}.
+	 */
+	public static TransportConfiguration createConfiguration(final HttpClient client,
+			final Duration requestTimeout) {
+		return TransportConfiguration.createWithCommunicator(new Http2Communicator(client, requestTimeout), null);
+	}
+
+	/**
+	 * Creates a manager using an API key. All managers created without an
+	 * explicit client share one default client and its connections.
+	 */
+	public static RedmineManager createWithApiKey(final String uri, final String apiAccessKey) {
+		return createWithApiKey(uri, apiAccessKey, DEFAULT_CLIENT);
+	}
+
+	public static RedmineManager createWithApiKey(final String uri, final String apiAccessKey,
+			final HttpClient client) {
+		return RedmineManagerFactory.createWithApiKey(uri, apiAccessKey,
+				createConfiguration(client, DEFAULT_REQUEST_TIMEOUT));
+	}
+
+	/**
+	 * Creates a manager using user credentials. All managers created without
+	 * an explicit client share one default client and its connections.
+	 */
+	public static RedmineManager createWithUserAuth(final String uri, final String login,
+			final String password) {
+		return createWithUserAuth(uri, login, password, DEFAULT_CLIENT);
+	}
+
+	public static RedmineManager createWithUserAuth(final String uri, final String login, final String password,
+			final HttpClient client) {
+		return RedmineManagerFactory.createWithUserAuth(uri, login, password,
+				createConfiguration(client, DEFAULT_REQUEST_TIMEOUT));
+	}
+}
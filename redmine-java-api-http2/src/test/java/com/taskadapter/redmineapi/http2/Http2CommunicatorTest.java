@@ -0,0 +1,180 @@
+package com.taskadapter.redmineapi.http2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.taskadapter.redmineapi.NotFoundException;
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RedmineManager;
+import com.taskadapter.redmineapi.RedmineProcessingException;
+import com.taskadapter.redmineapi.RedmineRequestAbortedException;
+import com.taskadapter.redmineapi.bean.Issue;
+import com.taskadapter.redmineapi.bean.IssueFactory;
+import com.taskadapter.redmineapi.internal.comm.RequestAbortScope;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class Http2CommunicatorTest {
+    private HttpServer server;
+    private RedmineManager manager;
+    private final List<String> switchUsers = new CopyOnWriteArrayList<>();
+    private final CountDownLatch slowRequestReceived = new CountDownLatch(1);
+    private final CountDownLatch slowResponseAllowed = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/issues/1.json", exchange -> {
+            switchUsers.add(String.valueOf(exchange.getRequestHeaders().getFirst("X-Redmine-Switch-User")));
+            respond(exchange, 200, "{\"issue\":{\"id\":1,\"subject\":\"first\"}}", false);
+        });
+        server.createContext("/issues/2.json", exchange ->
+                respond(exchange, 200, "{\"issue\":{\"id\":2,\"subject\":\"compressed\"}}", true));
+        server.createContext("/issues.json", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, 422, "{\"errors\":[\"Subject can't be blank\"]}", false);
+        });
+        server.createContext("/issues/9.json", exchange -> {
+            slowRequestReceived.countDown();
+            try {
+                slowResponseAllowed.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{\"issue\":{\"id\":9,\"subject\":\"slow\"}}", false);
+        });
+        server.createContext("/", exchange -> respond(exchange, 404, "not found", false));
+        server.start();
+        manager = Http2RedmineManagerFactory.createWithApiKey(
+                "http://localhost:" + server.getAddress().getPort(), "key");
+    }
+
+    @After
+    public void tearDown() {
+        slowResponseAllowed.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    public void issueIsLoaded() throws RedmineException {
+        assertThat(manager.getIssueManager().getIssueById(1).getSubject()).isEqualTo("first");
+        manager.as("jsmith").getIssueManager().getIssueById(1);
+        assertThat(switchUsers).containsExactly("null", "jsmith");
+    }
+
+    @Test
+    public void gzipResponseIsDecoded() throws RedmineException {
+        assertThat(manager.getIssueManager().getIssueById(2).getSubject()).isEqualTo("compressed");
+    }
+
+    @Test(expected = NotFoundException.class)
+    public void missingObjectIsReported() throws RedmineException {
+        manager.getIssueManager().getIssueById(3);
+    }
+
+    @Test
+    public void validationErrorsAreReported() {
+        try {
+            manager.getIssueManager().createIssue(IssueFactory.create(1, ""));
+            fail("Must fail");
+        } catch (RedmineProcessingException e) {
+            assertThat(e.getErrors()).containsExactly("Subject can't be blank");
+        } catch (RedmineException e) {
+            fail("Unexpected exception " + e);
+        }
+    }
+
+    @Test
+    public void abortReleasesBlockedRequest() throws Exception {
+        final RequestAbortScope scope = RequestAbortScope.open();
+        final Thread aborter = new Thread(() -> {
+            try {
+                slowRequestReceived.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            scope.abort();
+        });
+        aborter.start();
+        try {
+            manager.getIssueManager().getIssueById(9);
+            fail("Request must be aborted");
+        } catch (RedmineRequestAbortedException e) {
+            // expected
+        } finally {
+            scope.close();
+            aborter.join();
+        }
+    }
+
+    @Test
+    public void requestOfAbortedScopeIsAborted() throws RedmineException {
+        final RequestAbortScope scope = RequestAbortScope.open();
+        try {
+            scope.abort();
+            manager.getIssueManager().getIssueById(9);
+            fail("Request must be aborted");
+        } catch (RedmineRequestAbortedException e) {
+            // expected
+        } finally {
+            scope.close();
+        }
+    }
+
+    @Test
+    public void asyncCallsCompleteWithRedmineExceptions() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final AsyncRedmineManager async = AsyncRedmineManager.create(manager, executor);
+            final CompletableFuture<Issue> found = async.getIssueById(1);
+            final CompletableFuture<Issue> missing = async.getIssueById(3);
+            assertThat(found.get().getSubject()).isEqualTo("first");
+            try {
+                missing.get();
+                fail("Must fail");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(NotFoundException.class);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int code, String body, boolean gzip) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (gzip) {
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
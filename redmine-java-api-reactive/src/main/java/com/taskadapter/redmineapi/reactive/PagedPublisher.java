@@ -0,0 +1,224 @@
+package com.taskadapter.redmineapi.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.message.BasicNameValuePair;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.taskadapter.redmineapi.ITransport;
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.internal.Transport.ResultsWrapper;
+import com.taskadapter.redmineapi.internal.comm.RequestAbortScope;
+
+/**
+ * Cold publisher of a paged Redmine list. Each subscription runs its own
+ * query. Pages are loaded one at a time on the executor when the demand of
+ * the subscriber is not covered by objects already loaded, and no more than
+ * "prefetch" pages are loaded ahead of the subscriber.
+ */
+final class PagedPublisher<T> implements Publisher<T> {
+	private final ITransport transport;
+	private final Class<T> objectClass;
+	private final List<NameValuePair> params;
+	private final int pageSize;
+	private final int prefetchPages;
+	private final Executor executor;
+
+	PagedPublisher(final ITransport transport, final Class<T> objectClass, final List<NameValuePair> params,
+			final int pageSize, final int prefetchPages, final Executor executor) {
+		this.transport = transport;
+		this.objectClass = objectClass;
+		this.params = params;
+		this.pageSize = pageSize;
+		this.prefetchPages = prefetchPages;
+		this.executor = executor;
+	}
+
+	@Override
+	public void subscribe(final Subscriber<? super T> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("Subscriber must not be null");
+		}
+		final PageSubscription subscription = new PageSubscription(subscriber);
+		subscriber.onSubscribe(subscription);
+	}
+
+	private final class PageSubscription implements Subscription {
+		private final Subscriber<? super T> subscriber;
+
+		/** Objects loaded but not emitted yet. */
+		private final Queue<T> buffer = new ConcurrentLinkedQueue<T>();
+		private final AtomicInteger buffered = new AtomicInteger();
+
+		/** Total demand, Long.MAX_VALUE for unbounded demand. */
+		private final AtomicLong requested = new AtomicLong();
+
+		/** Drain loop guard, see {@link #drain()}. */
+		private final AtomicInteger wip = new AtomicInteger();
+
+		private final AtomicBoolean loading = new AtomicBoolean();
+
+		/** Number of emitted objects, used by the drain loop only. */
+		private long emitted;
+
+		/** Offset of the next page, used by the loader only. */
+		private int offset;
+
+		private volatile long loaded;
+		private volatile boolean done;
+		private volatile Throwable error;
+		private volatile boolean cancelled;
+		private volatile RequestAbortScope abortScope;
+
+		PageSubscription(final Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(final long n) {
+			if (n <= 0) {
+				error = new IllegalArgumentException("Requested " + n + " objects, demand must be positive");
+				done = true;
+				schedule();
+				return;
+			}
+			long current;
+			long next;
+			do {
+				current = requested.get();
+				next = current + n < 0 ? Long.MAX_VALUE : current + n;
+			} while (!requested.compareAndSet(current, next));
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			final RequestAbortScope scope = abortScope;
+			if (scope != null) {
+				scope.abort();
+			}
+		}
+
+		private void schedule() {
+			if (wip.getAndIncrement() == 0) {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						drain();
+					}
+				});
+			}
+		}
+
+		/**
+		 * Emits loaded objects up to the demand and starts loading of the next
+		 * page. Runs on one thread at a time: concurrent calls of
+		 * {@link #schedule()} make the running loop go around once more.
+		 */
+		private void drain() {
+			int missed = 1;
+			while (true) {
+				if (cancelled) {
+					buffer.clear();
+					return;
+				}
+				final long demand = requested.get();
+				while (emitted != demand) {
+					final T object = buffer.poll();
+					if (object == null) {
+						break;
+					}
+					buffered.decrementAndGet();
+					emitted++;
+					subscriber.onNext(object);
+					if (cancelled) {
+						buffer.clear();
+						return;
+					}
+				}
+				// read the flags before checking the buffer: objects of the last
+				// page are added before the flags are set
+				final Throwable failure = error;
+				final boolean finished = done && !loading.get();
+				if (failure != null && (buffer.isEmpty() || failure instanceof IllegalArgumentException)) {
+					cancelled = true;
+					subscriber.onError(failure);
+					return;
+				}
+				if (finished && buffer.isEmpty()) {
+					cancelled = true;
+					subscriber.onComplete();
+					return;
+				}
+				startLoading();
+				missed = wip.addAndGet(-missed);
+				if (missed == 0) {
+					return;
+				}
+			}
+		}
+
+		private void startLoading() {
+			if (done || requested.get() <= loaded || buffered.get() >= prefetchPages * pageSize) {
+				return;
+			}
+			if (loading.compareAndSet(false, true)) {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						loadPage();
+					}
+				});
+			}
+		}
+
+		private void loadPage() {
+			final RequestAbortScope scope = RequestAbortScope.open();
+			abortScope = scope;
+			try {
+				if (cancelled) {
+					return;
+				}
+				final List<NameValuePair> pageParams = new ArrayList<NameValuePair>(params);
+				pageParams.add(new BasicNameValuePair("limit", String.valueOf(pageSize)));
+				pageParams.add(new BasicNameValuePair("offset", String.valueOf(offset)));
+				final ResultsWrapper<T> page = transport.getObjectsListNoPaging(objectClass, pageParams);
+				final List<T> objects = page.getResults();
+				for (final T object : objects) {
+					buffer.offer(object);
+				}
+				buffered.addAndGet(objects.size());
+				offset += objects.size();
+				loaded += objects.size();
+				final Integer total = page.getTotalFoundOnServer();
+				if (objects.isEmpty() || (total == null ? objects.size() < pageSize : offset >= total)) {
+					done = true;
+				}
+			} catch (final RedmineException e) {
+				if (!cancelled) {
+					error = e;
+					done = true;
+				}
+			} catch (final RuntimeException e) {
+				error = e;
+				done = true;
+			} finally {
+				abortScope = null;
+				scope.close();
+				loading.set(false);
+				schedule();
+			}
+		}
+	}
+}
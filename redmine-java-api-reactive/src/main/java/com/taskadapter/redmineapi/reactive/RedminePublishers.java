@@ -0,0 +1,153 @@
+package com.taskadapter.redmineapi.reactive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.NameValuePair;
+import org.reactivestreams.Publisher;
+
+import com.taskadapter.redmineapi.ITransport;
+import com.taskadapter.redmineapi.RedmineManager;
+import com.taskadapter.redmineapi.bean.Issue;
+import com.taskadapter.redmineapi.bean.Project;
+import com.taskadapter.redmineapi.bean.TimeEntry;
+import com.taskadapter.redmineapi.bean.User;
+import com.taskadapter.redmineapi.internal.ParameterMapConverter;
+
+/**
+ * Reactive Streams publishers of Redmine lists. Pages are requested from the
+ * server only when the subscriber signals demand, and at most a few pages are
+ * loaded ahead. Cancelling a subscription aborts the page request in flight.
+ * <p>Sample usage with Reactor:
+ * <pre>
+ RedminePublishers publishers = RedminePublishers.create(redmineManager).withPageSize(100);
+ Flux.from(publishers.issues(params))
+     .filter(issue -&gt; issue.getAssignee() != null)
+     .take(500)
+     .subscribe(...);
+ * </pre>
+ * <p>Publishers are cold: each subscriber runs its own query. Instances of
+ * this class are immutable and thread-safe.
+ */
+public final class RedminePublishers {
+	/** Number of objects in one page when nothing else is specified. */
+	public static final int DEFAULT_PAGE_SIZE = 100;
+
+	/** Number of pages loaded ahead of the subscriber by default. */
+	public static final int DEFAULT_PREFETCH_PAGES = 2;
+
+	private final ITransport transport;
+	private final int pageSize;
+	private final int prefetchPages;
+	private final Executor executor;
+
+	private RedminePublishers(final ITransport transport, final int pageSize, final int prefetchPages,
+			final Executor executor) {
+		this.transport = transport;
+		this.pageSize = pageSize;
+		this.prefetchPages = prefetchPages;
+		this.executor = executor;
+	}
+
+	/**
+	 * Creates publishers for lists of the manager. Pages are loaded and
+	 * emitted on a shared pool of daemon threads.
+	 */
+	public static RedminePublishers create(final RedmineManager manager) {
+		return new RedminePublishers(manager.getTransport(), DEFAULT_PAGE_SIZE, DEFAULT_PREFETCH_PAGES,
+				DefaultExecutor.INSTANCE);
+	}
+
+	/**
+	 * @param pageSize number of objects requested in one page. Redmine caps
+	 *            it at 100 by default.
+	 */
+	public RedminePublishers withPageSize(final int pageSize) {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("Page size must be positive. You provided: " + pageSize);
+		}
+		return new RedminePublishers(transport, pageSize, prefetchPages, executor);
+	}
+
+	/**
+	 * @param prefetchPages maximal number of pages loaded ahead of the
+	 *            subscriber demand.
+	 */
+	public RedminePublishers withPrefetchPages(final int prefetchPages) {
+		if (prefetchPages <= 0) {
+			throw new IllegalArgumentException("Prefetch must be positive. You provided: " + prefetchPages);
+		}
+		return new RedminePublishers(transport, pageSize, prefetchPages, executor);
+	}
+
+	/**
+	 * @param executor executor loading pages and emitting objects. It needs
+	 *            two threads per active subscription to load the next page
+	 *            while the subscriber processes the current one.
+	 */
+	public RedminePublishers withExecutor(final Executor executor) {
+		return new RedminePublishers(transport, pageSize, prefetchPages, executor);
+	}
+
+	/**
+	 * @param parameters list filters, see
+	 *            {@link com.taskadapter.redmineapi.IssueManager#getIssues(Map)}.
+	 *            "limit" and "offset" are set by the publisher.
+	 */
+	public Publisher<Issue> issues(final Map<String, String> parameters) {
+		return publisher(Issue.class, parameters);
+	}
+
+	/**
+	 * @param parameters list filters, like "project_id", "user_id" or
+	 *            "spent_on".
+	 */
+	public Publisher<TimeEntry> timeEntries(final Map<String, String> parameters) {
+		return publisher(TimeEntry.class, parameters);
+	}
+
+	/**
+	 * @param parameters list filters, like "status", "name" or "group_id".
+	 */
+	public Publisher<User> users(final Map<String, String> parameters) {
+		return publisher(User.class, parameters);
+	}
+
+	/**
+	 * Publishes projects with their trackers, like
+	 * {@link com.taskadapter.redmineapi.ProjectManager#getProjects()}.
+	 */
+	public Publisher<Project> projects() {
+		return publisher(Project.class, Collections.singletonMap("include", "trackers"));
+	}
+
+	private <T> Publisher<T> publisher(final Class<T> objectClass, final Map<String, String> parameters) {
+		final List<NameValuePair> params = new ArrayList<NameValuePair>();
+		for (final NameValuePair param : ParameterMapConverter.getNameValuePairs(parameters)) {
+			if (!"limit".equals(param.getName()) && !"offset".equals(param.getName())) {
+				params.add(param);
+			}
+		}
+		return new PagedPublisher<T>(transport, objectClass, params, pageSize, prefetchPages, executor);
+	}
+
+	private static final class DefaultExecutor {
+		static final ExecutorService INSTANCE = Executors.newCachedThreadPool(new ThreadFactory() {
+			private final AtomicInteger counter = new AtomicInteger();
+
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, "redmine-publisher-" + counter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+}
@@ -0,0 +1,155 @@
+package com.taskadapter.redmineapi.reactive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RedmineManager;
+import com.taskadapter.redmineapi.bean.Issue;
+import com.taskadapter.redmineapi.internal.Transport;
+import com.taskadapter.redmineapi.internal.URIConfigurator;
+import com.taskadapter.redmineapi.internal.comm.Communicator;
+import com.taskadapter.redmineapi.internal.comm.ContentHandler;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class RedminePublishersTest {
+    private static final int TOTAL = 25;
+
+    private final AtomicInteger pageRequests = new AtomicInteger();
+    private RedminePublishers publishers;
+
+    @Before
+    public void setUp() {
+        final Communicator<HttpResponse> issuePages = new Communicator<HttpResponse>() {
+            @Override
+            public <R> R sendRequest(HttpRequest request, ContentHandler<HttpResponse, R> handler)
+                    throws RedmineException {
+                pageRequests.incrementAndGet();
+                final String uri = request.getRequestLine().getUri();
+                final int limit = parameter(uri, "limit");
+                final int offset = parameter(uri, "offset");
+                final StringBuilder json = new StringBuilder("{\"issues\":[");
+                for (int id = offset + 1; id <= Math.min(TOTAL, offset + limit); id++) {
+                    json.append(id > offset + 1 ? "," : "").append("{\"id\":").append(id).append('}');
+                }
+                json.append("],\"total_count\":").append(TOTAL).append('}');
+                final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+                response.setEntity(new StringEntity(json.toString(), "UTF-8"));
+                return handler.processContent(response);
+            }
+        };
+        final RedmineManager manager = new RedmineManager(
+                new Transport(new URIConfigurator("http://host", null), null, issuePages), null);
+        publishers = RedminePublishers.create(manager).withPageSize(10).withPrefetchPages(1);
+    }
+
+    @Test
+    public void allIssuesArePublishedInOrder() throws InterruptedException {
+        final RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publishers.issues(Collections.<String, String>emptyMap()).subscribe(subscriber);
+        subscriber.awaitTermination();
+        assertThat(subscriber.ids).hasSize(TOTAL);
+        assertThat(subscriber.ids.get(0)).isEqualTo(1);
+        assertThat(subscriber.ids.get(TOTAL - 1)).isEqualTo(TOTAL);
+        assertThat(subscriber.completed).isTrue();
+        assertThat(pageRequests.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void pagesAreLoadedOnDemand() throws InterruptedException {
+        final RecordingSubscriber subscriber = new RecordingSubscriber(5);
+        publishers.issues(Collections.<String, String>emptyMap()).subscribe(subscriber);
+        subscriber.awaitItems(5);
+        Thread.sleep(100);
+        assertThat(subscriber.ids).hasSize(5);
+        assertThat(pageRequests.get()).isEqualTo(1);
+
+        subscriber.subscription.request(6);
+        subscriber.awaitItems(11);
+        Thread.sleep(100);
+        assertThat(pageRequests.get()).isEqualTo(2);
+        assertThat(subscriber.completed).isFalse();
+
+        subscriber.subscription.cancel();
+        Thread.sleep(100);
+        assertThat(subscriber.ids).hasSize(11);
+        assertThat(subscriber.completed).isFalse();
+    }
+
+    @Test
+    public void invalidDemandIsReported() throws InterruptedException {
+        final RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publishers.issues(Collections.<String, String>emptyMap()).subscribe(subscriber);
+        subscriber.awaitTermination();
+        assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static int parameter(String uri, String name) {
+        final Matcher matcher = Pattern.compile("[?&]" + name + "=(\\d+)").matcher(uri);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    private static final class RecordingSubscriber implements Subscriber<Issue> {
+        final List<Integer> ids = Collections.synchronizedList(new ArrayList<Integer>());
+        final CountDownLatch terminated = new CountDownLatch(1);
+        final long initialDemand;
+        volatile Subscription subscription;
+        volatile boolean completed;
+        volatile Throwable error;
+
+        RecordingSubscriber(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription = s;
+            s.request(initialDemand);
+        }
+
+        @Override
+        public void onNext(Issue issue) {
+            ids.add(issue.getId());
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminated.countDown();
+        }
+
+        void awaitTermination() throws InterruptedException {
+            assertThat(terminated.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void awaitItems(int count) throws InterruptedException {
+            final long deadline = System.currentTimeMillis() + 5000;
+            while (ids.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.taskadapter.redmineapi.virtualthreads;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RedmineFederation;
+import com.taskadapter.redmineapi.internal.ParallelTasks;
+
+/**
+ * Runs bulk and fan-out operations of the library on virtual threads.
+ * <p>After {@link #install()} batch lookups by ids, bulk creation, update and
+ * deletion, windowed scans and federated queries start one virtual thread per
+ * task instead of a temporary pool of platform threads. The number of
+ * requests in flight is still limited by the "parallelism" of each operation,
+ * so the server sees the same load.
+ * <p>Manager calls may also be made directly from many virtual threads. Waits
+ * for rate limits, concurrency limits and retries are plain sleeps or lock
+ * conditions and do not pin carrier threads. {@code ProjectIndex.rebuild()},
+ * {@code ProjectIndex.refresh()} and {@code UserDirectory.refresh()} hold a
+ * monitor during their scans: before Java 24 a virtual thread running them
+ * pins its carrier thread until the scan ends.
+ */
+public final class VirtualThreads {
+	private static final ParallelTasks.ExecutorFactory VIRTUAL_THREADS = threads -> newExecutor();
+
+	private VirtualThreads() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Makes bulk and fan-out operations of all managers use virtual threads.
+	 */
+	public static void install() {
+		ParallelTasks.setExecutorFactory(VIRTUAL_THREADS);
+	}
+
+	/**
+	 * Restores fixed pools of platform threads.
+	 */
+	public static void uninstall() {
+		ParallelTasks.setExecutorFactory(null);
+	}
+
+	/**
+	 * Creates an executor starting a virtual thread for each task, e.g. for
+	 * {@link RedmineFederation#withExecutor(ExecutorService)}.
+	 */
+	public static ExecutorService newExecutor() {
+		return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("redmine-virtual-", 1).factory());
+	}
+
+	/**
+	 * Runs the tasks on virtual threads, at most "parallelism" at a time, and
+	 * waits for all of them.
+	 *
+	 * @return task results in the order of tasks.
+	 * @throws RedmineException the first exception thrown by a task. Other
+	 *             tasks are cancelled.
+	 */
+	public static <T> List<T> invokeAll(final List<? extends Callable<T>> tasks, final int parallelism)
+			throws RedmineException {
+		try (ExecutorService executor = newExecutor()) {
+			return ParallelTasks.invokeAll(tasks, parallelism, executor);
+		}
+	}
+}
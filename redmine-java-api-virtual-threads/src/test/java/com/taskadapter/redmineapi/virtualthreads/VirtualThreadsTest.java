@@ -0,0 +1,80 @@
+package com.taskadapter.redmineapi.virtualthreads;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.taskadapter.redmineapi.FederatedResult;
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RedmineFederation;
+import com.taskadapter.redmineapi.RedmineManager;
+import com.taskadapter.redmineapi.bean.Project;
+import com.taskadapter.redmineapi.bean.ProjectFactory;
+import com.taskadapter.redmineapi.internal.InMemoryTransport;
+import com.taskadapter.redmineapi.internal.ParallelTasks;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class VirtualThreadsTest {
+
+    @After
+    public void tearDown() {
+        VirtualThreads.uninstall();
+    }
+
+    @Test
+    public void parallelTasksRunOnVirtualThreadsWithinParallelism() throws RedmineException {
+        VirtualThreads.install();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(1);
+                running.decrementAndGet();
+                return Thread.currentThread().isVirtual();
+            });
+        }
+        final List<Boolean> virtual = ParallelTasks.invokeAll(tasks, 8);
+        assertThat(virtual).excludes(false);
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    public void uninstallRestoresPlatformThreads() throws RedmineException {
+        VirtualThreads.install();
+        VirtualThreads.uninstall();
+        final List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            tasks.add(() -> Thread.currentThread().isVirtual());
+        }
+        assertThat(ParallelTasks.invokeAll(tasks, 2)).containsExactly(false, false);
+    }
+
+    @Test
+    public void federatedQueriesRunOnVirtualThreads() throws RedmineException {
+        final Map<String, RedmineManager> managers = new LinkedHashMap<>();
+        for (String name : new String[] {"first", "second"}) {
+            final RedmineManager manager = new RedmineManager(new InMemoryTransport(), null);
+            manager.getProjectManager().createProject(ProjectFactory.create(name, name));
+            managers.put(name, manager);
+        }
+        final FederatedResult<Project> result = RedmineFederation.create(managers)
+                .withExecutor(VirtualThreads.newExecutor())
+                .query(manager -> {
+                    if (!Thread.currentThread().isVirtual()) {
+                        throw new IllegalStateException("Not a virtual thread");
+                    }
+                    return manager.getProjectManager().getProjects();
+                }, null);
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.getObjects()).hasSize(2);
+    }
+}
@@ -0,0 +1,69 @@
+package com.taskadapter.redmineapi;
+
+/**
+ * Outcome of a bulk operation for one item: either a result or an exception.
+ *
+ * @param <T> item type, e.g. Issue for creation or Integer id for deletion.
+ */
+public final class BulkItemResult<T> {
+	private final int index;
+	private final T item;
+	private final T result;
+	private final RedmineException exception;
+
+	private BulkItemResult(final int index, final T item, final T result, final RedmineException exception) {
+		this.index = index;
+		this.item = item;
+		this.result = result;
+		this.exception = exception;
+	}
+
+	public static <T> BulkItemResult<T> success(final int index, final T item, final T result) {
+		return new BulkItemResult<T>(index, item, result, null);
+	}
+
+	public static <T> BulkItemResult<T> failure(final int index, final T item, final RedmineException exception) {
+		return new BulkItemResult<T>(index, item, null, exception);
+	}
+
+	/**
+	 * @return position of the item in the bulk operation input.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return item passed to the bulk operation.
+	 */
+	public T getItem() {
+		return item;
+	}
+
+	/**
+	 * @return object returned by the server (e.g. created issue with id), the
+	 *         item itself for operations without a response, null on failure.
+	 */
+	public T getResult() {
+		return result;
+	}
+
+	/**
+	 * @return exception thrown for this item (usually
+	 *         {@link RedmineProcessingException} with validation errors), null
+	 *         on success.
+	 */
+	public RedmineException getException() {
+		return exception;
+	}
+
+	public boolean isSuccess() {
+		return exception == null;
+	}
+
+	@Override
+	public String toString() {
+		return "BulkItemResult{index=" + index + (isSuccess() ? ", result=" + result : ", exception=" + exception)
+				+ '}';
+	}
+}
@@ -0,0 +1,14 @@
+package com.taskadapter.redmineapi;
+
+/**
+ * Receives progress of a bulk operation. Called from worker threads after
+ * each item, possibly concurrently; implementations must be thread-safe.
+ */
+public interface BulkProgressListener<T> {
+	/**
+	 * @param item outcome of the completed item.
+	 * @param completed number of completed items including this one.
+	 * @param total total number of items.
+	 */
+	void onItemCompleted(BulkItemResult<T> item, int completed, int total);
+}
@@ -0,0 +1,71 @@
+package com.taskadapter.redmineapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Results of a bulk operation in the order of input items. A failure of one
+ * item does not abort other items.
+ */
+public final class BulkResult<T> {
+	private final List<BulkItemResult<T>> items;
+
+	public BulkResult(final List<BulkItemResult<T>> items) {
+		this.items = Collections.unmodifiableList(new ArrayList<BulkItemResult<T>>(items));
+	}
+
+	public List<BulkItemResult<T>> getItems() {
+		return items;
+	}
+
+	/**
+	 * @return results of succeeded items.
+	 */
+	public List<T> getResults() {
+		final List<T> results = new ArrayList<T>(items.size());
+		for (final BulkItemResult<T> item : items) {
+			if (item.isSuccess()) {
+				results.add(item.getResult());
+			}
+		}
+		return results;
+	}
+
+	public List<BulkItemResult<T>> getFailures() {
+		final List<BulkItemResult<T>> failures = new ArrayList<BulkItemResult<T>>();
+		for (final BulkItemResult<T> item : items) {
+			if (!item.isSuccess()) {
+				failures.add(item);
+			}
+		}
+		return failures;
+	}
+
+	public boolean hasFailures() {
+		for (final BulkItemResult<T> item : items) {
+			if (!item.isSuccess()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Throws an exception aggregating all failures, if any.
+	 *
+	 * @throws RedmineBulkException if some items failed.
+	 */
+	public void checkFailures() throws RedmineBulkException {
+		final List<BulkItemResult<T>> failures = getFailures();
+		if (!failures.isEmpty()) {
+			throw new RedmineBulkException(failures.size() + " of " + items.size() + " items failed. First failure: "
+					+ failures.get(0).getException().getMessage(), failures);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "BulkResult{items=" + items.size() + ", failures=" + getFailures().size() + '}';
+	}
+}
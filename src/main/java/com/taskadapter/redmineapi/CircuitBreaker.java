@@ -0,0 +1,293 @@
+package com.taskadapter.redmineapi;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Circuit breaker protecting a Redmine server. While the server is failing or
+ * too slow the breaker is "open" and all requests fail immediately with
+ * {@link RedmineCircuitOpenException} instead of waiting for timeouts.
+ * <p>One breaker is usually shared by all managers talking to the same server:
+ * <pre>
+ CircuitBreaker breaker = CircuitBreaker.create(CircuitBreakerConfig.create());
+ RedmineManager mgr = RedmineManagerFactory.createWithApiKey(uri, apiKey,
+     TransportConfiguration.create(client, null).withCircuitBreaker(breaker));
+ ...
+ if (breaker.getState() == CircuitBreaker.State.OPEN) {
+     // show cached data
+ }
+ * </pre>
+ * <p>This class is thread-safe.
+ *
+ * @see CircuitBreakerConfig
+ */
+public final class CircuitBreaker {
+	public enum State {
+		/** Calls are permitted, outcomes are recorded. */
+		CLOSED,
+		/** Calls are rejected. */
+		OPEN,
+		/** A limited number of trial calls is permitted. */
+		HALF_OPEN
+	}
+
+	/**
+	 * Receives breaker state transitions. Called outside of breaker locks.
+	 */
+	public interface StateListener {
+		void onStateTransition(CircuitBreaker breaker, State from, State to);
+	}
+
+	private static final byte SUCCESS = 0;
+	private static final byte FAILURE = 1;
+	private static final byte SLOW = 2;
+	private static final byte FAILED_SLOW = FAILURE | SLOW;
+
+	private final CircuitBreakerConfig config;
+	private final List<StateListener> listeners = new CopyOnWriteArrayList<StateListener>();
+
+	/* Ring buffer of call outcomes, a set of flags per call. */
+	private final byte[] outcomes;
+	private int position;
+	private int bufferedCalls;
+	private int failedCalls;
+	private int slowCalls;
+
+	private State state = State.CLOSED;
+	private long openedAtMillis;
+	private int halfOpenPermits;
+	private long notPermittedCalls;
+	private long transitions;
+	private long lastTransitionMillis = System.currentTimeMillis();
+
+	private CircuitBreaker(final CircuitBreakerConfig config) {
+		this.config = config;
+		this.outcomes = new byte[config.getSlidingWindowSize()];
+	}
+
+	public static CircuitBreaker create(final CircuitBreakerConfig config) {
+		return new CircuitBreaker(config);
+	}
+
+	public void addListener(final StateListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(final StateListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Checks if a call may be performed now. Each permitted call must be
+	 * followed by {@link #onSuccess(long)}, {@link #onError(long)} or
+	 * {@link #releasePermission()}.
+	 *
+	 * @throws RedmineCircuitOpenException if calls are not permitted.
+	 */
+	public void acquirePermission() throws RedmineCircuitOpenException {
+		State from = null;
+		synchronized (this) {
+			if (state == State.OPEN
+					&& System.currentTimeMillis() - openedAtMillis >= config.getWaitDurationInOpenStateMillis()) {
+				from = transitionTo(State.HALF_OPEN);
+			}
+			if (state == State.OPEN || state == State.HALF_OPEN && halfOpenPermits <= 0) {
+				notPermittedCalls++;
+				throw new RedmineCircuitOpenException("Circuit breaker is " + state
+						+ ", calls to the Redmine server are not permitted");
+			}
+			if (state == State.HALF_OPEN) {
+				halfOpenPermits--;
+			}
+		}
+		notifyListeners(from, State.HALF_OPEN);
+	}
+
+	/**
+	 * Records a successful call (the server did answer).
+	 */
+	public void onSuccess(final long durationMillis) {
+		record(durationMillis > config.getSlowCallDurationMillis() ? SLOW : SUCCESS);
+	}
+
+	/**
+	 * Records a failed call (I/O error or server error).
+	 */
+	public void onError(final long durationMillis) {
+		record(durationMillis > config.getSlowCallDurationMillis() ? FAILED_SLOW : FAILURE);
+	}
+
+	/**
+	 * Ends a permitted call without recording its outcome, e.g. a call
+	 * aborted by the client.
+	 */
+	public synchronized void releasePermission() {
+		if (state == State.HALF_OPEN && halfOpenPermits < config.getPermittedCallsInHalfOpenState()) {
+			halfOpenPermits++;
+		}
+	}
+
+	/**
+	 * Closes the breaker and forgets recorded calls.
+	 */
+	public void reset() {
+		final State from;
+		synchronized (this) {
+			clearWindow();
+			from = state == State.CLOSED ? null : transitionTo(State.CLOSED);
+		}
+		notifyListeners(from, State.CLOSED);
+	}
+
+	public synchronized State getState() {
+		if (state == State.OPEN
+				&& System.currentTimeMillis() - openedAtMillis >= config.getWaitDurationInOpenStateMillis()) {
+			return State.HALF_OPEN;
+		}
+		return state;
+	}
+
+	/**
+	 * @return failure rate in percents in the current window or -1 if there are
+	 *         not enough calls to calculate it.
+	 */
+	public synchronized float getFailureRate() {
+		return rate(failedCalls);
+	}
+
+	/**
+	 * @return slow call rate in percents in the current window or -1 if there
+	 *         are not enough calls to calculate it.
+	 */
+	public synchronized float getSlowCallRate() {
+		return rate(slowCalls);
+	}
+
+	public synchronized int getBufferedCalls() {
+		return bufferedCalls;
+	}
+
+	/**
+	 * @return number of calls rejected by this breaker.
+	 */
+	public synchronized long getNotPermittedCalls() {
+		return notPermittedCalls;
+	}
+
+	/**
+	 * @return number of state transitions since the breaker creation.
+	 */
+	public synchronized long getStateTransitions() {
+		return transitions;
+	}
+
+	public synchronized long getLastTransitionMillis() {
+		return lastTransitionMillis;
+	}
+
+	public CircuitBreakerConfig getConfig() {
+		return config;
+	}
+
+	private void record(final byte outcome) {
+		State from = null;
+		State to = null;
+		synchronized (this) {
+			if (state == State.OPEN) {
+				// late outcome of a call started before the breaker opened
+				return;
+			}
+			if (outcomes.length == bufferedCalls) {
+				forget(outcomes[position]);
+			} else {
+				bufferedCalls++;
+			}
+			outcomes[position] = outcome;
+			position = (position + 1) % outcomes.length;
+			if ((outcome & FAILURE) != 0) {
+				failedCalls++;
+			}
+			if ((outcome & SLOW) != 0) {
+				slowCalls++;
+			}
+			to = evaluate();
+			if (to != null) {
+				from = transitionTo(to);
+			}
+		}
+		notifyListeners(from, to);
+	}
+
+	/**
+	 * @return new state or null if the state is not changed.
+	 */
+	private State evaluate() {
+		if (state == State.HALF_OPEN) {
+			if (bufferedCalls < config.getPermittedCallsInHalfOpenState()) {
+				return null;
+			}
+			return isOverThreshold() ? State.OPEN : State.CLOSED;
+		}
+		if (state == State.CLOSED && bufferedCalls >= config.getMinimumNumberOfCalls() && isOverThreshold()) {
+			return State.OPEN;
+		}
+		return null;
+	}
+
+	private boolean isOverThreshold() {
+		final float failed = failedCalls * 100f / bufferedCalls;
+		final float slow = slowCalls * 100f / bufferedCalls;
+		return failed >= config.getFailureRateThreshold() || slow >= config.getSlowCallRateThreshold();
+	}
+
+	/**
+	 * Switches to the new state.
+	 *
+	 * @return previous state.
+	 */
+	private State transitionTo(final State newState) {
+		final State previous = state;
+		state = newState;
+		transitions++;
+		lastTransitionMillis = System.currentTimeMillis();
+		clearWindow();
+		if (newState == State.OPEN) {
+			openedAtMillis = lastTransitionMillis;
+		} else if (newState == State.HALF_OPEN) {
+			halfOpenPermits = config.getPermittedCallsInHalfOpenState();
+		}
+		return previous;
+	}
+
+	private void forget(final byte outcome) {
+		if ((outcome & FAILURE) != 0) {
+			failedCalls--;
+		}
+		if ((outcome & SLOW) != 0) {
+			slowCalls--;
+		}
+	}
+
+	private void clearWindow() {
+		position = 0;
+		bufferedCalls = 0;
+		failedCalls = 0;
+		slowCalls = 0;
+	}
+
+	private float rate(final int calls) {
+		if (bufferedCalls == 0 || state == State.CLOSED && bufferedCalls < config.getMinimumNumberOfCalls()) {
+			return -1;
+		}
+		return calls * 100f / bufferedCalls;
+	}
+
+	private void notifyListeners(final State from, final State to) {
+		if (from == null) {
+			return;
+		}
+		for (final StateListener listener : listeners) {
+			listener.onStateTransition(this, from, to);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package com.taskadapter.redmineapi;
+
+/**
+ * Immutable settings of a {@link CircuitBreaker}.
+ * <p>The breaker keeps outcomes of the last {@code slidingWindowSize} calls. Once at least
+ * {@code minimumNumberOfCalls} are recorded and either the failure rate or the slow call
+ * rate reaches its threshold, the breaker opens and rejects all calls for
+ * {@code waitDurationInOpenStateMillis}. After that it lets
+ * {@code permittedCallsInHalfOpenState} trial calls through and closes or opens again
+ * depending on their outcome.
+ */
+public final class CircuitBreakerConfig {
+	private final int slidingWindowSize;
+	private final int minimumNumberOfCalls;
+	private final float failureRateThreshold;
+	private final float slowCallRateThreshold;
+	private final long slowCallDurationMillis;
+	private final long waitDurationInOpenStateMillis;
+	private final int permittedCallsInHalfOpenState;
+
+	private CircuitBreakerConfig(final int slidingWindowSize, final int minimumNumberOfCalls,
+			final float failureRateThreshold, final float slowCallRateThreshold,
+			final long slowCallDurationMillis, final long waitDurationInOpenStateMillis,
+			final int permittedCallsInHalfOpenState) {
+		this.slidingWindowSize = slidingWindowSize;
+		this.minimumNumberOfCalls = minimumNumberOfCalls;
+		this.failureRateThreshold = failureRateThreshold;
+		this.slowCallRateThreshold = slowCallRateThreshold;
+		this.slowCallDurationMillis = slowCallDurationMillis;
+		this.waitDurationInOpenStateMillis = waitDurationInOpenStateMillis;
+		this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+	}
+
+	/**
+	 * Creates default settings: window of 20 calls, at least 10 calls, opens
+	 * at 50% failures or at 100% calls slower than 10 seconds, stays open for
+	 * 30 seconds and uses 3 trial calls.
+	 */
+	public static CircuitBreakerConfig create() {
+		return new CircuitBreakerConfig(20, 10, 50, 100, 10000, 30000, 3);
+	}
+
+	/**
+	 * @param slidingWindowSize number of last calls to calculate rates from.
+	 * @param minimumNumberOfCalls number of calls required before the rates are evaluated.
+	 */
+	public CircuitBreakerConfig withSlidingWindow(final int slidingWindowSize, final int minimumNumberOfCalls) {
+		if (slidingWindowSize < 1 || minimumNumberOfCalls < 1 || minimumNumberOfCalls > slidingWindowSize) {
+			throw new IllegalArgumentException("Invalid sliding window " + slidingWindowSize
+					+ ", minimum number of calls " + minimumNumberOfCalls);
+		}
+		return new CircuitBreakerConfig(slidingWindowSize, minimumNumberOfCalls, failureRateThreshold,
+				slowCallRateThreshold, slowCallDurationMillis, waitDurationInOpenStateMillis,
+				permittedCallsInHalfOpenState);
+	}
+
+	/**
+	 * @param percent failure rate (I/O errors and 5xx responses) opening the breaker.
+	 */
+	public CircuitBreakerConfig withFailureRateThreshold(final float percent) {
+		checkPercent(percent);
+		return new CircuitBreakerConfig(slidingWindowSize, minimumNumberOfCalls, percent,
+				slowCallRateThreshold, slowCallDurationMillis, waitDurationInOpenStateMillis,
+				permittedCallsInHalfOpenState);
+	}
+
+	/**
+	 * @param percent rate of slow calls opening the breaker.
+	 * @param slowCallDurationMillis calls taking longer than this are slow.
+	 */
+	public CircuitBreakerConfig withSlowCallThreshold(final float percent, final long slowCallDurationMillis) {
+		checkPercent(percent);
+		return new CircuitBreakerConfig(slidingWindowSize, minimumNumberOfCalls, failureRateThreshold,
+				percent, slowCallDurationMillis, waitDurationInOpenStateMillis,
+				permittedCallsInHalfOpenState);
+	}
+
+	/**
+	 * @param waitDurationMillis time to reject calls before trying the server again.
+	 * @param permittedCalls number of trial calls in "half-open" state.
+	 */
+	public CircuitBreakerConfig withOpenState(final long waitDurationMillis, final int permittedCalls) {
+		if (waitDurationMillis < 0 || permittedCalls < 1) {
+			throw new IllegalArgumentException("Invalid open state wait duration " + waitDurationMillis
+					+ ", permitted calls " + permittedCalls);
+		}
+		return new CircuitBreakerConfig(slidingWindowSize, minimumNumberOfCalls, failureRateThreshold,
+				slowCallRateThreshold, slowCallDurationMillis, waitDurationMillis, permittedCalls);
+	}
+
+	public int getSlidingWindowSize() {
+		return slidingWindowSize;
+	}
+
+	public int getMinimumNumberOfCalls() {
+		return minimumNumberOfCalls;
+	}
+
+	public float getFailureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	public float getSlowCallRateThreshold() {
+		return slowCallRateThreshold;
+	}
+
+	public long getSlowCallDurationMillis() {
+		return slowCallDurationMillis;
+	}
+
+	public long getWaitDurationInOpenStateMillis() {
+		return waitDurationInOpenStateMillis;
+	}
+
+	public int getPermittedCallsInHalfOpenState() {
+		return permittedCallsInHalfOpenState;
+	}
+
+	private static void checkPercent(final float percent) {
+		if (percent <= 0 || percent > 100) {
+			throw new IllegalArgumentException("Threshold must be in (0..100] range. You provided: " + percent);
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package com.taskadapter.redmineapi;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive limit of requests sent to a Redmine server at the same time. The
+ * limit follows the AIMD (additive increase, multiplicative decrease) scheme:
+ * <ul>
+ * <li>each successful request with a "normal" latency increases the limit by
+ * {@code 1/limit}, i.e. by one after a full limit of such requests;</li>
+ * <li>a request failed with an I/O error or a 5xx response, or a request which
+ * took longer than {@code latencyTolerance} times the baseline latency,
+ * multiplies the limit by {@code backoffRatio}. Requests started before the
+ * last decrease do not decrease the limit again: one overload episode
+ * decreases it once.</li>
+ * </ul>
+ * The baseline latency is a slowly moving average of latencies of successful
+ * requests which were not too slow. Callers block in {@link #acquire()} while the limit is reached.
+ * <p>This class is thread-safe. Share one limiter among all managers talking to
+ * the same server.
+ */
+public final class ConcurrencyLimiter {
+	private static final double BASELINE_WEIGHT = 0.05;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double backoffRatio;
+	private final double latencyTolerance;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition permitReleased = lock.newCondition();
+
+	private double limit;
+	private int inFlight;
+	private double baselineNanos;
+	private boolean decreased;
+	private long lastDecreaseNanos;
+
+	private ConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit,
+			final double backoffRatio, final double latencyTolerance) {
+		this.limit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.backoffRatio = backoffRatio;
+		this.latencyTolerance = latencyTolerance;
+	}
+
+	/**
+	 * Creates a limiter decreasing the limit by 10% when latency exceeds
+	 * the baseline two times.
+	 */
+	public static ConcurrencyLimiter create(final int initialLimit, final int minLimit, final int maxLimit) {
+		return create(initialLimit, minLimit, maxLimit, 0.9, 2);
+	}
+
+	/**
+	 * @param backoffRatio multiplier applied to the limit on overload, from 0 to 1.
+	 * @param latencyTolerance ratio of request latency to the baseline latency
+	 *            which is considered as overload, greater than 1.
+	 */
+	public static ConcurrencyLimiter create(final int initialLimit, final int minLimit, final int maxLimit,
+			final double backoffRatio, final double latencyTolerance) {
+		if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+			throw new IllegalArgumentException("Invalid limits: initial " + initialLimit + ", min " + minLimit
+					+ ", max " + maxLimit);
+		}
+		if (backoffRatio <= 0 || backoffRatio >= 1 || latencyTolerance <= 1) {
+			throw new IllegalArgumentException("Invalid backoff ratio " + backoffRatio + " or latency tolerance "
+					+ latencyTolerance);
+		}
+		return new ConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance);
+	}
+
+	/**
+	 * Waits for a permit. Each permit must be released by
+	 * {@link #release(long, boolean)} or {@link #release()}.
+	 *
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	public void acquire() throws InterruptedException {
+		lock.lockInterruptibly();
+		try {
+			while (inFlight >= (int) limit) {
+				permitReleased.await();
+			}
+			inFlight++;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits for a permit no longer than the given timeout.
+	 *
+	 * @return true if the permit is acquired.
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	public boolean tryAcquire(final long timeout, final TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			while (inFlight >= (int) limit) {
+				if (nanos <= 0) {
+					return false;
+				}
+				nanos = permitReleased.awaitNanos(nanos);
+			}
+			inFlight++;
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Releases a permit and adjusts the limit using the request outcome.
+	 *
+	 * @param latencyNanos request latency, from the start of the request
+	 *            until now.
+	 * @param failed true if the server failed to process the request.
+	 */
+	public void release(final long latencyNanos, final boolean failed) {
+		lock.lock();
+		try {
+			inFlight--;
+			final boolean slow = baselineNanos > 0 && latencyNanos > baselineNanos * latencyTolerance;
+			if (failed || slow) {
+				final long now = System.nanoTime();
+				// requests in flight during the last decrease report the same overload
+				if (!decreased || now - latencyNanos - lastDecreaseNanos >= 0) {
+					limit = Math.max(minLimit, limit * backoffRatio);
+					decreased = true;
+					lastDecreaseNanos = now;
+				}
+			} else {
+				limit = Math.min(maxLimit, limit + 1 / limit);
+				baselineNanos = baselineNanos == 0 ? latencyNanos
+						: baselineNanos * (1 - BASELINE_WEIGHT) + latencyNanos * BASELINE_WEIGHT;
+			}
+			permitReleased.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Releases a permit without adjusting the limit, e.g. when the request was
+	 * not sent at all.
+	 */
+	public void release() {
+		lock.lock();
+		try {
+			inFlight--;
+			permitReleased.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return current number of requests permitted at the same time.
+	 */
+	public int getLimit() {
+		lock.lock();
+		try {
+			return (int) limit;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int getInFlight() {
+		lock.lock();
+		try {
+			return inFlight;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public long getBaselineLatencyMillis() {
+		lock.lock();
+		try {
+			return TimeUnit.NANOSECONDS.toMillis((long) baselineNanos);
+		} finally {
+			lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,446 @@
+package com.taskadapter.redmineapi;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded cache of single objects loaded by id, like
+ * {@link IssueManager#getIssueById(Integer, Include...)},
+ * {@link ProjectManager#getProjectByKey(String)} or
+ * {@link UserManager#getUserById(Integer)}. Entries are keyed by the object
+ * class, the id, the request parameters (e.g. includes) and the credentials
+ * of the request, so users never see objects loaded on behalf of somebody
+ * else. The cache keeps server responses, each hit returns a new object.
+ * <p>Updates, deletes and child changes (watchers, memberships, etc.) sent
+ * through a manager using the cache invalidate the affected objects. Changes
+ * made by other clients are seen when entries expire, so choose time to live
+ * of each type according to how stale objects may be:
+ * <pre>
+ EntityCache cache = EntityCache.create(10000, 60000);
+ cache.setTimeToLive(User.class, 600000);
+ TransportConfiguration config = TransportConfiguration.create(client, null).withEntityCache(cache);
+ * </pre>
+ * <p>Objects which were not found may be remembered for a short time too (see
+ * {@link #setMissingTimeToLive(long)}), so repeated existence probes like
+ * {@link ProjectManager#findProjectByKey(String)} do not reach the server.
+ * Objects created through a manager using the cache clear missing entries of
+ * their type.
+ * <p>The cache is a segmented LRU: new entries go to a probation segment,
+ * entries hit again move to a protected segment holding up to 80% of the
+ * entries. One-off lookups are evicted before objects used repeatedly.
+ * <p>This class is thread-safe. One cache may be shared by several managers.
+ */
+public final class EntityCache {
+	/** Part of entries kept in the protected segment, in percent. */
+	private static final int PROTECTED_PERCENT = 80;
+
+	private final int maxEntries;
+	private final int maxProtected;
+	private final long defaultTtlMillis;
+	private final Map<Class<?>, Long> ttlMillis = new HashMap<Class<?>, Long>();
+
+	private final LinkedHashMap<Key, Entry> probation = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+	private final LinkedHashMap<Key, Entry> protectedEntries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+	/** Keys by "class#id" of the object. */
+	private final Map<String, Set<Key>> keysById = new HashMap<String, Set<Key>>();
+	/** Expiration times of objects which were not found, least recently used first. */
+	private final LinkedHashMap<Key, Long> missing = new LinkedHashMap<Key, Long>(16, 0.75f, true);
+	private long missingTtlMillis;
+
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long expirations;
+	private long invalidations;
+	private long missingHits;
+
+	private EntityCache(final int maxEntries, final long defaultTtlMillis) {
+		this.maxEntries = maxEntries;
+		this.maxProtected = Math.max(1, (int) ((long) maxEntries * PROTECTED_PERCENT / 100));
+		this.defaultTtlMillis = defaultTtlMillis;
+	}
+
+	/**
+	 * @param maxEntries maximal number of cached objects.
+	 * @param defaultTtlMillis time to live of objects of types without their
+	 *            own time to live.
+	 */
+	public static EntityCache create(final int maxEntries, final long defaultTtlMillis) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("Cache size must be positive. You provided: " + maxEntries);
+		}
+		checkTtl(defaultTtlMillis);
+		return new EntityCache(maxEntries, defaultTtlMillis);
+	}
+
+	/**
+	 * Sets time to live of objects of one type. Entries already cached keep
+	 * their expiration time.
+	 *
+	 * @param ttlMillis time to live, 0 to not cache objects of the type.
+	 */
+	public synchronized void setTimeToLive(final Class<?> type, final long ttlMillis) {
+		checkTtl(ttlMillis);
+		this.ttlMillis.put(type, ttlMillis);
+	}
+
+	/**
+	 * Sets time to live of "not found" answers. Keep it short: objects
+	 * created by other clients are not seen until the entry expires.
+	 *
+	 * @param ttlMillis time to live, 0 (the default) to not remember missing
+	 *            objects.
+	 */
+	public synchronized void setMissingTimeToLive(final long ttlMillis) {
+		checkTtl(ttlMillis);
+		missingTtlMillis = ttlMillis;
+		if (ttlMillis == 0) {
+			missing.clear();
+		}
+	}
+
+	/**
+	 * Returns a cached server response.
+	 *
+	 * @param id object id or key used in the request.
+	 * @param variant request parameters and credentials.
+	 * @return response or null if there is no live entry.
+	 */
+	public synchronized String get(final Class<?> type, final String id, final String variant) {
+		final Key key = new Key(type, id, variant);
+		Entry entry = protectedEntries.get(key);
+		if (entry == null) {
+			entry = probation.get(key);
+			if (entry != null && !entry.isExpired(System.currentTimeMillis())) {
+				probation.remove(key);
+				protectedEntries.put(key, entry);
+				demoteProtected();
+			}
+		}
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+		if (entry.isExpired(System.currentTimeMillis())) {
+			remove(key);
+			expirations++;
+			misses++;
+			return null;
+		}
+		hits++;
+		return entry.response;
+	}
+
+	/**
+	 * Caches a server response.
+	 *
+	 * @param id object id or key used in the request.
+	 * @param objectId id of the loaded object, may be null. Invalidation by
+	 *            this id removes the entry too.
+	 * @param variant request parameters and credentials.
+	 */
+	public synchronized void put(final Class<?> type, final String id, final Integer objectId,
+			final String variant, final String response) {
+		final long ttl = getTimeToLive(type);
+		if (ttl == 0) {
+			return;
+		}
+		final Key key = new Key(type, id, variant);
+		remove(key);
+		final List<String> ids = new ArrayList<String>(2);
+		ids.add(indexKey(type, id));
+		if (objectId != null && !id.equals(objectId.toString())) {
+			ids.add(indexKey(type, objectId.toString()));
+		}
+		probation.put(key, new Entry(response, System.currentTimeMillis() + ttl, ids));
+		for (final String indexKey : ids) {
+			Set<Key> keys = keysById.get(indexKey);
+			if (keys == null) {
+				keys = new HashSet<Key>();
+				keysById.put(indexKey, keys);
+			}
+			keys.add(key);
+		}
+		while (probation.size() + protectedEntries.size() > maxEntries) {
+			final Map<Key, Entry> victims = probation.isEmpty() ? protectedEntries : probation;
+			remove(victims.keySet().iterator().next());
+			evictions++;
+		}
+	}
+
+	/**
+	 * Checks if the object was recently not found.
+	 *
+	 * @param id object id or key used in the request.
+	 * @param variant request parameters and credentials.
+	 */
+	public synchronized boolean isMissing(final Class<?> type, final String id, final String variant) {
+		final Key key = new Key(type, id, variant);
+		final Long expiresAt = missing.get(key);
+		if (expiresAt == null) {
+			return false;
+		}
+		if (System.currentTimeMillis() >= expiresAt) {
+			missing.remove(key);
+			return false;
+		}
+		missingHits++;
+		return true;
+	}
+
+	/**
+	 * Remembers that the server did not find the object. Does nothing unless
+	 * time to live of missing objects is set.
+	 */
+	public synchronized void putMissing(final Class<?> type, final String id, final String variant) {
+		if (missingTtlMillis == 0 || getTimeToLive(type) == 0) {
+			return;
+		}
+		missing.put(new Key(type, id, variant), System.currentTimeMillis() + missingTtlMillis);
+		if (missing.size() > maxEntries) {
+			final Iterator<Key> eldest = missing.keySet().iterator();
+			eldest.next();
+			eldest.remove();
+		}
+	}
+
+	/**
+	 * Forgets all missing objects of the type, for example when an object of
+	 * the type is created.
+	 */
+	public synchronized void invalidateMissing(final Class<?> type) {
+		final Iterator<Key> keys = missing.keySet().iterator();
+		while (keys.hasNext()) {
+			if (keys.next().type.equals(type)) {
+				keys.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes all entries of the object with the given id or key, loaded with
+	 * any parameters and credentials. Keys which are not numbers (like project
+	 * identifiers) remove all objects of the type, because entries loaded by
+	 * the numeric id can not be matched with the key.
+	 */
+	public synchronized void invalidate(final Class<?> type, final String id) {
+		final Iterator<Key> missingKeys = missing.keySet().iterator();
+		while (missingKeys.hasNext()) {
+			final Key key = missingKeys.next();
+			if (key.type.equals(type) && key.id.equals(id)) {
+				missingKeys.remove();
+			}
+		}
+		if (!isNumber(id)) {
+			invalidateAll(type);
+			return;
+		}
+		final Set<Key> keys = keysById.get(indexKey(type, id));
+		if (keys == null) {
+			return;
+		}
+		for (final Key key : new ArrayList<Key>(keys)) {
+			remove(key);
+			invalidations++;
+		}
+	}
+
+	/**
+	 * Removes all cached objects of the type.
+	 */
+	public synchronized void invalidateAll(final Class<?> type) {
+		invalidateMissing(type);
+		final List<Key> keys = new ArrayList<Key>();
+		for (final Key key : probation.keySet()) {
+			if (key.type.equals(type)) {
+				keys.add(key);
+			}
+		}
+		for (final Key key : protectedEntries.keySet()) {
+			if (key.type.equals(type)) {
+				keys.add(key);
+			}
+		}
+		for (final Key key : keys) {
+			remove(key);
+			invalidations++;
+		}
+	}
+
+	/**
+	 * Removes all entries. Statistics are kept.
+	 */
+	public synchronized void clear() {
+		probation.clear();
+		protectedEntries.clear();
+		keysById.clear();
+		missing.clear();
+	}
+
+	public synchronized int size() {
+		return probation.size() + protectedEntries.size();
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * @return number of lookups without a live entry, including expired
+	 *         entries.
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * @return part of lookups answered from the cache, 0 if there were no
+	 *         lookups.
+	 */
+	public synchronized float getHitRate() {
+		final long lookups = hits + misses;
+		return lookups == 0 ? 0 : (float) hits / lookups;
+	}
+
+	/**
+	 * @return number of lookups answered with a remembered "not found".
+	 */
+	public synchronized long getMissingHitCount() {
+		return missingHits;
+	}
+
+	/**
+	 * @return number of entries removed to keep the cache size.
+	 */
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	/**
+	 * @return number of expired entries found by lookups.
+	 */
+	public synchronized long getExpirationCount() {
+		return expirations;
+	}
+
+	/**
+	 * @return number of entries removed by updates and deletes.
+	 */
+	public synchronized long getInvalidationCount() {
+		return invalidations;
+	}
+
+	private long getTimeToLive(final Class<?> type) {
+		final Long ttl = ttlMillis.get(type);
+		return ttl == null ? defaultTtlMillis : ttl;
+	}
+
+	/**
+	 * Moves least recently used protected entries back to probation.
+	 */
+	private void demoteProtected() {
+		final Iterator<Map.Entry<Key, Entry>> eldest = protectedEntries.entrySet().iterator();
+		while (protectedEntries.size() > maxProtected) {
+			final Map.Entry<Key, Entry> demoted = eldest.next();
+			eldest.remove();
+			probation.put(demoted.getKey(), demoted.getValue());
+		}
+	}
+
+	private void remove(final Key key) {
+		Entry entry = probation.remove(key);
+		if (entry == null) {
+			entry = protectedEntries.remove(key);
+		}
+		if (entry == null) {
+			return;
+		}
+		for (final String indexKey : entry.ids) {
+			final Set<Key> keys = keysById.get(indexKey);
+			if (keys != null) {
+				keys.remove(key);
+				if (keys.isEmpty()) {
+					keysById.remove(indexKey);
+				}
+			}
+		}
+	}
+
+	private static String indexKey(final Class<?> type, final String id) {
+		return type.getName() + '#' + id;
+	}
+
+	private static boolean isNumber(final String id) {
+		if (id.isEmpty()) {
+			return false;
+		}
+		for (int i = 0; i < id.length(); i++) {
+			if (!Character.isDigit(id.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void checkTtl(final long ttlMillis) {
+		if (ttlMillis < 0) {
+			throw new IllegalArgumentException("Time to live must be >= 0. You provided: " + ttlMillis);
+		}
+	}
+
+	private static final class Key {
+		final Class<?> type;
+		final String id;
+		final String variant;
+
+		Key(final Class<?> type, final String id, final String variant) {
+			this.type = type;
+			this.id = id;
+			this.variant = variant;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) o;
+			return type.equals(other.type) && id.equals(other.id) && variant.equals(other.variant);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * type.hashCode() + id.hashCode()) + variant.hashCode();
+		}
+	}
+
+	private static final class Entry {
+		final String response;
+		final long expiresAt;
+		/** Index keys of the entry. */
+		final List<String> ids;
+
+		Entry(final String response, final long expiresAt, final List<String> ids) {
+			this.response = response;
+			this.expiresAt = expiresAt;
+			this.ids = ids;
+		}
+
+		boolean isExpired(final long now) {
+			return now >= expiresAt;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.taskadapter.redmineapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Results of a {@link RedmineFederation} query. Contains objects of all
+ * instances which answered in time, and failures of other instances.
+ */
+public final class FederatedResult<T> {
+	private final Map<String, List<T>> results;
+	private final Map<String, RedmineException> failures;
+	private final Set<String> timedOutSources;
+
+	public FederatedResult(final Map<String, List<T>> results, final Map<String, RedmineException> failures,
+			final Set<String> timedOutSources) {
+		this.results = Collections.unmodifiableMap(new LinkedHashMap<String, List<T>>(results));
+		this.failures = Collections.unmodifiableMap(new LinkedHashMap<String, RedmineException>(failures));
+		this.timedOutSources = Collections.unmodifiableSet(new LinkedHashSet<String>(timedOutSources));
+	}
+
+	/**
+	 * @return objects of all answered instances tagged with their source, in
+	 *         the order of instances in the federation.
+	 */
+	public List<SourcedObject<T>> getObjects() {
+		final List<SourcedObject<T>> objects = new ArrayList<SourcedObject<T>>();
+		for (final Map.Entry<String, List<T>> entry : results.entrySet()) {
+			for (final T object : entry.getValue()) {
+				objects.add(new SourcedObject<T>(entry.getKey(), object));
+			}
+		}
+		return objects;
+	}
+
+	/**
+	 * @return objects loaded from the instance or null if the instance failed.
+	 */
+	public List<T> getObjects(final String source) {
+		return results.get(source);
+	}
+
+	/**
+	 * @return objects keyed by instance name, for instances which answered.
+	 */
+	public Map<String, List<T>> getResults() {
+		return results;
+	}
+
+	/**
+	 * @return exceptions of failed instances, including timed out ones.
+	 */
+	public Map<String, RedmineException> getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @return instances which did not answer within their timeout.
+	 */
+	public Set<String> getTimedOutSources() {
+		return timedOutSources;
+	}
+
+	/**
+	 * @return true if all instances answered.
+	 */
+	public boolean isComplete() {
+		return failures.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "FederatedResult{results=" + results.keySet() + ", failures=" + failures.keySet() + '}';
+	}
+}
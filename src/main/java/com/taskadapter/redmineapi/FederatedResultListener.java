@@ -0,0 +1,22 @@
+package com.taskadapter.redmineapi;
+
+import java.util.List;
+
+/**
+ * Receives results of a {@link RedmineFederation} query as soon as each
+ * instance answers. Called on the thread which runs the query, one instance
+ * at a time.
+ */
+public interface FederatedResultListener<T> {
+	/**
+	 * @param source name of the instance.
+	 * @param objects objects loaded from the instance.
+	 */
+	void onResults(String source, List<T> objects);
+
+	/**
+	 * @param source name of the instance.
+	 * @param exception failure or timeout of the instance.
+	 */
+	void onFailure(String source, RedmineException exception);
+}
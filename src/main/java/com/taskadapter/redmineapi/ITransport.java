@@ -137,6 +137,25 @@ public interface ITransport extends Closeable {
 	 */
 	<T> T getObject(Class<T> classs, String key, NameValuePair... args) throws RedmineException;
 	
+	/**
+	 * Loads an object like {@link #getObject(Class, Integer, NameValuePair...)}
+	 * but answers null for missing objects. No exception is created for the
+	 * "404 not found" answer, so use it to check existence of many objects.
+	 *
+	 * @return object or null if the object with the given key is not found.
+	 * @throws RedmineException
+	 */
+	<T> T findObject(Class<T> classs, Integer key, NameValuePair... args) throws RedmineException;
+	
+	/**
+	 * Loads an object like {@link #getObject(Class, String, NameValuePair...)}
+	 * but answers null for missing objects.
+	 *
+	 * @return object or null if the object with the given key is not found.
+	 * @throws RedmineException
+	 */
+	<T> T findObject(Class<T> classs, String key, NameValuePair... args) throws RedmineException;
+	
 	/**
 	 * Returns all objects found using the provided parameters.
 	 * This method IGNORES "limit" and "offset" parameters and handles paging AUTOMATICALLY for you.
@@ -161,6 +180,18 @@ public interface ITransport extends Closeable {
 	<T> ResultsWrapper<T> getObjectsListNoPaging(Class<T> objectClass, Collection<? extends NameValuePair> params)
 			throws RedmineException;
 	
+	/**
+	 * @return context applied to requests of this transport.
+	 */
+	RequestContext getContext();
+	
+	/**
+	 * Creates a transport sharing connections and state of this transport but
+	 * applying another context to its requests. This transport is not changed.
+	 * Closing the returned transport does not release shared resources.
+	 */
+	ITransport withContext(RequestContext context);
+	
 	void setCredentials(String login, String password);
 	
 	void setLogin(String login);
@@ -1,10 +1,16 @@
 package com.taskadapter.redmineapi;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.apache.http.NameValuePair;
 import org.apache.http.message.BasicNameValuePair;
@@ -24,6 +30,10 @@ import com.taskadapter.redmineapi.bean.Tracker;
 import com.taskadapter.redmineapi.bean.Watcher;
 import com.taskadapter.redmineapi.internal.DirectObjectsSearcher;
 import com.taskadapter.redmineapi.internal.Joiner;
+import com.taskadapter.redmineapi.internal.ParallelTasks;
+import com.taskadapter.redmineapi.internal.ParameterMapConverter;
+import com.taskadapter.redmineapi.internal.Transport.ResultsWrapper;
+import com.taskadapter.redmineapi.internal.WindowedScan;
 
 /**
  * Works with Issues, Time Entries, Issue Statuses, Issue Relations.
@@ -42,6 +52,15 @@ import com.taskadapter.redmineapi.internal.Joiner;
  * @see RedmineManager#getIssueManager()
  */
 public class IssueManager {
+	/**
+	 * Length of "issue_id" filter value sent in one request. Keeps URLs well
+	 * below limits of common servers and proxies.
+	 */
+	private static final int MAX_ISSUE_ID_FILTER_LENGTH = 1500;
+	private static final int MAX_ISSUE_IDS_PER_REQUEST = 100;
+	/** Default server cap of the "limit" parameter. */
+	private static final int KEYSET_PAGE_SIZE = 100;
+	
 	private final ITransport transport;
 	
 	IssueManager(final ITransport _transport) {
@@ -96,6 +115,37 @@ public class IssueManager {
 				Include.attachments.toString()));
 	}
 	
+	/**
+	 * Creates issues, at most {@link ParallelTasks#DEFAULT_PARALLELISM} at the
+	 * same time. A failed issue (e.g. {@link RedmineProcessingException} with
+	 * validation errors) does not stop the others.
+	 *
+	 * @return created issues or exceptions in the order of given issues.
+	 * @throws RedmineException if interrupted while waiting for the results.
+	 */
+	public BulkResult<Issue> createIssues(final Collection<Issue> issues) throws RedmineException {
+		return createIssues(issues, ParallelTasks.DEFAULT_PARALLELISM, null);
+	}
+	
+	/**
+	 * Creates issues, at most "parallelism" at the same time. Requests go
+	 * through the same transport as single calls, so configured retries and
+	 * rate limits apply to each of them.
+	 *
+	 * @param listener called after each issue, may be null.
+	 * @return created issues or exceptions in the order of given issues.
+	 * @throws RedmineException if interrupted while waiting for the results.
+	 */
+	public BulkResult<Issue> createIssues(final Collection<Issue> issues, final int parallelism,
+			final BulkProgressListener<Issue> listener) throws RedmineException {
+		return ParallelTasks.forEach(issues, parallelism, new ParallelTasks.ItemTask<Issue>() {
+			@Override
+			public Issue process(final Issue issue) throws RedmineException {
+				return createIssue(issue);
+			}
+		}, listener);
+	}
+	
 	/**
 	 * DEPRECATED. use createIssue(Issue issue) instead.
 	 * "projectKey" parameter required by this method duplicates what is already available in "issue" parameter.
@@ -176,13 +226,32 @@ public class IssueManager {
 		transport.deleteObject(Issue.class, Integer.toString(id));
 	}
 	
+	/**
+	 * Deletes issues, at most {@link ParallelTasks#DEFAULT_PARALLELISM} at the
+	 * same time. Issues which are not found are considered as already deleted.
+	 *
+	 * @return deleted ids and failures, see {@link BulkResult#checkFailures()}.
+	 */
+	public BulkResult<Integer> deleteIssues(final Collection<Integer> ids) throws RedmineException {
+		return deleteIssues(ids, ParallelTasks.DEFAULT_PARALLELISM);
+	}
+	
+	public BulkResult<Integer> deleteIssues(final Collection<Integer> ids, final int parallelism)
+			throws RedmineException {
+		return ParallelTasks.deleteAll(transport, Issue.class, ids, parallelism);
+	}
+	
 	/**
 	 * Delete all issue's relations
+	 *
+	 * @throws RedmineBulkException if some relations failed to delete.
 	 */
 	public void deleteIssueRelations(final Issue redmineIssue) throws RedmineException {
+		final List<Integer> ids = new ArrayList<Integer>();
 		for (final IssueRelation relation : redmineIssue.getRelations()) {
-			deleteRelation(relation.getId());
+			ids.add(relation.getId());
 		}
+		deleteRelations(ids).checkFailures();
 	}
 	
 	/**
@@ -202,10 +271,42 @@ public class IssueManager {
 		transport.deleteObject(IssueRelation.class, Integer.toString(id));
 	}
 	
+	/**
+	 * Deletes issue relations, at most {@link ParallelTasks#DEFAULT_PARALLELISM}
+	 * at the same time. Relations which are not found are considered as already
+	 * deleted.
+	 *
+	 * @return deleted ids and failures, see {@link BulkResult#checkFailures()}.
+	 */
+	public BulkResult<Integer> deleteRelations(final Collection<Integer> ids) throws RedmineException {
+		return deleteRelations(ids, ParallelTasks.DEFAULT_PARALLELISM);
+	}
+	
+	public BulkResult<Integer> deleteRelations(final Collection<Integer> ids, final int parallelism)
+			throws RedmineException {
+		return ParallelTasks.deleteAll(transport, IssueRelation.class, ids, parallelism);
+	}
+	
 	public void deleteTimeEntry(final Integer id) throws RedmineException {
 		transport.deleteObject(TimeEntry.class, Integer.toString(id));
 	}
 	
+	/**
+	 * Deletes time entries, at most {@link ParallelTasks#DEFAULT_PARALLELISM}
+	 * at the same time. Entries which are not found are considered as already
+	 * deleted.
+	 *
+	 * @return deleted ids and failures, see {@link BulkResult#checkFailures()}.
+	 */
+	public BulkResult<Integer> deleteTimeEntries(final Collection<Integer> ids) throws RedmineException {
+		return deleteTimeEntries(ids, ParallelTasks.DEFAULT_PARALLELISM);
+	}
+	
+	public BulkResult<Integer> deleteTimeEntries(final Collection<Integer> ids, final int parallelism)
+			throws RedmineException {
+		return ParallelTasks.deleteAll(transport, TimeEntry.class, ids, parallelism);
+	}
+	
 	public void deleteWatcherFromIssue(final Watcher watcher, final Issue issue) throws RedmineException {
 		transport.deleteChildId(Issue.class, Integer.toString(issue.getId()), watcher, watcher.getId());
 	}
@@ -238,6 +339,119 @@ public class IssueManager {
 		return transport.getObject(Issue.class, id, new BasicNameValuePair("include", value));
 	}
 	
+	/**
+	 * Loads an issue like {@link #getIssueById(Integer, Include...)}, but
+	 * answers null instead of throwing {@link NotFoundException} when the
+	 * issue does not exist or is not visible. Use it for existence checks.
+	 *
+	 * @param id      Redmine issue Id
+	 * @param include list of "includes". e.g. "relations", "journals", ...
+	 * @return Issue object or null if the issue is not found.
+	 * @throws RedmineException
+	 */
+	public Issue findIssueById(final Integer id, final Include... include) throws RedmineException {
+		final String value = Joiner.join(",", include);
+		return transport.findObject(Issue.class, id, new BasicNameValuePair("include", value));
+	}
+	
+	/**
+	 * Loads many issues by ids using "issue_id=1,2,3" list filters. Ids are split
+	 * into chunks with short enough URLs, chunks are loaded in parallel with
+	 * one request per chunk. Closed issues are loaded too.
+	 *
+	 * @param ids     issue ids, duplicates and nulls are ignored.
+	 * @param include list of "includes". e.g. "relations", "journals", ...
+	 * @return found issues and ids which were not found on the server or are not
+	 *         visible to the current user.
+	 * @throws RedmineException if any chunk fails to load.
+	 */
+	public ObjectsByIds<Issue> getIssuesByIds(final Collection<Integer> ids, final Include... include)
+			throws RedmineException {
+		return getIssuesByIds(ids, ParallelTasks.DEFAULT_PARALLELISM, include);
+	}
+	
+	/**
+	 * Same as {@link #getIssuesByIds(Collection, Include...)}, loading at most
+	 * "parallelism" chunks at the same time.
+	 */
+	public ObjectsByIds<Issue> getIssuesByIds(final Collection<Integer> ids, final int parallelism,
+			final Include... include) throws RedmineException {
+		final Set<Integer> requested = new LinkedHashSet<Integer>(ids);
+		requested.remove(null);
+		final String includeStr = Joiner.join(",", include);
+		final List<Callable<List<Issue>>> tasks = new ArrayList<Callable<List<Issue>>>();
+		for (final String filter : splitIdFilters(requested)) {
+			tasks.add(new Callable<List<Issue>>() {
+				@Override
+				public List<Issue> call() throws RedmineException {
+					// one page holds the whole chunk, no paging requests
+					final List<NameValuePair> params = new ArrayList<NameValuePair>();
+					params.add(new BasicNameValuePair("issue_id", filter));
+					params.add(new BasicNameValuePair("status_id", "*"));
+					params.add(new BasicNameValuePair("include", includeStr));
+					params.add(new BasicNameValuePair("limit", String.valueOf(countIds(filter))));
+					return transport.getObjectsListNoPaging(Issue.class, params).getResults();
+				}
+			});
+		}
+		final Map<Integer, Issue> loaded = new HashMap<Integer, Issue>();
+		for (final List<Issue> chunk : ParallelTasks.invokeAll(tasks, parallelism)) {
+			for (final Issue issue : chunk) {
+				loaded.put(issue.getId(), issue);
+			}
+		}
+		final Map<Integer, Issue> found = new LinkedHashMap<Integer, Issue>();
+		final Set<Integer> missing = new LinkedHashSet<Integer>();
+		for (final Integer id : requested) {
+			final Issue issue = loaded.get(id);
+			if (issue == null) {
+				missing.add(id);
+			} else {
+				found.put(id, issue);
+			}
+		}
+		return new ObjectsByIds<Issue>(found, missing);
+	}
+	
+	private static int countIds(final String filter) {
+		int count = 1;
+		for (int i = 0; i < filter.length(); i++) {
+			if (filter.charAt(i) == ',') {
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	private static List<String> splitIdFilters(final Collection<Integer> ids) {
+		final List<String> filters = new ArrayList<String>();
+		final StringBuilder filter = new StringBuilder();
+		int idsInFilter = 0;
+		int encodedLength = 0;
+		for (final Integer id : ids) {
+			final String value = id.toString();
+			// a comma is sent URL-encoded as "%2C"
+			if (idsInFilter == MAX_ISSUE_IDS_PER_REQUEST
+					|| idsInFilter > 0 && encodedLength + 3 + value.length() > MAX_ISSUE_ID_FILTER_LENGTH) {
+				filters.add(filter.toString());
+				filter.setLength(0);
+				idsInFilter = 0;
+				encodedLength = 0;
+			}
+			if (idsInFilter > 0) {
+				filter.append(',');
+				encodedLength += 3;
+			}
+			filter.append(value);
+			encodedLength += value.length();
+			idsInFilter++;
+		}
+		if (idsInFilter > 0) {
+			filters.add(filter.toString());
+		}
+		return filters;
+	}
+	
 	public List<IssuePriority> getIssuePriorities() throws RedmineException {
 		return transport.getObjectsList(IssuePriority.class);
 	}
@@ -265,6 +479,156 @@ public class IssueManager {
 		return DirectObjectsSearcher.getObjectsListNoPaging(transport, parameters, Issue.class);
 	}
 	
+	/**
+	 * Loads all issues updated in the given date range. Unlike deep "offset"
+	 * paging, the range is split into "updated_on" windows of a few hundred
+	 * issues, which are loaded in parallel. Use it for large exports.
+	 * <p>Redmine returns only open issues by default, add "status_id"="*" to
+	 * the parameters to load closed issues too.
+	 *
+	 * @param parameters list filters, like "project_id" or "include".
+	 * @param from       first day of the range, inclusive.
+	 * @param to         last day of the range, inclusive.
+	 * @return issues in ascending order of update windows, each issue once.
+	 */
+	public List<Issue> scanIssuesUpdatedBetween(final Map<String, String> parameters, final Date from,
+			final Date to) throws RedmineException {
+		return scanIssuesUpdatedBetween(parameters, from, to, ParallelTasks.DEFAULT_PARALLELISM);
+	}
+	
+	/**
+	 * Same as {@link #scanIssuesUpdatedBetween(Map, Date, Date)}, loading at
+	 * most "parallelism" windows at the same time.
+	 */
+	public List<Issue> scanIssuesUpdatedBetween(final Map<String, String> parameters, final Date from,
+			final Date to, final int parallelism) throws RedmineException {
+		return WindowedScan.scan(transport, Issue.class, ParameterMapConverter.getNameValuePairs(parameters),
+				"updated_on", from, to, parallelism, WindowedScan.DEFAULT_WINDOW_SIZE);
+	}
+	
+	/**
+	 * Counts issues matching the parameters without loading them: requests
+	 * one issue ("limit=1") and returns "total_count" of the response.
+	 * <p>Redmine counts only open issues by default, add "status_id"="*" to
+	 * the parameters to count closed issues too.
+	 *
+	 * @param parameters list filters, like for {@link #getIssues(Map)}.
+	 * @return number of matching issues.
+	 */
+	public int countIssues(final Map<String, String> parameters) throws RedmineException {
+		final Map<String, String> params = new HashMap<String, String>(parameters);
+		params.put("limit", "1");
+		params.remove("offset");
+		final ResultsWrapper<Issue> wrapper = transport.getObjectsListNoPaging(Issue.class,
+				ParameterMapConverter.getNameValuePairs(params));
+		final Integer total = wrapper.getTotalFoundOnServer();
+		if (total == null) {
+			throw new RedmineFormatException("Response does not contain total_count");
+		}
+		return total;
+	}
+	
+	/**
+	 * Evaluates many count queries, at most
+	 * {@link ParallelTasks#DEFAULT_PARALLELISM} at the same time. Sample usage,
+	 * a project by status matrix:
+	 * <pre>
+	 Map&lt;String, Map&lt;String, String&gt;&gt; queries = new LinkedHashMap&lt;String, Map&lt;String, String&gt;&gt;();
+	 for (Project project : projects) {
+	     for (IssueStatus status : statuses) {
+	         Map&lt;String, String&gt; query = new HashMap&lt;String, String&gt;();
+	         query.put("project_id", project.getId().toString());
+	         query.put("status_id", status.getId().toString());
+	         queries.put(project.getIdentifier() + "/" + status.getName(), query);
+	     }
+	 }
+	 Map&lt;String, Integer&gt; counts = issueManager.countIssuesBatch(queries);
+	 * </pre>
+	 *
+	 * @param queries list filters by caller-defined keys.
+	 * @return numbers of matching issues by the same keys, in the same order.
+	 * @throws RedmineException if any query fails.
+	 */
+	public <K> Map<K, Integer> countIssuesBatch(final Map<K, Map<String, String>> queries)
+			throws RedmineException {
+		return countIssuesBatch(queries, ParallelTasks.DEFAULT_PARALLELISM);
+	}
+	
+	/**
+	 * Same as {@link #countIssuesBatch(Map)}, evaluating at most "parallelism"
+	 * queries at the same time.
+	 */
+	public <K> Map<K, Integer> countIssuesBatch(final Map<K, Map<String, String>> queries, final int parallelism)
+			throws RedmineException {
+		final List<K> keys = new ArrayList<K>(queries.keySet());
+		final List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>(keys.size());
+		for (final K key : keys) {
+			final Map<String, String> query = queries.get(key);
+			tasks.add(new Callable<Integer>() {
+				@Override
+				public Integer call() throws RedmineException {
+					return countIssues(query);
+				}
+			});
+		}
+		final List<Integer> counts = ParallelTasks.invokeAll(tasks, parallelism);
+		final Map<K, Integer> result = new LinkedHashMap<K, Integer>();
+		for (int i = 0; i < keys.size(); i++) {
+			result.put(keys.get(i), counts.get(i));
+		}
+		return result;
+	}
+	
+	/**
+	 * Loads all issues matching the parameters using keyset paging: issues are
+	 * sorted by id and each page starts after the last id of the previous page
+	 * ("issue_id=&gt;=N") instead of using an offset. Each page costs the same
+	 * on the server, and issues created or deleted during the load do not shift
+	 * pages, so no issue is skipped or loaded twice.
+	 * <p>Redmine returns only open issues by default, add "status_id"="*" to
+	 * the parameters to load closed issues too.
+	 *
+	 * @param parameters list filters, must not contain "issue_id", "sort",
+	 *                   "limit" or "offset".
+	 * @return issues sorted by id.
+	 * @throws RedmineException if the server ignores the "issue_id" range
+	 *                          filter.
+	 */
+	public List<Issue> getIssuesInIdOrder(final Map<String, String> parameters) throws RedmineException {
+		for (final String reserved : new String[] {"issue_id", "sort", "limit", "offset"}) {
+			if (parameters.containsKey(reserved)) {
+				throw new IllegalArgumentException("Parameter \"" + reserved + "\" is used by keyset paging");
+			}
+		}
+		final List<Issue> result = new ArrayList<Issue>();
+		int nextId = 1;
+		while (true) {
+			final List<NameValuePair> params = new ArrayList<NameValuePair>(
+					ParameterMapConverter.getNameValuePairs(parameters));
+			params.add(new BasicNameValuePair("sort", "id"));
+			params.add(new BasicNameValuePair("issue_id", ">=" + nextId));
+			params.add(new BasicNameValuePair("limit", String.valueOf(KEYSET_PAGE_SIZE)));
+			final ResultsWrapper<Issue> page = transport.getObjectsListNoPaging(Issue.class, params);
+			final List<Issue> issues = page.getResults();
+			if (issues == null || issues.isEmpty()) {
+				break;
+			}
+			for (final Issue issue : issues) {
+				if (issue.getId() < nextId) {
+					throw new RedmineException("Server ignored \"issue_id=>=" + nextId
+							+ "\" filter: keyset paging is not supported");
+				}
+			}
+			result.addAll(issues);
+			nextId = issues.get(issues.size() - 1).getId() + 1;
+			final Integer remaining = page.getTotalFoundOnServer();
+			if (remaining != null && issues.size() >= remaining) {
+				break;
+			}
+		}
+		return result;
+	}
+	
 	/**
 	 * @param projectKey ignored if NULL
 	 * @param queryId    id of the saved query in Redmine. the query must be accessible to the user
@@ -351,6 +715,39 @@ public class IssueManager {
 		return transport.getObjectsList(TimeEntry.class);
 	}
 	
+	/**
+	 * Loads all time entries matching the filter, like "project_id",
+	 * "user_id" or "spent_on".
+	 */
+	public List<TimeEntry> getTimeEntries(final Map<String, String> parameters) throws RedmineException {
+		return transport.getObjectsList(TimeEntry.class, ParameterMapConverter.getNameValuePairs(parameters));
+	}
+	
+	/**
+	 * Loads all time entries spent in the given date range. The range is split
+	 * into "spent_on" windows of a few hundred entries, which are loaded in
+	 * parallel.
+	 *
+	 * @param parameters list filters, like "project_id" or "user_id".
+	 * @param from       first day of the range, inclusive.
+	 * @param to         last day of the range, inclusive.
+	 * @return time entries, each entry once.
+	 */
+	public List<TimeEntry> scanTimeEntriesSpentBetween(final Map<String, String> parameters, final Date from,
+			final Date to) throws RedmineException {
+		return scanTimeEntriesSpentBetween(parameters, from, to, ParallelTasks.DEFAULT_PARALLELISM);
+	}
+	
+	/**
+	 * Same as {@link #scanTimeEntriesSpentBetween(Map, Date, Date)}, loading at
+	 * most "parallelism" windows at the same time.
+	 */
+	public List<TimeEntry> scanTimeEntriesSpentBetween(final Map<String, String> parameters, final Date from,
+			final Date to, final int parallelism) throws RedmineException {
+		return WindowedScan.scan(transport, TimeEntry.class, ParameterMapConverter.getNameValuePairs(parameters),
+				"spent_on", from, to, parallelism, WindowedScan.DEFAULT_WINDOW_SIZE);
+	}
+	
 	public List<TimeEntry> getTimeEntriesForIssue(final Integer issueId) throws RedmineException {
 		return transport.getObjectsList(TimeEntry.class,
 				new BasicNameValuePair("issue_id", Integer.toString(issueId)));
@@ -381,6 +778,35 @@ public class IssueManager {
 		transport.updateObject(obj);
 	}
 	
+	/**
+	 * Updates issues, at most {@link ParallelTasks#DEFAULT_PARALLELISM} at the
+	 * same time. A failed issue does not stop the others.
+	 *
+	 * @return given issues or exceptions in the order of given issues.
+	 * @throws RedmineException if interrupted while waiting for the results.
+	 */
+	public BulkResult<Issue> updateIssues(final Collection<Issue> issues) throws RedmineException {
+		return updateIssues(issues, ParallelTasks.DEFAULT_PARALLELISM, null);
+	}
+	
+	/**
+	 * Updates issues, at most "parallelism" at the same time.
+	 *
+	 * @param listener called after each issue, may be null.
+	 * @return given issues or exceptions in the order of given issues.
+	 * @throws RedmineException if interrupted while waiting for the results.
+	 */
+	public BulkResult<Issue> updateIssues(final Collection<Issue> issues, final int parallelism,
+			final BulkProgressListener<Issue> listener) throws RedmineException {
+		return ParallelTasks.forEach(issues, parallelism, new ParallelTasks.ItemTask<Issue>() {
+			@Override
+			public Issue process(final Issue issue) throws RedmineException {
+				update(issue);
+				return issue;
+			}
+		}, listener);
+	}
+	
 	public void update(final TimeEntry obj) throws RedmineException {
 		validate(obj);
 		transport.updateObject(obj);
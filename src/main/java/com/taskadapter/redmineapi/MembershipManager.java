@@ -7,6 +7,7 @@ import com.taskadapter.redmineapi.bean.Project;
 import com.taskadapter.redmineapi.bean.ProjectFactory;
 import com.taskadapter.redmineapi.bean.Role;
 import com.taskadapter.redmineapi.bean.UserFactory;
+import com.taskadapter.redmineapi.internal.ParallelTasks;
 
 import java.util.Collection;
 import java.util.List;
@@ -76,6 +77,20 @@ public class MembershipManager {
         transport.deleteObject(Membership.class, membership.getId().toString());
     }
 
+    /**
+     * Deletes memberships, at most {@link ParallelTasks#DEFAULT_PARALLELISM} at the same time.
+     * Memberships which are not found are considered as already deleted.
+     *
+     * @return deleted ids and failures, see {@link BulkResult#checkFailures()}.
+     */
+    public BulkResult<Integer> delete(Collection<Integer> membershipIds) throws RedmineException {
+        return delete(membershipIds, ParallelTasks.DEFAULT_PARALLELISM);
+    }
+
+    public BulkResult<Integer> delete(Collection<Integer> membershipIds, int parallelism) throws RedmineException {
+        return ParallelTasks.deleteAll(transport, Membership.class, membershipIds, parallelism);
+    }
+
     public void update(Membership membership) throws RedmineException {
         transport.updateObject(membership);
     }
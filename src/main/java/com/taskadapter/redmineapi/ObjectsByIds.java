@@ -0,0 +1,49 @@
+package com.taskadapter.redmineapi;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result of a batch lookup by ids: objects found on the server keyed by id and
+ * ids which were not found (deleted or not visible to the current user).
+ */
+public final class ObjectsByIds<T> {
+	private final Map<Integer, T> objects;
+	private final Set<Integer> missingIds;
+
+	public ObjectsByIds(final Map<Integer, T> objects, final Set<Integer> missingIds) {
+		this.objects = Collections.unmodifiableMap(objects);
+		this.missingIds = Collections.unmodifiableSet(missingIds);
+	}
+
+	/**
+	 * @return found objects keyed by id, in the order of requested ids.
+	 */
+	public Map<Integer, T> getObjects() {
+		return objects;
+	}
+
+	/**
+	 * @return object with the given id or null if it was not found.
+	 */
+	public T get(final Integer id) {
+		return objects.get(id);
+	}
+
+	/**
+	 * @return requested ids which were not found, never null.
+	 */
+	public Set<Integer> getMissingIds() {
+		return missingIds;
+	}
+
+	public boolean isComplete() {
+		return missingIds.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "ObjectsByIds{found=" + objects.size() + ", missingIds=" + missingIds + '}';
+	}
+}
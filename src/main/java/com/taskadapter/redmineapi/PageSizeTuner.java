@@ -0,0 +1,161 @@
+package com.taskadapter.redmineapi;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses the number of objects requested in one page of a paged list.
+ * <p>Redmine silently caps the "limit" parameter (100 by default, see
+ * "Administration - Settings - API"). The tuner detects that cap from a first
+ * page which returns less objects than requested while more objects are
+ * available, and raises it when a larger page is returned in full. After each page the size is recomputed from the average
+ * response size and latency per object, so that a page stays within the target
+ * size and time. Statistics are kept separately for each object class and
+ * "include" parameter: issues with journals get smaller pages than trackers or
+ * users.
+ * <p>This class is thread-safe. Share one tuner among all managers talking to
+ * the same server.
+ */
+public final class PageSizeTuner {
+	private static final double SAMPLE_WEIGHT = 0.3;
+
+	private final int minPageSize;
+	private final int maxPageSize;
+	private final long targetPageBytes;
+	private final long targetPageNanos;
+
+	private final ConcurrentMap<String, PageStats> stats = new ConcurrentHashMap<String, PageStats>();
+
+	/** Detected server cap, 0 if not known yet. */
+	private volatile int serverMaxPageSize;
+
+	private PageSizeTuner(final int minPageSize, final int maxPageSize, final long targetPageBytes,
+			final long targetPageNanos) {
+		this.minPageSize = minPageSize;
+		this.maxPageSize = maxPageSize;
+		this.targetPageBytes = targetPageBytes;
+		this.targetPageNanos = targetPageNanos;
+	}
+
+	/**
+	 * Creates a tuner with pages from 10 to 500 objects, targeting 512 KB and
+	 * 2 seconds per page.
+	 */
+	public static PageSizeTuner create() {
+		return create(10, 500, 512 * 1024, 2000);
+	}
+
+	/**
+	 * @param minPageSize the smallest page size to use.
+	 * @param maxPageSize the largest page size to request, also used for the
+	 *            first page until the server cap is known.
+	 * @param targetPageBytes desired size of one response.
+	 * @param targetPageMillis desired latency of one response.
+	 */
+	public static PageSizeTuner create(final int minPageSize, final int maxPageSize,
+			final long targetPageBytes, final long targetPageMillis) {
+		if (minPageSize <= 0 || maxPageSize < minPageSize) {
+			throw new IllegalArgumentException("Invalid page size range: " + minPageSize + ".." + maxPageSize);
+		}
+		if (targetPageBytes <= 0 || targetPageMillis <= 0) {
+			throw new IllegalArgumentException("Target page size and latency must be positive");
+		}
+		return new PageSizeTuner(minPageSize, maxPageSize, targetPageBytes,
+				TimeUnit.MILLISECONDS.toNanos(targetPageMillis));
+	}
+
+	/**
+	 * @param objectClass class of listed objects.
+	 * @param include value of the "include" parameter, may be null.
+	 * @return number of objects to request in the next page.
+	 */
+	public int getPageSize(final Class<?> objectClass, final String include) {
+		final PageStats pageStats = stats.get(key(objectClass, include));
+		return pageStats == null ? capped(maxPageSize) : capped(pageStats.getPageSize());
+	}
+
+	/**
+	 * Records a received page.
+	 *
+	 * @param requested requested number of objects ("limit").
+	 * @param offset offset of the page.
+	 * @param received number of objects in the response.
+	 * @param totalCount "total_count" from the response, may be null.
+	 * @param bytes response length.
+	 * @param nanos response latency.
+	 */
+	public void onPage(final Class<?> objectClass, final String include, final int requested,
+			final int offset, final int received, final Integer totalCount, final long bytes,
+			final long nanos) {
+		if (received <= 0) {
+			return;
+		}
+		final int cap = serverMaxPageSize;
+		if (offset == 0 && received < requested && totalCount != null && received < totalCount) {
+			// later pages may be short for other reasons, like objects deleted
+			// during the scan
+			serverMaxPageSize = received;
+		} else if (cap != 0 && received == requested && received > cap) {
+			// the cap was raised on the server
+			serverMaxPageSize = received;
+		}
+		final String key = key(objectClass, include);
+		PageStats pageStats = stats.get(key);
+		if (pageStats == null) {
+			final PageStats newStats = new PageStats();
+			pageStats = stats.putIfAbsent(key, newStats);
+			if (pageStats == null) {
+				pageStats = newStats;
+			}
+		}
+		pageStats.add((double) bytes / received, (double) nanos / received);
+	}
+
+	/**
+	 * @return page size cap detected on the server or -1 if not detected yet.
+	 */
+	public int getServerMaxPageSize() {
+		final int cap = serverMaxPageSize;
+		return cap == 0 ? -1 : cap;
+	}
+
+	public int getMinPageSize() {
+		return minPageSize;
+	}
+
+	public int getMaxPageSize() {
+		return maxPageSize;
+	}
+
+	private int capped(final int pageSize) {
+		final int cap = serverMaxPageSize;
+		return cap == 0 ? pageSize : Math.min(pageSize, cap);
+	}
+
+	private static String key(final Class<?> objectClass, final String include) {
+		return include == null ? objectClass.getName() : objectClass.getName() + '?' + include;
+	}
+
+	private final class PageStats {
+		private double bytesPerObject;
+		private double nanosPerObject;
+
+		synchronized void add(final double bytes, final double nanos) {
+			if (bytesPerObject == 0) {
+				bytesPerObject = bytes;
+				nanosPerObject = nanos;
+			} else {
+				bytesPerObject = bytesPerObject * (1 - SAMPLE_WEIGHT) + bytes * SAMPLE_WEIGHT;
+				nanosPerObject = nanosPerObject * (1 - SAMPLE_WEIGHT) + nanos * SAMPLE_WEIGHT;
+			}
+		}
+
+		synchronized int getPageSize() {
+			final double bySize = targetPageBytes / Math.max(bytesPerObject, 1);
+			final double byTime = targetPageNanos / Math.max(nanosPerObject, 1);
+			final double size = Math.min(bySize, byTime);
+			return (int) Math.max(minPageSize, Math.min(maxPageSize, size));
+		}
+	}
+}
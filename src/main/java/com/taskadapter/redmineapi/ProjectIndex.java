@@ -0,0 +1,288 @@
+package com.taskadapter.redmineapi;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import com.taskadapter.redmineapi.bean.Project;
+
+/**
+ * Local index of projects visible to the user, built from one project list
+ * scan. Resolves project identifiers to ids and answers hierarchy questions
+ * without requests to the server:
+ * <pre>
+ ProjectIndex projects = ProjectIndex.create(manager);
+ List&lt;Version&gt; versions = manager.getProjectManager().getVersions(projects.getId("my-project"));
+ for (Project sub : projects.getDescendants(projects.getId("my-project"))) {
+     ...
+ }
+ * </pre>
+ * <p>Lookups by id or identifier take constant time, subtree lists take time
+ * linear in the size of the subtree, {@link #isInSubtree(int, int)} takes
+ * constant time. Call {@link #refresh()} to load projects created or changed
+ * since the last scan, {@link #rebuild()} to drop deleted projects too.
+ * <p>Returned projects are shared by all callers and must not be modified.
+ * This class is thread-safe.
+ */
+public final class ProjectIndex {
+	private final ProjectManager projectManager;
+
+	private volatile Snapshot snapshot;
+
+	private ProjectIndex(final ProjectManager projectManager) {
+		this.projectManager = projectManager;
+	}
+
+	/**
+	 * Loads all projects visible to the user of the manager.
+	 */
+	public static ProjectIndex create(final RedmineManager manager) throws RedmineException {
+		final ProjectIndex index = new ProjectIndex(manager.getProjectManager());
+		index.rebuild();
+		return index;
+	}
+
+	/**
+	 * Reloads all projects. Deleted and no longer visible projects are
+	 * removed from the index.
+	 */
+	public synchronized void rebuild() throws RedmineException {
+		snapshot = new Snapshot(projectManager.getProjects());
+	}
+
+	/**
+	 * Loads projects updated since the last scan ("updated_on" filter) and
+	 * updates the index. Projects moved to another parent are moved in the
+	 * hierarchy too. Deleted projects stay in the index until
+	 * {@link #rebuild()}. Servers ignoring project filters answer all
+	 * projects, the index is updated correctly anyway.
+	 *
+	 * @return number of new or changed projects.
+	 */
+	public synchronized int refresh() throws RedmineException {
+		final Snapshot current = snapshot;
+		if (current.lastUpdatedOn == null) {
+			rebuild();
+			return snapshot.size();
+		}
+		final Map<String, String> params = new HashMap<String, String>();
+		params.put("include", "trackers");
+		params.put("updated_on", ">=" + formatTimestamp(current.lastUpdatedOn));
+		final Map<Integer, Project> merged = new LinkedHashMap<Integer, Project>(current.projects);
+		int changed = 0;
+		for (final Project project : projectManager.getProjects(params)) {
+			final Project known = merged.get(project.getId());
+			if (known == null || !sameDate(known.getUpdatedOn(), project.getUpdatedOn())) {
+				changed++;
+			}
+			merged.put(project.getId(), project);
+		}
+		if (changed > 0) {
+			snapshot = new Snapshot(merged.values());
+		}
+		return changed;
+	}
+
+	/**
+	 * @param identifier string key like "project-ABC".
+	 * @return database id or null if there is no such project.
+	 */
+	public Integer getId(final String identifier) {
+		return snapshot.idsByIdentifier.get(identifier);
+	}
+
+	/**
+	 * @return project or null if there is no project with the id.
+	 */
+	public Project getProject(final int id) {
+		return snapshot.projects.get(id);
+	}
+
+	/**
+	 * @return project or null if there is no project with the identifier.
+	 */
+	public Project getProject(final String identifier) {
+		final Snapshot current = snapshot;
+		final Integer id = current.idsByIdentifier.get(identifier);
+		return id == null ? null : current.projects.get(id);
+	}
+
+	/**
+	 * @return parent project or null for top-level projects, projects with
+	 *         invisible parents and unknown projects.
+	 */
+	public Project getParent(final int id) {
+		final Snapshot current = snapshot;
+		final Project project = current.projects.get(id);
+		return project == null || project.getParentId() == null ? null
+				: current.projects.get(project.getParentId());
+	}
+
+	/**
+	 * @return ancestors of the project, the parent first.
+	 */
+	public List<Project> getAncestors(final int id) {
+		final Snapshot current = snapshot;
+		final List<Project> result = new ArrayList<Project>();
+		Project project = current.projects.get(id);
+		while (project != null && project.getParentId() != null) {
+			project = current.projects.get(project.getParentId());
+			if (project != null) {
+				result.add(project);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return direct subprojects, empty list for unknown projects.
+	 */
+	public List<Project> getChildren(final int id) {
+		final List<Project> children = snapshot.children.get(id);
+		return children == null ? Collections.<Project>emptyList() : Collections.unmodifiableList(children);
+	}
+
+	/**
+	 * @return all subprojects of the project on all levels, each parent
+	 *         before its children. The project itself is not included.
+	 */
+	public List<Project> getDescendants(final int id) {
+		final Snapshot current = snapshot;
+		final Integer position = current.enter.get(id);
+		if (position == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(current.preorder.subList(position + 1, current.exit.get(id)));
+	}
+
+	/**
+	 * @return true if the project is the root project or one of its
+	 *         descendants.
+	 */
+	public boolean isInSubtree(final int rootId, final int id) {
+		final Snapshot current = snapshot;
+		final Integer rootPosition = current.enter.get(rootId);
+		final Integer position = current.enter.get(id);
+		return rootPosition != null && position != null && position >= rootPosition
+				&& position < current.exit.get(rootId);
+	}
+
+	/**
+	 * @return top-level projects and projects with invisible parents.
+	 */
+	public List<Project> getRoots() {
+		return Collections.unmodifiableList(snapshot.roots);
+	}
+
+	/**
+	 * @return all indexed projects in the order of the server.
+	 */
+	public Collection<Project> getProjects() {
+		return Collections.unmodifiableCollection(snapshot.projects.values());
+	}
+
+	public int size() {
+		return snapshot.size();
+	}
+
+	private static boolean sameDate(final Date first, final Date second) {
+		return first == null ? second == null : first.equals(second);
+	}
+
+	private static String formatTimestamp(final Date date) {
+		final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		return format.format(date);
+	}
+
+	/**
+	 * Immutable state of the index. Subtrees are ranges of the preorder list:
+	 * descendants of a project are between its "enter" and "exit" positions.
+	 */
+	private static final class Snapshot {
+		final Map<Integer, Project> projects = new LinkedHashMap<Integer, Project>();
+		final Map<String, Integer> idsByIdentifier = new HashMap<String, Integer>();
+		final Map<Integer, List<Project>> children = new HashMap<Integer, List<Project>>();
+		final List<Project> roots = new ArrayList<Project>();
+		final List<Project> preorder = new ArrayList<Project>();
+		final Map<Integer, Integer> enter = new HashMap<Integer, Integer>();
+		final Map<Integer, Integer> exit = new HashMap<Integer, Integer>();
+		final Date lastUpdatedOn;
+
+		Snapshot(final Collection<Project> source) {
+			Date latest = null;
+			for (final Project project : source) {
+				projects.put(project.getId(), project);
+				if (project.getIdentifier() != null) {
+					idsByIdentifier.put(project.getIdentifier(), project.getId());
+				}
+				if (project.getUpdatedOn() != null && (latest == null || project.getUpdatedOn().after(latest))) {
+					latest = project.getUpdatedOn();
+				}
+			}
+			lastUpdatedOn = latest;
+			for (final Project project : projects.values()) {
+				final Integer parentId = project.getParentId();
+				if (parentId == null || !projects.containsKey(parentId)) {
+					roots.add(project);
+					continue;
+				}
+				List<Project> siblings = children.get(parentId);
+				if (siblings == null) {
+					siblings = new ArrayList<Project>();
+					children.put(parentId, siblings);
+				}
+				siblings.add(project);
+			}
+			for (final Project root : roots) {
+				visit(root);
+			}
+		}
+
+		/**
+		 * Adds the subtree to the preorder list, without recursion.
+		 */
+		private void visit(final Project root) {
+			final List<Project> stack = new ArrayList<Project>();
+			final List<Integer> nextChild = new ArrayList<Integer>();
+			enter(root);
+			stack.add(root);
+			nextChild.add(0);
+			while (!stack.isEmpty()) {
+				final int top = stack.size() - 1;
+				final Project project = stack.get(top);
+				final List<Project> projectChildren = children.get(project.getId());
+				final int next = nextChild.get(top);
+				if (projectChildren != null && next < projectChildren.size()) {
+					nextChild.set(top, next + 1);
+					final Project child = projectChildren.get(next);
+					if (!enter.containsKey(child.getId())) {
+						enter(child);
+						stack.add(child);
+						nextChild.add(0);
+					}
+				} else {
+					exit.put(project.getId(), preorder.size());
+					stack.remove(top);
+					nextChild.remove(top);
+				}
+			}
+		}
+
+		private void enter(final Project project) {
+			enter.put(project.getId(), preorder.size());
+			preorder.add(project);
+		}
+
+		int size() {
+			return projects.size();
+		}
+	}
+}
@@ -1,7 +1,9 @@
 package com.taskadapter.redmineapi;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.http.NameValuePair;
@@ -10,6 +12,8 @@ import org.apache.http.message.BasicNameValuePair;
 import com.taskadapter.redmineapi.bean.News;
 import com.taskadapter.redmineapi.bean.Project;
 import com.taskadapter.redmineapi.bean.Version;
+import com.taskadapter.redmineapi.internal.ParallelTasks;
+import com.taskadapter.redmineapi.internal.ParameterMapConverter;
 
 /**
  * Works with Projects and their Versions.
@@ -105,6 +109,22 @@ public class ProjectManager {
         transport.deleteObject(Project.class, projectKey);
     }
 
+    /**
+     * Deletes projects, at most {@link ParallelTasks#DEFAULT_PARALLELISM} at the same time.
+     * Projects which are not found are considered as already deleted.
+     *
+     * @param projectKeys project string keys or database ids.
+     * @return deleted keys and failures, see {@link BulkResult#checkFailures()}.
+     */
+    public BulkResult<String> deleteProjects(final Collection<String> projectKeys) throws RedmineException {
+        return deleteProjects(projectKeys, ParallelTasks.DEFAULT_PARALLELISM);
+    }
+
+    public BulkResult<String> deleteProjects(final Collection<String> projectKeys, final int parallelism)
+            throws RedmineException {
+        return ParallelTasks.deleteAll(transport, Project.class, projectKeys, parallelism);
+    }
+
     /**
      * deletes a new {@link Version} from the {@link Project} contained. <br>
      *
@@ -118,6 +138,21 @@ public class ProjectManager {
                 .deleteObject(Version.class, Integer.toString(version.getId()));
     }
 
+    /**
+     * Deletes versions, at most {@link ParallelTasks#DEFAULT_PARALLELISM} at the same time.
+     * Versions which are not found are considered as already deleted.
+     *
+     * @return deleted ids and failures, see {@link BulkResult#checkFailures()}.
+     */
+    public BulkResult<Integer> deleteVersions(final Collection<Integer> ids) throws RedmineException {
+        return deleteVersions(ids, ParallelTasks.DEFAULT_PARALLELISM);
+    }
+
+    public BulkResult<Integer> deleteVersions(final Collection<Integer> ids, final int parallelism)
+            throws RedmineException {
+        return ParallelTasks.deleteAll(transport, Version.class, ids, parallelism);
+    }
+
     /**
      * @param projectKey ignored if NULL
      * @return list of news objects
@@ -158,6 +193,29 @@ public class ProjectManager {
                 new BasicNameValuePair("include", "trackers"));
     }
 
+    /**
+     * Same as {@link #getProjectById(int)}, but answers null if the project is not found.
+     *
+     * @return Redmine's project or null
+     * @throws RedmineException
+     */
+    public Project findProjectById(final int id) throws RedmineException {
+        return transport.findObject(Project.class, id, new BasicNameValuePair("include", "trackers"));
+    }
+
+    /**
+     * Same as {@link #getProjectByKey(String)}, but answers null if the project is not found.
+     * No exception is created for missing projects, so use it to check if projects exist.
+     *
+     * @param projectKey string key like "project-ABC", NOT a database numeric ID
+     * @return Redmine's project or null
+     * @throws RedmineException
+     */
+    public Project findProjectByKey(final String projectKey) throws RedmineException {
+        return transport.findObject(Project.class, projectKey,
+                new BasicNameValuePair("include", "trackers"));
+    }
+
     /**
      * Load the list of projects available to the user, which is represented by the API access key.
      * <p>
@@ -181,6 +239,19 @@ public class ProjectManager {
         }
     }
 
+    /**
+     * Loads all projects matching the filters, like "status=1" or
+     * "updated_on=&gt;=2015-01-01T00:00:00Z". Filters of project lists are supported by
+     * recent Redmine versions only, older servers ignore them and return all projects.
+     *
+     * @param parameters list filters and "include" values.
+     * @return list of Project objects
+     * @throws RedmineException
+     */
+    public List<Project> getProjects(final Map<String, String> parameters) throws RedmineException {
+        return transport.getObjectsList(Project.class, ParameterMapConverter.getNameValuePairs(parameters));
+    }
+
     // TODO add test
     public Version getVersionById(final int versionId) throws RedmineException {
         return transport.getObject(Version.class, versionId);
@@ -0,0 +1,119 @@
+package com.taskadapter.redmineapi;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket limiting a rate of requests. The bucket is refilled with
+ * {@code permitsPerSecond} tokens per second and holds at most {@code burst}
+ * tokens, so after an idle period up to {@code burst} requests are sent at once.
+ * <p>Blocking callers take tokens "in advance" and wait for the debt to be
+ * refilled, so they are served in the order of arrival.
+ * <p>This class is thread-safe. One limiter may be shared by several
+ * managers to limit the total rate to a single server.
+ */
+public final class RateLimiter {
+	private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final double permitsPerSecond;
+	private final int burst;
+
+	/* May become negative when blocking callers are waiting. */
+	private double storedPermits;
+	private long lastRefillNanos;
+
+	private RateLimiter(final double permitsPerSecond, final int burst) {
+		this.permitsPerSecond = permitsPerSecond;
+		this.burst = burst;
+		this.storedPermits = burst;
+		this.lastRefillNanos = System.nanoTime();
+	}
+
+	/**
+	 * @param permitsPerSecond average number of requests per second.
+	 * @param burst maximal number of requests sent at once after an idle period.
+	 */
+	public static RateLimiter create(final double permitsPerSecond, final int burst) {
+		if (permitsPerSecond <= 0 || burst < 1) {
+			throw new IllegalArgumentException("Invalid rate " + permitsPerSecond + " with burst " + burst);
+		}
+		return new RateLimiter(permitsPerSecond, burst);
+	}
+
+	/**
+	 * Takes a token waiting for it as long as required.
+	 *
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	public void acquire() throws InterruptedException {
+		sleep(reserve(Long.MAX_VALUE));
+	}
+
+	/**
+	 * Takes a token if it is available now.
+	 *
+	 * @return true if the token is taken.
+	 */
+	public boolean tryAcquire() {
+		return reserve(0) == 0;
+	}
+
+	/**
+	 * Takes a token if it becomes available within the given timeout.
+	 *
+	 * @return true if the token is taken.
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	public boolean tryAcquire(final long timeout, final TimeUnit unit) throws InterruptedException {
+		final long waitNanos = reserve(unit.toNanos(timeout));
+		if (waitNanos < 0) {
+			return false;
+		}
+		sleep(waitNanos);
+		return true;
+	}
+
+	public double getPermitsPerSecond() {
+		return permitsPerSecond;
+	}
+
+	public int getBurst() {
+		return burst;
+	}
+
+	/**
+	 * @return number of tokens available now.
+	 */
+	public synchronized int getAvailablePermits() {
+		refill();
+		return (int) Math.max(0, Math.floor(storedPermits));
+	}
+
+	/**
+	 * Reserves a token if it is available within the given time.
+	 *
+	 * @return time to wait for the reserved token in nanoseconds or -1 if
+	 *         the token is not reserved.
+	 */
+	private synchronized long reserve(final long maxWaitNanos) {
+		refill();
+		final double missing = 1 - storedPermits;
+		final long waitNanos = missing <= 0 ? 0 : (long) Math.ceil(missing / permitsPerSecond * NANOS_PER_SECOND);
+		if (waitNanos > maxWaitNanos) {
+			return -1;
+		}
+		storedPermits -= 1;
+		return waitNanos;
+	}
+
+	private void refill() {
+		final long now = System.nanoTime();
+		storedPermits = Math.min(burst, storedPermits + (now - lastRefillNanos) / NANOS_PER_SECOND * permitsPerSecond);
+		lastRefillNanos = now;
+	}
+
+	private static void sleep(final long nanos) throws InterruptedException {
+		if (nanos > 0) {
+			TimeUnit.NANOSECONDS.sleep(nanos);
+		}
+	}
+}
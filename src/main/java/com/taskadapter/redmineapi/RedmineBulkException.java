@@ -0,0 +1,29 @@
+package com.taskadapter.redmineapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when some items of a bulk operation failed. Other items were
+ * processed; the exception of the first failure is the cause.
+ *
+ * @see BulkResult#checkFailures()
+ */
+public class RedmineBulkException extends RedmineException {
+	private static final long serialVersionUID = 4790412851830215287L;
+
+	private final List<BulkItemResult<?>> failures;
+
+	public RedmineBulkException(String message, List<? extends BulkItemResult<?>> failures) {
+		super(message, failures.isEmpty() ? null : failures.get(0).getException());
+		this.failures = Collections.unmodifiableList(new ArrayList<BulkItemResult<?>>(failures));
+	}
+
+	/**
+	 * @return failed items with their exceptions.
+	 */
+	public List<BulkItemResult<?>> getFailures() {
+		return failures;
+	}
+}
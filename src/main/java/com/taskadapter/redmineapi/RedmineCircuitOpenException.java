@@ -0,0 +1,13 @@
+package com.taskadapter.redmineapi;
+
+/**
+ * Thrown without contacting the server when a {@link CircuitBreaker} does not
+ * permit calls because the server is considered unavailable.
+ */
+public class RedmineCircuitOpenException extends RedmineCommunicationException {
+	private static final long serialVersionUID = 4405384426113227374L;
+
+	public RedmineCircuitOpenException(String message) {
+		super(message);
+	}
+}
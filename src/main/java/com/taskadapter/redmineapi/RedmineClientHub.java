@@ -0,0 +1,202 @@
+package com.taskadapter.redmineapi;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * One pooled http client shared by managers of many Redmine servers and
+ * users. Each manager returned by the hub is lightweight: it has its own URI,
+ * credentials and transport settings, but connections come from the common
+ * pool. The total number of sockets is bounded by the hub, and the number of
+ * sockets to one server is bounded by the per-route limit.
+ * <p>Closing a manager created by the hub does not close the pool. Call
+ * {@link #shutdown()} once when all managers are no longer needed:
+ * <pre>
+ RedmineClientHub hub = RedmineClientHub.create(100, 10);
+ RedmineManager first = hub.createWithApiKey("https://first.example.com", firstKey);
+ RedmineManager second = hub.createWithApiKey("https://second.example.com", secondKey);
+ ...
+ hub.shutdown();
+ * </pre>
+ * <p>This class is thread-safe.
+ */
+public final class RedmineClientHub implements Closeable {
+	/** Interval of idle and expired connection eviction, in seconds. */
+	private static final int EVICTION_INTERVAL = 30;
+
+	/** Idle connections older than this are closed, in seconds. */
+	private static final int IDLE_TIMEOUT = 60;
+
+	private final PoolingHttpClientConnectionManager connectionManager;
+	private final CloseableHttpClient client;
+	private final ScheduledExecutorService evictor;
+
+	private volatile boolean shutdown;
+
+	private RedmineClientHub(final int maxConnections, final int maxConnectionsPerHost) {
+		connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(maxConnections);
+		connectionManager.setDefaultMaxPerRoute(maxConnectionsPerHost);
+		client = HttpClientBuilder.create()
+				.setConnectionManager(connectionManager)
+				.setConnectionManagerShared(true)
+				.build();
+		evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, "redmine-connection-evictor");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		evictor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				connectionManager.closeExpiredConnections();
+				connectionManager.closeIdleConnections(IDLE_TIMEOUT, TimeUnit.SECONDS);
+			}
+		}, EVICTION_INTERVAL, EVICTION_INTERVAL, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Creates a hub with up to 200 connections in total and 20 connections to
+	 * one server.
+	 */
+	public static RedmineClientHub create() {
+		return create(200, 20);
+	}
+
+	/**
+	 * @param maxConnections maximal number of open connections to all servers.
+	 * @param maxConnectionsPerHost maximal number of open connections to one
+	 *            server (scheme, host and port).
+	 */
+	public static RedmineClientHub create(final int maxConnections, final int maxConnectionsPerHost) {
+		if (maxConnections <= 0 || maxConnectionsPerHost <= 0) {
+			throw new IllegalArgumentException("Connection limits must be positive. You provided: "
+					+ maxConnections + ", " + maxConnectionsPerHost);
+		}
+		return new RedmineClientHub(maxConnections, maxConnectionsPerHost);
+	}
+
+	/**
+	 * Overrides the connection limit for one server.
+	 *
+	 * @param uri any URI of the server, only scheme, host and port are used.
+	 */
+	public void setMaxConnectionsPerHost(final String uri, final int maxConnections) {
+		if (maxConnections <= 0) {
+			throw new IllegalArgumentException("Connection limit must be positive. You provided: "
+					+ maxConnections);
+		}
+		connectionManager.setMaxPerRoute(toRoute(uri), maxConnections);
+	}
+
+	/**
+	 * Returns a transport configuration using the shared client. Customize it
+	 * (retries, rate limits, etc.) and pass it to {@link RedmineManagerFactory}
+	 * to create a manager with non-default transport settings.
+	 */
+	public TransportConfiguration getTransportConfiguration() {
+		checkNotShutdown();
+		return TransportConfiguration.create(client, null);
+	}
+
+	/**
+	 * Creates a manager using an API key, see
+	 * {@link RedmineManagerFactory#createWithApiKey(String, String)}.
+	 */
+	public RedmineManager createWithApiKey(final String uri, final String apiAccessKey) {
+		return RedmineManagerFactory.createWithApiKey(uri, apiAccessKey, getTransportConfiguration());
+	}
+
+	/**
+	 * Creates a manager using user credentials, see
+	 * {@link RedmineManagerFactory#createWithUserAuth(String, String, String)}.
+	 */
+	public RedmineManager createWithUserAuth(final String uri, final String login, final String password) {
+		return RedmineManagerFactory.createWithUserAuth(uri, login, password, getTransportConfiguration());
+	}
+
+	/**
+	 * Creates a non-authenticating manager.
+	 */
+	public RedmineManager createUnauthenticated(final String uri) {
+		return RedmineManagerFactory.createUnauthenticated(uri, getTransportConfiguration());
+	}
+
+	/**
+	 * @return number of connections used by requests in flight.
+	 */
+	public int getLeasedConnections() {
+		return connectionManager.getTotalStats().getLeased();
+	}
+
+	/**
+	 * @return number of idle connections kept alive in the pool.
+	 */
+	public int getAvailableConnections() {
+		return connectionManager.getTotalStats().getAvailable();
+	}
+
+	/**
+	 * @return pool statistics for one server.
+	 */
+	public PoolStats getStats(final String uri) {
+		return connectionManager.getStats(toRoute(uri));
+	}
+
+	public int getMaxConnections() {
+		return connectionManager.getMaxTotal();
+	}
+
+	public boolean isShutdown() {
+		return shutdown;
+	}
+
+	/**
+	 * Closes all connections of all managers created by this hub. Managers can
+	 * not be used or created after the shutdown.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		evictor.shutdownNow();
+		connectionManager.shutdown();
+	}
+
+	@Override
+	public void close() {
+		shutdown();
+	}
+
+	private void checkNotShutdown() {
+		if (shutdown) {
+			throw new IllegalStateException("Redmine client hub is shut down");
+		}
+	}
+
+	private static HttpRoute toRoute(final String uri) {
+		final URI parsed = URI.create(uri);
+		if (parsed.getHost() == null) {
+			throw new IllegalArgumentException("No host in URI " + uri);
+		}
+		final String scheme = parsed.getScheme() == null ? "http" : parsed.getScheme();
+		int port = parsed.getPort();
+		if (port < 0) {
+			port = "https".equalsIgnoreCase(scheme) ? 443 : 80;
+		}
+		return new HttpRoute(new HttpHost(parsed.getHost(), port, scheme), null,
+				"https".equalsIgnoreCase(scheme));
+	}
+}
@@ -0,0 +1,375 @@
+package com.taskadapter.redmineapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.taskadapter.redmineapi.bean.Issue;
+import com.taskadapter.redmineapi.bean.Project;
+import com.taskadapter.redmineapi.bean.TimeEntry;
+import com.taskadapter.redmineapi.internal.ParallelTasks;
+import com.taskadapter.redmineapi.internal.comm.RequestAbortScope;
+
+/**
+ * Runs the same query against several Redmine instances at the same time.
+ * Each instance has a timeout. Instances which fail or do not answer in time
+ * are reported in the result, objects of other instances are returned anyway:
+ * <pre>
+ Map&lt;String, RedmineManager&gt; instances = new LinkedHashMap&lt;String, RedmineManager&gt;();
+ instances.put("dev", devManager);
+ instances.put("ops", opsManager);
+ RedmineFederation federation = RedmineFederation.create(instances).withTimeout(10000);
+ FederatedResult&lt;Issue&gt; result = federation.getIssues(params);
+ for (SourcedObject&lt;Issue&gt; issue : result.getObjects()) {
+     ...
+ }
+ * </pre>
+ * <p>Requests in flight of timed out instances are aborted. Runtime
+ * exceptions of a query are reported as failures of its instance.
+ * <p>Instances of this class are immutable and thread-safe.
+ */
+public final class RedmineFederation {
+	/** Timeout of one instance when nothing else is specified. */
+	public static final long DEFAULT_TIMEOUT_MILLIS = 30000;
+
+	/**
+	 * Query run against each instance of the federation.
+	 */
+	public interface Query<T> {
+		List<T> load(RedmineManager manager) throws RedmineException;
+	}
+
+	private final Map<String, RedmineManager> managers;
+	private final long defaultTimeoutMillis;
+	private final Map<String, Long> timeoutsMillis;
+	private final ExecutorService executor;
+
+	private RedmineFederation(final Map<String, RedmineManager> managers, final long defaultTimeoutMillis,
+			final Map<String, Long> timeoutsMillis, final ExecutorService executor) {
+		this.managers = managers;
+		this.defaultTimeoutMillis = defaultTimeoutMillis;
+		this.timeoutsMillis = timeoutsMillis;
+		this.executor = executor;
+	}
+
+	/**
+	 * @param managers managers keyed by instance name. The name tags objects
+	 *            and failures of the instance.
+	 */
+	public static RedmineFederation create(final Map<String, RedmineManager> managers) {
+		if (managers.isEmpty()) {
+			throw new IllegalArgumentException("Federation needs at least one Redmine manager");
+		}
+		return new RedmineFederation(
+				Collections.unmodifiableMap(new LinkedHashMap<String, RedmineManager>(managers)),
+				DEFAULT_TIMEOUT_MILLIS, Collections.<String, Long>emptyMap(), null);
+	}
+
+	/**
+	 * Returns a copy of this federation with the timeout for all instances
+	 * without their own timeout.
+	 */
+	public RedmineFederation withTimeout(final long timeoutMillis) {
+		checkTimeout(timeoutMillis);
+		return new RedmineFederation(managers, timeoutMillis, timeoutsMillis, executor);
+	}
+
+	/**
+	 * Returns a copy of this federation with the timeout for one instance.
+	 */
+	public RedmineFederation withTimeout(final String source, final long timeoutMillis) {
+		checkTimeout(timeoutMillis);
+		if (!managers.containsKey(source)) {
+			throw new IllegalArgumentException("Unknown Redmine instance " + source);
+		}
+		final Map<String, Long> newTimeouts = new HashMap<String, Long>(timeoutsMillis);
+		newTimeouts.put(source, timeoutMillis);
+		return new RedmineFederation(managers, defaultTimeoutMillis, Collections.unmodifiableMap(newTimeouts),
+				executor);
+	}
+
+	/**
+	 * Returns a copy of this federation which runs queries on the given
+	 * executor. The executor is not shut down by the federation. By default
+	 * each query uses a temporary pool with one thread per instance.
+	 */
+	public RedmineFederation withExecutor(final ExecutorService executor) {
+		return new RedmineFederation(managers, defaultTimeoutMillis, timeoutsMillis, executor);
+	}
+
+	public Set<String> getSources() {
+		return managers.keySet();
+	}
+
+	/**
+	 * Loads issues matching the parameters from all instances, see
+	 * {@link IssueManager#getIssues(Map)}.
+	 */
+	public FederatedResult<Issue> getIssues(final Map<String, String> parameters) throws RedmineException {
+		return getIssues(parameters, null);
+	}
+
+	/**
+	 * @param listener receives results of each instance as soon as the
+	 *            instance answers, may be null.
+	 */
+	public FederatedResult<Issue> getIssues(final Map<String, String> parameters,
+			final FederatedResultListener<Issue> listener) throws RedmineException {
+		return query(new Query<Issue>() {
+			@Override
+			public List<Issue> load(final RedmineManager manager) throws RedmineException {
+				return manager.getIssueManager().getIssues(parameters);
+			}
+		}, listener);
+	}
+
+	/**
+	 * Loads time entries matching the parameters from all instances, see
+	 * {@link IssueManager#getTimeEntries(Map)}.
+	 */
+	public FederatedResult<TimeEntry> getTimeEntries(final Map<String, String> parameters)
+			throws RedmineException {
+		return getTimeEntries(parameters, null);
+	}
+
+	/**
+	 * @param listener receives results of each instance as soon as the
+	 *            instance answers, may be null.
+	 */
+	public FederatedResult<TimeEntry> getTimeEntries(final Map<String, String> parameters,
+			final FederatedResultListener<TimeEntry> listener) throws RedmineException {
+		return query(new Query<TimeEntry>() {
+			@Override
+			public List<TimeEntry> load(final RedmineManager manager) throws RedmineException {
+				return manager.getIssueManager().getTimeEntries(parameters);
+			}
+		}, listener);
+	}
+
+	/**
+	 * Loads projects visible to the user of each instance.
+	 */
+	public FederatedResult<Project> getProjects() throws RedmineException {
+		return getProjects(null);
+	}
+
+	/**
+	 * @param listener receives results of each instance as soon as the
+	 *            instance answers, may be null.
+	 */
+	public FederatedResult<Project> getProjects(final FederatedResultListener<Project> listener)
+			throws RedmineException {
+		return query(new Query<Project>() {
+			@Override
+			public List<Project> load(final RedmineManager manager) throws RedmineException {
+				return manager.getProjectManager().getProjects();
+			}
+		}, listener);
+	}
+
+	/**
+	 * Runs the query against all instances and waits until each instance
+	 * answers, fails or times out.
+	 *
+	 * @param listener receives results of each instance as soon as the
+	 *            instance answers, may be null.
+	 * @throws RedmineCommunicationException if the calling thread is
+	 *             interrupted.
+	 */
+	public <T> FederatedResult<T> query(final Query<T> query, final FederatedResultListener<T> listener)
+			throws RedmineException {
+		final ExecutorService queryExecutor = executor == null ? ParallelTasks.newExecutor(managers.size())
+				: executor;
+		try {
+			return new Execution<T>(query, listener, queryExecutor).run();
+		} finally {
+			if (executor == null) {
+				queryExecutor.shutdownNow();
+			}
+		}
+	}
+
+	private long getTimeoutMillis(final String source) {
+		final Long timeout = timeoutsMillis.get(source);
+		return timeout == null ? defaultTimeoutMillis : timeout;
+	}
+
+	private static void checkTimeout(final long timeoutMillis) {
+		if (timeoutMillis <= 0) {
+			throw new IllegalArgumentException("Timeout must be positive. You provided: " + timeoutMillis);
+		}
+	}
+
+	/**
+	 * State of one query run.
+	 */
+	private final class Execution<T> {
+		private final Query<T> query;
+		private final FederatedResultListener<T> listener;
+		private final CompletionService<List<T>> completion;
+		private final Map<Future<List<T>>, String> pending = new HashMap<Future<List<T>>, String>();
+		private final Map<String, Long> deadlines = new HashMap<String, Long>();
+		private final Map<String, List<T>> results = new HashMap<String, List<T>>();
+		private final Map<String, RedmineException> failures = new HashMap<String, RedmineException>();
+		private final Set<String> timedOut = new LinkedHashSet<String>();
+		/* scopes of running queries, to abort their requests */
+		private final Map<String, RequestAbortScope> scopes = new ConcurrentHashMap<String, RequestAbortScope>();
+
+		Execution(final Query<T> query, final FederatedResultListener<T> listener, final ExecutorService executor) {
+			this.query = query;
+			this.listener = listener;
+			this.completion = new ExecutorCompletionService<List<T>>(executor);
+		}
+
+		FederatedResult<T> run() throws RedmineException {
+			final long start = System.nanoTime();
+			for (final Map.Entry<String, RedmineManager> entry : managers.entrySet()) {
+				final String source = entry.getKey();
+				final RedmineManager manager = entry.getValue();
+				final Future<List<T>> future = completion.submit(new Callable<List<T>>() {
+					@Override
+					public List<T> call() throws RedmineException {
+						final RequestAbortScope scope = RequestAbortScope.open();
+						scopes.put(source, scope);
+						try {
+							if (Thread.currentThread().isInterrupted()) {
+								// cancelled before the scope was published
+								scope.abort();
+							}
+							return query.load(manager);
+						} finally {
+							scopes.remove(source);
+							scope.close();
+						}
+					}
+				});
+				pending.put(future, entry.getKey());
+				deadlines.put(entry.getKey(), start + TimeUnit.MILLISECONDS.toNanos(getTimeoutMillis(entry.getKey())));
+			}
+			try {
+				while (!pending.isEmpty()) {
+					final long wait = expireAndGetWait();
+					if (pending.isEmpty()) {
+						break;
+					}
+					final Future<List<T>> done = completion.poll(wait, TimeUnit.NANOSECONDS);
+					if (done != null) {
+						complete(done);
+					}
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RedmineCommunicationException("Interrupted while waiting for Redmine instances", e);
+			} finally {
+				for (final Map.Entry<Future<List<T>>, String> entry : pending.entrySet()) {
+					cancel(entry.getKey(), entry.getValue());
+				}
+			}
+			return toResult();
+		}
+
+		/**
+		 * Cancels queries past their deadline.
+		 *
+		 * @return time until the nearest deadline, in nanoseconds.
+		 */
+		private long expireAndGetWait() {
+			final long now = System.nanoTime();
+			long wait = Long.MAX_VALUE;
+			final List<Future<List<T>>> expired = new ArrayList<Future<List<T>>>();
+			for (final Map.Entry<Future<List<T>>, String> entry : pending.entrySet()) {
+				final long left = deadlines.get(entry.getValue()) - now;
+				if (left <= 0) {
+					expired.add(entry.getKey());
+				} else {
+					wait = Math.min(wait, left);
+				}
+			}
+			for (final Future<List<T>> future : expired) {
+				final String source = pending.remove(future);
+				cancel(future, source);
+				timedOut.add(source);
+				fail(source, new RedmineCommunicationException("Redmine instance " + source
+						+ " did not answer within " + getTimeoutMillis(source) + " ms", new TimeoutException()));
+			}
+			return wait;
+		}
+
+		/**
+		 * Interrupts the query and aborts its request in flight: blocking
+		 * I/O of the HTTP client does not react to interrupts.
+		 */
+		private void cancel(final Future<List<T>> future, final String source) {
+			future.cancel(true);
+			final RequestAbortScope scope = scopes.get(source);
+			if (scope != null) {
+				scope.abort();
+			}
+		}
+
+		private void complete(final Future<List<T>> done) throws InterruptedException {
+			final String source = pending.remove(done);
+			if (source == null) {
+				// cancelled after timeout
+				return;
+			}
+			final List<T> objects;
+			try {
+				objects = done.get();
+			} catch (final ExecutionException e) {
+				final Throwable cause = e.getCause();
+				if (cause instanceof RedmineException) {
+					fail(source, (RedmineException) cause);
+					return;
+				}
+				if (cause instanceof RuntimeException) {
+					fail(source, new RedmineException("Query of Redmine instance " + source + " failed: "
+							+ cause, cause));
+					return;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new RedmineInternalError(cause);
+			}
+			results.put(source, objects);
+			if (listener != null) {
+				listener.onResults(source, objects);
+			}
+		}
+
+		private void fail(final String source, final RedmineException exception) {
+			failures.put(source, exception);
+			if (listener != null) {
+				listener.onFailure(source, exception);
+			}
+		}
+
+		private FederatedResult<T> toResult() {
+			final Map<String, List<T>> orderedResults = new LinkedHashMap<String, List<T>>();
+			final Map<String, RedmineException> orderedFailures = new LinkedHashMap<String, RedmineException>();
+			for (final String source : managers.keySet()) {
+				if (results.containsKey(source)) {
+					orderedResults.put(source, results.get(source));
+				} else if (failures.containsKey(source)) {
+					orderedFailures.put(source, failures.get(source));
+				}
+			}
+			return new FederatedResult<T>(orderedResults, orderedFailures, timedOut);
+		}
+	}
+}
@@ -98,11 +98,22 @@ public class RedmineManager implements Closeable {
 		return wikiManager;
 	}
 	
+	/**
+	 * @return transport shared by all managers of this manager. Use it for
+	 *         requests not covered by the managers, like loading one page of
+	 *         objects with {@link ITransport#getObjectsListNoPaging}.
+	 */
+	public ITransport getTransport() {
+		return transport;
+	}
+	
 	/**
 	 * This number of objects (tasks, projects, users) will be requested from Redmine server in 1 request.
 	 * Note that if you set objects per page to be, say, 10, and you have 20 objects on the server,
 	 * then issueManager.getIssues() will still return ALL 20 objects at once even though the library
 	 * will perform 2 requests to the server (to load 10 objects each time).
+	 * <p>This disables page size tuning configured by
+	 * {@link TransportConfiguration#withPageSizeTuner(PageSizeTuner)}.
 	 */
 	public void setObjectsPerPage(final int pageSize) {
 		transport.setObjectsPerPage(pageSize);
@@ -122,4 +133,33 @@ public class RedmineManager implements Closeable {
 	public void setOnBehalfOfUser(final String loginName) {
 		transport.setOnBehalfOfUser(loginName);
 	}
+	
+	/**
+	 * @return context applied to requests of this manager.
+	 */
+	public RequestContext getContext() {
+		return transport.getContext();
+	}
+	
+	/**
+	 * Creates a manager sharing connections and transport configuration with
+	 * this manager but applying the given context to its requests. This
+	 * manager is not changed, so managers with different contexts may be used
+	 * from different threads at the same time. Closing the returned manager
+	 * does not release the shared connections.
+	 */
+	public RedmineManager withContext(final RequestContext context) {
+		return new RedmineManager(transport.withContext(context), null);
+	}
+	
+	/**
+	 * Creates a manager acting on behalf of the given user, see
+	 * {@link #setOnBehalfOfUser(String)} and {@link #withContext(RequestContext)}.
+	 * Other settings are taken from the context of this manager.
+	 *
+	 * @param loginName Redmine user login name.
+	 */
+	public RedmineManager as(final String loginName) {
+		return withContext(getContext().withOnBehalfOfUser(loginName));
+	}
 }
@@ -1,10 +1,14 @@
 package com.taskadapter.redmineapi;
 
+import org.apache.http.HttpResponse;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 
 import com.taskadapter.redmineapi.internal.Transport;
 import com.taskadapter.redmineapi.internal.URIConfigurator;
+import com.taskadapter.redmineapi.internal.comm.BaseCommunicator;
+import com.taskadapter.redmineapi.internal.comm.Communicator;
+import com.taskadapter.redmineapi.internal.comm.Communicators;
 
 /**
  * <strong>Entry point</strong> for the API. Use this class to communicate with
@@ -85,7 +89,7 @@ public final class RedmineManagerFactory {
 	 */
 	public static RedmineManager createWithApiKey(final String uri, final String apiAccessKey,
 			final TransportConfiguration config) {
-		return new RedmineManager(new Transport(new URIConfigurator(uri, apiAccessKey), config.client),
+		return new RedmineManager(createTransport(new URIConfigurator(uri, apiAccessKey), config),
 				config.shutdownListener);
 	}
 
@@ -117,7 +121,7 @@ public final class RedmineManagerFactory {
 	 */
 	public static RedmineManager createWithUserAuth(final String uri, final String login, final String password,
 			final TransportConfiguration config) {
-		final ITransport transport = new Transport(new URIConfigurator(uri, null), config.client);
+		final ITransport transport = createTransport(new URIConfigurator(uri, null), config);
 		transport.setCredentials(login, password);
 		return new RedmineManager(transport, config.shutdownListener);
 	}
@@ -176,6 +180,26 @@ public final class RedmineManagerFactory {
 	// }
 	// }
 
+	private static ITransport createTransport(final URIConfigurator configurator,
+			final TransportConfiguration config) {
+		Communicator<HttpResponse> communicator = config.communicator != null ? config.communicator
+				: new BaseCommunicator(config.client);
+		if (config.circuitBreaker != null) {
+			communicator = Communicators.circuitBreaking(communicator, config.circuitBreaker);
+		}
+		if (config.concurrencyLimiter != null) {
+			communicator = Communicators.concurrencyLimiting(communicator, config.concurrencyLimiter);
+		}
+		if (config.rateLimits != null) {
+			communicator = Communicators.rateLimiting(communicator, config.rateLimits);
+		}
+		communicator = Communicators.retrying(communicator, config.retryPolicy);
+		final Transport transport = new Transport(configurator, config.client, communicator);
+		transport.setPageSizeTuner(config.pageSizeTuner);
+		transport.setEntityCache(config.entityCache);
+		return transport;
+	}
+
 	private static TransportConfiguration createDefaultTransportConfig() {
 		return TransportConfiguration.create(HttpClientBuilder.create().build(), null);
 	}
@@ -0,0 +1,15 @@
+package com.taskadapter.redmineapi;
+
+/**
+ * Thrown without contacting the server when a request exceeds client-side
+ * rate limits in non-blocking mode.
+ *
+ * @see RequestRateLimits
+ */
+public class RedmineRateLimitException extends RedmineException {
+	private static final long serialVersionUID = -2838393712284916402L;
+
+	public RedmineRateLimitException(String message) {
+		super(message);
+	}
+}
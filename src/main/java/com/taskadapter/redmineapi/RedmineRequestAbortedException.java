@@ -0,0 +1,14 @@
+package com.taskadapter.redmineapi;
+
+/**
+ * Thrown when a request is aborted by the client with
+ * {@link com.taskadapter.redmineapi.internal.comm.RequestAbortScope#abort()}.
+ * Aborted requests are not retried and do not count as server failures.
+ */
+public class RedmineRequestAbortedException extends RedmineTransportException {
+	private static final long serialVersionUID = -2870167306591520346L;
+
+	public RedmineRequestAbortedException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,101 @@
+package com.taskadapter.redmineapi;
+
+/**
+ * Immutable settings applied to each request: impersonated user, credentials
+ * and page size. Managers obtained from {@link RedmineManager#as(String)} or
+ * {@link RedmineManager#withContext(RequestContext)} share the connection
+ * pool and transport layers of the original manager but use their own
+ * context, so several threads may work on behalf of different users at the
+ * same time:
+ * <pre>
+ RedmineManager admin = RedmineManagerFactory.createWithApiKey(uri, adminKey);
+ admin.as("jsmith").getIssueManager().createIssue(issue);
+ admin.withContext(RequestContext.create().withApiKey(userKey).withObjectsPerPage(100))
+     .getIssueManager().getIssues(params);
+ * </pre>
+ */
+public final class RequestContext {
+	private final String onBehalfOfUser;
+	private final String login;
+	private final String password;
+	private final String apiKey;
+	private final Integer objectsPerPage;
+
+	private RequestContext(final String onBehalfOfUser, final String login, final String password,
+			final String apiKey, final Integer objectsPerPage) {
+		this.onBehalfOfUser = onBehalfOfUser;
+		this.login = login;
+		this.password = password;
+		this.apiKey = apiKey;
+		this.objectsPerPage = objectsPerPage;
+	}
+
+	/**
+	 * Creates an empty context: no impersonation, credentials of the manager,
+	 * default page size.
+	 */
+	public static RequestContext create() {
+		return new RequestContext(null, null, null, null, null);
+	}
+
+	/**
+	 * @param loginName user to act on behalf of ("X-Redmine-Switch-User"
+	 *            header), requires admin credentials. Null to act as the
+	 *            authenticated user.
+	 */
+	public RequestContext withOnBehalfOfUser(final String loginName) {
+		return new RequestContext(loginName, login, password, apiKey, objectsPerPage);
+	}
+
+	/**
+	 * Sets HTTP Basic credentials. Redmine prefers an API key when both are
+	 * sent, so use it with managers created without an API key.
+	 *
+	 * @param login user login, null to send no credentials.
+	 */
+	public RequestContext withCredentials(final String login, final String password) {
+		return new RequestContext(onBehalfOfUser, login, password, apiKey, objectsPerPage);
+	}
+
+	/**
+	 * @param apiKey API key replacing the key of the manager, null to use the
+	 *            key of the manager.
+	 */
+	public RequestContext withApiKey(final String apiKey) {
+		return new RequestContext(onBehalfOfUser, login, password, apiKey, objectsPerPage);
+	}
+
+	/**
+	 * @param pageSize number of objects requested in one page. Fixed page size
+	 *            disables page size tuning.
+	 */
+	public RequestContext withObjectsPerPage(final int pageSize) {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("Page size must be >= 0. You provided: " + pageSize);
+		}
+		return new RequestContext(onBehalfOfUser, login, password, apiKey, pageSize);
+	}
+
+	public String getOnBehalfOfUser() {
+		return onBehalfOfUser;
+	}
+
+	public String getLogin() {
+		return login;
+	}
+
+	public String getPassword() {
+		return password;
+	}
+
+	public String getApiKey() {
+		return apiKey;
+	}
+
+	/**
+	 * @return fixed page size or null to use the transport default.
+	 */
+	public Integer getObjectsPerPage() {
+		return objectsPerPage;
+	}
+}
@@ -0,0 +1,74 @@
+package com.taskadapter.redmineapi;
+
+/**
+ * Rate limits for requests sent to a Redmine server. Reads (GET, HEAD),
+ * writes (POST, PUT, DELETE) and file uploads are limited separately; a null
+ * limiter means the requests of this kind are not limited.
+ * <p>In "blocking" mode a request waits for a token. Otherwise it fails
+ * immediately with {@link RedmineRateLimitException} when no token is available.
+ * <p>Sample usage, two managers sharing limits to the same server:
+ * <pre>
+ RequestRateLimits limits = RequestRateLimits.create()
+     .withReads(RateLimiter.create(10, 20))
+     .withWrites(RateLimiter.create(2, 5));
+ TransportConfiguration config = TransportConfiguration.create(client, null).withRateLimits(limits);
+ RedmineManager first = RedmineManagerFactory.createWithApiKey(uri, firstKey, config);
+ RedmineManager second = RedmineManagerFactory.createWithApiKey(uri, secondKey, config);
+ * </pre>
+ */
+public final class RequestRateLimits {
+	private final RateLimiter reads;
+	private final RateLimiter writes;
+	private final RateLimiter uploads;
+	private final boolean blocking;
+
+	private RequestRateLimits(final RateLimiter reads, final RateLimiter writes,
+			final RateLimiter uploads, final boolean blocking) {
+		this.reads = reads;
+		this.writes = writes;
+		this.uploads = uploads;
+		this.blocking = blocking;
+	}
+
+	/**
+	 * Creates blocking limits without any limiters.
+	 */
+	public static RequestRateLimits create() {
+		return new RequestRateLimits(null, null, null, true);
+	}
+
+	public RequestRateLimits withReads(final RateLimiter limiter) {
+		return new RequestRateLimits(limiter, writes, uploads, blocking);
+	}
+
+	public RequestRateLimits withWrites(final RateLimiter limiter) {
+		return new RequestRateLimits(reads, limiter, uploads, blocking);
+	}
+
+	public RequestRateLimits withUploads(final RateLimiter limiter) {
+		return new RequestRateLimits(reads, writes, limiter, blocking);
+	}
+
+	/**
+	 * @param blocking true to wait for a token, false to fail immediately.
+	 */
+	public RequestRateLimits withBlocking(final boolean blocking) {
+		return new RequestRateLimits(reads, writes, uploads, blocking);
+	}
+
+	public RateLimiter getReads() {
+		return reads;
+	}
+
+	public RateLimiter getWrites() {
+		return writes;
+	}
+
+	public RateLimiter getUploads() {
+		return uploads;
+	}
+
+	public boolean isBlocking() {
+		return blocking;
+	}
+}
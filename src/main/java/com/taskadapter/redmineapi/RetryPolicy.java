@@ -0,0 +1,170 @@
+package com.taskadapter.redmineapi;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable description of how failed requests are retried. Requests are
+ * retried when the server cannot be reached (I/O error) or when it answers
+ * with one of the "retryable" status codes (502, 503 and 504 and 429 by default).
+ * <p>Only idempotent requests are retried: GET, HEAD, OPTIONS, PUT and DELETE by
+ * default. A POST request is retried only when POST is added to retryable methods or
+ * when the request carries an "Idempotency-Key" header.
+ * <p>Sample usage:
+ * <pre>
+ RetryPolicy policy = RetryPolicy.create().withMaxAttempts(5).withBackoff(100, 5000);
+ RedmineManager mgr = RedmineManagerFactory.createWithApiKey(uri, apiKey,
+     TransportConfiguration.create(HttpClientBuilder.create().build(), null).withRetryPolicy(policy));
+ * </pre>
+ */
+public final class RetryPolicy {
+	/**
+	 * Header marking a request as idempotent.
+	 */
+	public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+	private static final RetryPolicy NONE = new RetryPolicy(1, 0, 0, 0,
+			Collections.<Integer>emptySet(), Collections.<String>emptySet(), false);
+
+	private final int maxAttempts;
+	private final long initialBackoffMillis;
+	private final long maxBackoffMillis;
+	private final double jitter;
+	private final Set<Integer> retryableStatusCodes;
+	private final Set<String> retryableMethods;
+	private final boolean respectRetryAfter;
+
+	private RetryPolicy(final int maxAttempts, final long initialBackoffMillis,
+			final long maxBackoffMillis, final double jitter,
+			final Set<Integer> retryableStatusCodes, final Set<String> retryableMethods,
+			final boolean respectRetryAfter) {
+		this.maxAttempts = maxAttempts;
+		this.initialBackoffMillis = initialBackoffMillis;
+		this.maxBackoffMillis = maxBackoffMillis;
+		this.jitter = jitter;
+		this.retryableStatusCodes = Collections.unmodifiableSet(retryableStatusCodes);
+		this.retryableMethods = Collections.unmodifiableSet(retryableMethods);
+		this.respectRetryAfter = respectRetryAfter;
+	}
+
+	/**
+	 * Creates a default policy: 3 attempts, exponential backoff from 200 ms up
+	 * to 10 seconds with 50% jitter, "Retry-After" header is respected.
+	 */
+	public static RetryPolicy create() {
+		return new RetryPolicy(3, 200, 10000, 0.5,
+				new HashSet<Integer>(Arrays.asList(429, 502, 503, 504)),
+				new HashSet<String>(Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE")),
+				true);
+	}
+
+	/**
+	 * Returns a policy which never retries.
+	 */
+	public static RetryPolicy none() {
+		return NONE;
+	}
+
+	/**
+	 * @param maxAttempts total number of attempts including the first one.
+	 */
+	public RetryPolicy withMaxAttempts(final int maxAttempts) {
+		if (maxAttempts < 1) {
+			throw new IllegalArgumentException("Max attempts must be >= 1. You provided: " + maxAttempts);
+		}
+		return new RetryPolicy(maxAttempts, initialBackoffMillis, maxBackoffMillis, jitter,
+				retryableStatusCodes, retryableMethods, respectRetryAfter);
+	}
+
+	/**
+	 * @param initialBackoffMillis delay before the first retry. Each next delay is doubled.
+	 * @param maxBackoffMillis upper bound of a delay, including delays requested by the server.
+	 */
+	public RetryPolicy withBackoff(final long initialBackoffMillis, final long maxBackoffMillis) {
+		if (initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis) {
+			throw new IllegalArgumentException("Invalid backoff " + initialBackoffMillis + ".." + maxBackoffMillis);
+		}
+		return new RetryPolicy(maxAttempts, initialBackoffMillis, maxBackoffMillis, jitter,
+				retryableStatusCodes, retryableMethods, respectRetryAfter);
+	}
+
+	/**
+	 * @param jitter part of a delay (from 0 to 1) which is randomized to avoid
+	 *            retries from many clients at the same moment.
+	 */
+	public RetryPolicy withJitter(final double jitter) {
+		if (jitter < 0 || jitter > 1) {
+			throw new IllegalArgumentException("Jitter must be in 0..1 range. You provided: " + jitter);
+		}
+		return new RetryPolicy(maxAttempts, initialBackoffMillis, maxBackoffMillis, jitter,
+				retryableStatusCodes, retryableMethods, respectRetryAfter);
+	}
+
+	public RetryPolicy withRetryableStatusCodes(final Integer... codes) {
+		return new RetryPolicy(maxAttempts, initialBackoffMillis, maxBackoffMillis, jitter,
+				new HashSet<Integer>(Arrays.asList(codes)), retryableMethods, respectRetryAfter);
+	}
+
+	/**
+	 * Sets HTTP methods (like "GET" or "POST") which are safe to retry.
+	 */
+	public RetryPolicy withRetryableMethods(final String... methods) {
+		final Set<String> set = new HashSet<String>();
+		for (final String method : methods) {
+			set.add(method.toUpperCase(Locale.ENGLISH));
+		}
+		return new RetryPolicy(maxAttempts, initialBackoffMillis, maxBackoffMillis, jitter,
+				retryableStatusCodes, set, respectRetryAfter);
+	}
+
+	public RetryPolicy withRespectRetryAfter(final boolean respectRetryAfter) {
+		return new RetryPolicy(maxAttempts, initialBackoffMillis, maxBackoffMillis, jitter,
+				retryableStatusCodes, retryableMethods, respectRetryAfter);
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	public long getInitialBackoffMillis() {
+		return initialBackoffMillis;
+	}
+
+	public long getMaxBackoffMillis() {
+		return maxBackoffMillis;
+	}
+
+	public double getJitter() {
+		return jitter;
+	}
+
+	public Set<Integer> getRetryableStatusCodes() {
+		return retryableStatusCodes;
+	}
+
+	public Set<String> getRetryableMethods() {
+		return retryableMethods;
+	}
+
+	public boolean isRespectRetryAfter() {
+		return respectRetryAfter;
+	}
+
+	/**
+	 * Calculates a delay before the given retry.
+	 *
+	 * @param retry
+	 *            retry number, starting from 1.
+	 * @param random
+	 *            random value in 0..1 range.
+	 * @return delay in milliseconds.
+	 */
+	public long getBackoffMillis(final int retry, final double random) {
+		final double exponential = initialBackoffMillis * Math.pow(2, retry - 1);
+		final double capped = Math.min(exponential, maxBackoffMillis);
+		return Math.round(capped * (1 - jitter * random));
+	}
+}
@@ -0,0 +1,31 @@
+package com.taskadapter.redmineapi;
+
+/**
+ * Object loaded by a {@link RedmineFederation} query, tagged with the name of
+ * the Redmine instance it came from. Ids are unique only within one instance.
+ */
+public final class SourcedObject<T> {
+	private final String source;
+	private final T object;
+
+	public SourcedObject(final String source, final T object) {
+		this.source = source;
+		this.object = object;
+	}
+
+	/**
+	 * @return name of the instance in the federation.
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	public T getObject() {
+		return object;
+	}
+
+	@Override
+	public String toString() {
+		return source + ":" + object;
+	}
+}
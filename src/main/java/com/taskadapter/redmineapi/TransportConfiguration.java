@@ -1,7 +1,10 @@
 package com.taskadapter.redmineapi;
 
+import org.apache.http.HttpResponse;
 import org.apache.http.impl.client.CloseableHttpClient;
 
+import com.taskadapter.redmineapi.internal.comm.Communicator;
+
 /**
  * Configuration of transport layer for the Redmine manager. We are leaking
  * transport level abstraction. As demand grows, we provide more and more
@@ -31,16 +34,119 @@ public final class TransportConfiguration {
 	 * @return transport configuration for redmine manager.
 	 */
 	public static TransportConfiguration create(final CloseableHttpClient client, final Runnable shutdownListener) {
-		return new TransportConfiguration(client, shutdownListener);
+		return new TransportConfiguration(client, null, shutdownListener, RetryPolicy.none(), null, null,
+				null, null, null);
+	}
+
+	/**
+	 * Creates a transport configuration sending requests through the given
+	 * communicator instead of an Apache http client. Used by alternative http
+	 * backends. Retries, circuit breaker and limits configured on the result
+	 * are applied on top of the communicator.
+	 * @param communicator communicator sending requests to the server.
+	 * @param shutdownListener listener to call when redmine manager is
+	 * shut down. May be null.
+	 * @return transport configuration for redmine manager.
+	 */
+	public static TransportConfiguration createWithCommunicator(final Communicator<HttpResponse> communicator,
+			final Runnable shutdownListener) {
+		return new TransportConfiguration(null, communicator, shutdownListener, RetryPolicy.none(), null, null,
+				null, null, null);
 	}
 	
 	final CloseableHttpClient client;
 
+	final Communicator<HttpResponse> communicator;
+
 	public final Runnable shutdownListener;
 
-	private TransportConfiguration(final CloseableHttpClient client, final Runnable shutdownListener) {
+	final RetryPolicy retryPolicy;
+
+	final CircuitBreaker circuitBreaker;
+
+	final RequestRateLimits rateLimits;
+
+	final ConcurrencyLimiter concurrencyLimiter;
+
+	final PageSizeTuner pageSizeTuner;
+
+	final EntityCache entityCache;
+
+	private TransportConfiguration(final CloseableHttpClient client,
+			final Communicator<HttpResponse> communicator, final Runnable shutdownListener,
+			final RetryPolicy retryPolicy, final CircuitBreaker circuitBreaker,
+			final RequestRateLimits rateLimits, final ConcurrencyLimiter concurrencyLimiter,
+			final PageSizeTuner pageSizeTuner, final EntityCache entityCache) {
 		this.client = client;
+		this.communicator = communicator;
 		this.shutdownListener = shutdownListener;
+		this.retryPolicy = retryPolicy;
+		this.circuitBreaker = circuitBreaker;
+		this.rateLimits = rateLimits;
+		this.concurrencyLimiter = concurrencyLimiter;
+		this.pageSizeTuner = pageSizeTuner;
+		this.entityCache = entityCache;
+	}
+
+	/**
+	 * Returns a copy of this configuration which retries failed requests
+	 * according to the given policy. Requests are not retried by default.
+	 */
+	public TransportConfiguration withRetryPolicy(final RetryPolicy policy) {
+		return new TransportConfiguration(client, communicator, shutdownListener, policy,
+				circuitBreaker, rateLimits, concurrencyLimiter, pageSizeTuner, entityCache);
+	}
+
+	/**
+	 * Returns a copy of this configuration which sends each request attempt
+	 * through the given circuit breaker. The breaker may be shared by several
+	 * managers talking to the same server. May be null to disable the breaker.
+	 */
+	public TransportConfiguration withCircuitBreaker(final CircuitBreaker breaker) {
+		return new TransportConfiguration(client, communicator, shutdownListener, retryPolicy,
+				breaker, rateLimits, concurrencyLimiter, pageSizeTuner, entityCache);
+	}
+
+	/**
+	 * Returns a copy of this configuration which limits the request rate. Each
+	 * request attempt (including retries) takes a token. Use the same limits in
+	 * several configurations to limit the total rate of several managers.
+	 * May be null to disable rate limiting.
+	 */
+	public TransportConfiguration withRateLimits(final RequestRateLimits limits) {
+		return new TransportConfiguration(client, communicator, shutdownListener, retryPolicy,
+				circuitBreaker, limits, concurrencyLimiter, pageSizeTuner, entityCache);
+	}
+
+	/**
+	 * Returns a copy of this configuration which limits the number of requests
+	 * in flight. The limit adapts to the server latency and errors, so bulk
+	 * operations run as many parallel requests as the server handles well.
+	 * May be null to disable the limit.
+	 */
+	public TransportConfiguration withConcurrencyLimiter(final ConcurrencyLimiter limiter) {
+		return new TransportConfiguration(client, communicator, shutdownListener, retryPolicy,
+				circuitBreaker, rateLimits, limiter, pageSizeTuner, entityCache);
+	}
+
+	/**
+	 * Returns a copy of this configuration which chooses page sizes of object
+	 * lists automatically. Explicit {@link RedmineManager#setObjectsPerPage(int)}
+	 * switches back to the fixed page size. May be null to disable tuning.
+	 */
+	public TransportConfiguration withPageSizeTuner(final PageSizeTuner tuner) {
+		return new TransportConfiguration(client, communicator, shutdownListener, retryPolicy,
+				circuitBreaker, rateLimits, concurrencyLimiter, tuner, entityCache);
+	}
+
+	/**
+	 * Returns a copy of this configuration which caches objects loaded by id.
+	 * The cache may be shared by several managers. May be null to disable
+	 * caching.
+	 */
+	public TransportConfiguration withEntityCache(final EntityCache cache) {
+		return new TransportConfiguration(client, communicator, shutdownListener, retryPolicy,
+				circuitBreaker, rateLimits, concurrencyLimiter, pageSizeTuner, cache);
 	}
 
-}
\ No newline at end of file
+}
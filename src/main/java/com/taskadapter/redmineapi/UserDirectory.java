@@ -0,0 +1,262 @@
+package com.taskadapter.redmineapi;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.taskadapter.redmineapi.bean.Group;
+import com.taskadapter.redmineapi.bean.User;
+
+/**
+ * Local directory of users loaded with {@link UserManager#getUsers()},
+ * including memberships and groups. Resolves logins and emails to users in
+ * memory instead of one request per name:
+ * <pre>
+ UserDirectory users = UserDirectory.create(manager);
+ users.startBackgroundRefresh(15 * 60 * 1000);
+ Integer assigneeId = users.getIdByMail("John.Smith@example.com");
+ ...
+ users.close();
+ * </pre>
+ * <p>Loading users requires "Redmine Administrator" permission. Redmine
+ * lists active users only, so locked users are not in the directory.
+ * <p>Returned users are shared by all callers and must not be modified.
+ * This class is thread-safe.
+ */
+public final class UserDirectory implements Closeable {
+	private static final Logger logger = LoggerFactory.getLogger(UserDirectory.class);
+
+	private final UserManager userManager;
+
+	private volatile Snapshot snapshot;
+	private volatile long lastRefreshMillis;
+
+	/* serializes scans, so an older scan does not replace a newer one */
+	private final Object refreshLock = new Object();
+
+	/* guards the scheduler fields, never held during a scan */
+	private final Object schedulerLock = new Object();
+	private ScheduledExecutorService refresher;
+	private ScheduledFuture<?> refreshTask;
+
+	private UserDirectory(final UserManager userManager) {
+		this.userManager = userManager;
+	}
+
+	/**
+	 * Loads all users visible to the user of the manager.
+	 */
+	public static UserDirectory create(final RedmineManager manager) throws RedmineException {
+		final UserDirectory directory = new UserDirectory(manager.getUserManager());
+		directory.refresh();
+		return directory;
+	}
+
+	/**
+	 * Reloads all users. Lookups use the previous users until the new list is
+	 * loaded.
+	 */
+	public void refresh() throws RedmineException {
+		synchronized (refreshLock) {
+			snapshot = new Snapshot(userManager.getUsers());
+			lastRefreshMillis = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Refreshes the directory periodically on a daemon thread. Failed
+	 * refreshes are logged, the directory keeps the previous users. Replaces
+	 * the previous schedule, if any.
+	 *
+	 * @param periodMillis delay between the end of one refresh and the start
+	 *            of the next one.
+	 */
+	public void startBackgroundRefresh(final long periodMillis) {
+		if (periodMillis <= 0) {
+			throw new IllegalArgumentException("Refresh period must be positive. You provided: " + periodMillis);
+		}
+		synchronized (schedulerLock) {
+			if (refresher == null) {
+				refresher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+					@Override
+					public Thread newThread(final Runnable r) {
+						final Thread thread = new Thread(r, "redmine-user-directory");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+			}
+			if (refreshTask != null) {
+				refreshTask.cancel(false);
+			}
+			refreshTask = refresher.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						refresh();
+					} catch (final RedmineException e) {
+						logger.warn("Cannot refresh Redmine users, using users loaded before", e);
+					} catch (final RuntimeException e) {
+						logger.warn("Cannot refresh Redmine users, using users loaded before", e);
+					}
+				}
+			}, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Stops background refresh without waiting for a refresh in progress. The
+	 * directory can still be used and refreshed explicitly.
+	 */
+	public void stopBackgroundRefresh() {
+		synchronized (schedulerLock) {
+			if (refresher != null) {
+				refresher.shutdownNow();
+				refresher = null;
+				refreshTask = null;
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		stopBackgroundRefresh();
+	}
+
+	/**
+	 * @return time of the last successful refresh, in milliseconds since the
+	 *         epoch.
+	 */
+	public long getLastRefreshMillis() {
+		return lastRefreshMillis;
+	}
+
+	/**
+	 * @return user or null if there is no such user.
+	 */
+	public User getUserById(final int id) {
+		return snapshot.byId.get(id);
+	}
+
+	/**
+	 * @return user or null if there is no user with the login.
+	 */
+	public User getUserByLogin(final String login) {
+		return snapshot.byLogin.get(login);
+	}
+
+	/**
+	 * @param mail email address, case is ignored.
+	 * @return user or null if there is no user with the email.
+	 */
+	public User getUserByMail(final String mail) {
+		return snapshot.byMail.get(normalizeMail(mail));
+	}
+
+	/**
+	 * @return user id or null if there is no user with the login.
+	 */
+	public Integer getIdByLogin(final String login) {
+		return getId(getUserByLogin(login));
+	}
+
+	/**
+	 * @param mail email address, case is ignored.
+	 * @return user id or null if there is no user with the email.
+	 */
+	public Integer getIdByMail(final String mail) {
+		return getId(getUserByMail(mail));
+	}
+
+	/**
+	 * @return users in the order of ids and ids which are not in the
+	 *         directory.
+	 */
+	public ObjectsByIds<User> getUsersByIds(final int... ids) {
+		final Snapshot current = snapshot;
+		final Map<Integer, User> found = new LinkedHashMap<Integer, User>();
+		final Set<Integer> missing = new LinkedHashSet<Integer>();
+		for (final int id : ids) {
+			final User user = current.byId.get(id);
+			if (user == null) {
+				missing.add(id);
+			} else {
+				found.put(id, user);
+			}
+		}
+		return new ObjectsByIds<User>(found, missing);
+	}
+
+	/**
+	 * @return members of the group, empty list for unknown groups.
+	 */
+	public List<User> getGroupMembers(final int groupId) {
+		final List<User> members = snapshot.byGroup.get(groupId);
+		return members == null ? Collections.<User>emptyList() : Collections.unmodifiableList(members);
+	}
+
+	/**
+	 * @return all users in the order of the server.
+	 */
+	public Collection<User> getUsers() {
+		return Collections.unmodifiableCollection(snapshot.byId.values());
+	}
+
+	public int size() {
+		return snapshot.byId.size();
+	}
+
+	private static Integer getId(final User user) {
+		return user == null ? null : user.getId();
+	}
+
+	private static String normalizeMail(final String mail) {
+		return mail == null ? null : mail.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Immutable indexes of one user list.
+	 */
+	private static final class Snapshot {
+		final Map<Integer, User> byId = new LinkedHashMap<Integer, User>();
+		final Map<String, User> byLogin = new HashMap<String, User>();
+		final Map<String, User> byMail = new HashMap<String, User>();
+		final Map<Integer, List<User>> byGroup = new HashMap<Integer, List<User>>();
+
+		Snapshot(final List<User> users) {
+			for (final User user : users) {
+				byId.put(user.getId(), user);
+				if (user.getLogin() != null) {
+					byLogin.put(user.getLogin(), user);
+				}
+				if (user.getMail() != null) {
+					byMail.put(normalizeMail(user.getMail()), user);
+				}
+				for (final Group group : user.getGroups()) {
+					List<User> members = byGroup.get(group.getId());
+					if (members == null) {
+						members = new ArrayList<User>();
+						byGroup.put(group.getId(), members);
+					}
+					members.add(user);
+				}
+			}
+		}
+	}
+}
@@ -115,6 +115,14 @@ public class UserManager {
                 "include", "memberships,groups"));
     }
 
+    /**
+     * Same as {@link #getUserById(Integer)}, but answers null if the user is not found.
+     */
+    public User findUserById(Integer userId) throws RedmineException {
+        return transport.findObject(User.class, userId, new BasicNameValuePair(
+                "include", "memberships,groups"));
+    }
+
     /**
      * Load list of groups on the server.
      * <p><strong>This operation requires "Redmine Administrator" permission.</strong>
@@ -142,6 +150,15 @@ public class UserManager {
         return transport.getObject(Group.class, id);
     }
 
+    /**
+     * Same as {@link #getGroupById(int)}, but answers null if the group is not found.
+     * <p>
+     * <strong>This operation requires "Redmine Administrators" permission.</strong>
+     */
+    public Group findGroupById(int id) throws RedmineException {
+        return transport.findObject(Group.class, id);
+    }
+
     /**
      * Returns the group based on its name.
      * <p>
@@ -156,6 +173,15 @@ public class UserManager {
         return transport.getObject(Group.class, name);
     }
 
+    /**
+     * Same as {@link #getGroupByName(String)}, but answers null if the group is not found.
+     * <p>
+     * <strong>This operation requires "Redmine Administrators" permission.</strong>
+     */
+    public Group findGroupByName(String name) throws RedmineException {
+        return transport.findObject(Group.class, name);
+    }
+
     /**
      * Creates a new group.
      * <p><strong>This operation requires "Redmine Administrator" permission.</strong>
@@ -0,0 +1,150 @@
+package com.taskadapter.redmineapi.internal;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.taskadapter.redmineapi.RedmineInternalError;
+
+/**
+ * Shallow copier for Redmine beans. All beans keep their database id in a
+ * final field and expose a package-private "(Integer id)" constructor, so a
+ * copy with another id can only be produced reflectively.
+ */
+final class BeanCopier {
+	private static final String ID_FIELD = "id";
+
+	/**
+	 * Reflective metadata of a bean class.
+	 */
+	private static final class BeanInfo {
+		final Constructor<?> constructor;
+		final List<Field> fields;
+		final List<Field> collections;
+
+		BeanInfo(final Constructor<?> constructor, final List<Field> fields,
+				final List<Field> collections) {
+			this.constructor = constructor;
+			this.fields = fields;
+			this.collections = collections;
+		}
+	}
+
+	private static final ConcurrentMap<Class<?>, BeanInfo> INFOS = new ConcurrentHashMap<Class<?>, BeanInfo>();
+
+	/**
+	 * Creates a shallow copy of the bean with the given database id. Collections
+	 * of the copy are new collections holding the same elements.
+	 *
+	 * @param bean
+	 *            bean to copy.
+	 * @param id
+	 *            id of the copy.
+	 * @return bean copy.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> T copy(final T bean, final Integer id) {
+		final BeanInfo info = getInfo(bean.getClass());
+		try {
+			final T result = (T) info.constructor.newInstance(id);
+			for (final Field field : info.fields) {
+				field.set(result, field.get(bean));
+			}
+			for (final Field field : info.collections) {
+				final Collection<Object> source = (Collection<Object>) field.get(bean);
+				final Collection<Object> target = (Collection<Object>) field.get(result);
+				if (source != null && target != null) {
+					target.addAll(source);
+				}
+			}
+			return result;
+		} catch (final Exception e) {
+			throw new RedmineInternalError("Cannot copy " + bean.getClass(), e);
+		}
+	}
+
+	/**
+	 * Returns a value of a bean field or null if the bean has no such field.
+	 */
+	static Object getField(final Object bean, final String name) {
+		final Field field = findField(bean.getClass(), name);
+		if (field == null) {
+			return null;
+		}
+		try {
+			return field.get(bean);
+		} catch (final IllegalAccessException e) {
+			throw new RedmineInternalError(e);
+		}
+	}
+
+	/**
+	 * Sets a value of a bean field if the bean has a non-final field with the
+	 * given name and compatible type.
+	 */
+	static void setField(final Object bean, final String name, final Object value) {
+		final Field field = findField(bean.getClass(), name);
+		if (field == null || Modifier.isFinal(field.getModifiers())
+				|| !field.getType().isInstance(value)) {
+			return;
+		}
+		try {
+			field.set(bean, value);
+		} catch (final IllegalAccessException e) {
+			throw new RedmineInternalError(e);
+		}
+	}
+
+	private static Field findField(final Class<?> clazz, final String name) {
+		for (final Field field : getInfo(clazz).fields) {
+			if (field.getName().equals(name)) {
+				return field;
+			}
+		}
+		return null;
+	}
+
+	private static BeanInfo getInfo(final Class<?> clazz) {
+		final BeanInfo guess = INFOS.get(clazz);
+		if (guess != null) {
+			return guess;
+		}
+		final BeanInfo info = createInfo(clazz);
+		INFOS.putIfAbsent(clazz, info);
+		return info;
+	}
+
+	private static BeanInfo createInfo(final Class<?> clazz) {
+		final Constructor<?> constructor;
+		try {
+			constructor = clazz.getDeclaredConstructor(Integer.class);
+		} catch (final NoSuchMethodException e) {
+			throw new RedmineInternalError("Unsupported class " + clazz, e);
+		}
+		constructor.setAccessible(true);
+		final List<Field> fields = new ArrayList<Field>();
+		final List<Field> collections = new ArrayList<Field>();
+		for (final Field field : clazz.getDeclaredFields()) {
+			final int modifiers = field.getModifiers();
+			if (Modifier.isStatic(modifiers) || ID_FIELD.equals(field.getName())) {
+				continue;
+			}
+			field.setAccessible(true);
+			if (!Modifier.isFinal(modifiers)) {
+				fields.add(field);
+			} else if (Collection.class.isAssignableFrom(field.getType())) {
+				collections.add(field);
+			}
+		}
+		return new BeanInfo(constructor, fields, collections);
+	}
+
+	private BeanCopier() {
+		throw new UnsupportedOperationException();
+	}
+}
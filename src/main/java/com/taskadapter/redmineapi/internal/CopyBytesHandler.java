@@ -8,6 +8,7 @@ import com.taskadapter.redmineapi.RedmineCommunicationException;
 import com.taskadapter.redmineapi.RedmineException;
 import com.taskadapter.redmineapi.internal.comm.BasicHttpResponse;
 import com.taskadapter.redmineapi.internal.comm.ContentHandler;
+import com.taskadapter.redmineapi.internal.io.BufferPool;
 
 /**
  * "Copy bytes" handler.
@@ -24,7 +25,7 @@ public final class CopyBytesHandler implements ContentHandler<BasicHttpResponse,
 	@Override
 	public Void processContent(BasicHttpResponse content)
 			throws RedmineException {
-		final byte[] buffer = new byte[4096 * 4];
+		final byte[] buffer = BufferPool.takeBytes();
 		int readed;
 		try {
 			final InputStream input = content.getStream();
@@ -36,6 +37,8 @@ public final class CopyBytesHandler implements ContentHandler<BasicHttpResponse,
 			}
 		} catch (IOException e) {
 			throw new RedmineCommunicationException(e);
+		} finally {
+			BufferPool.returnBytes(buffer);
 		}
 		return null;
 	}
@@ -0,0 +1,662 @@
+package com.taskadapter.redmineapi.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.message.BasicNameValuePair;
+
+import com.taskadapter.redmineapi.ITransport;
+import com.taskadapter.redmineapi.Include;
+import com.taskadapter.redmineapi.NotFoundException;
+import com.taskadapter.redmineapi.RedmineCommunicationException;
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RequestContext;
+import com.taskadapter.redmineapi.bean.Group;
+import com.taskadapter.redmineapi.bean.Identifiable;
+import com.taskadapter.redmineapi.bean.Issue;
+import com.taskadapter.redmineapi.bean.IssueRelation;
+import com.taskadapter.redmineapi.bean.Project;
+import com.taskadapter.redmineapi.bean.User;
+import com.taskadapter.redmineapi.bean.Watcher;
+import com.taskadapter.redmineapi.bean.WatcherFactory;
+import com.taskadapter.redmineapi.internal.Transport.ResultsWrapper;
+import com.taskadapter.redmineapi.internal.comm.BasicHttpResponse;
+import com.taskadapter.redmineapi.internal.comm.ContentHandler;
+
+/**
+ * Transport keeping all the Redmine objects in memory. It does not talk to any
+ * server and is intended to be used in tests of applications built on top of
+ * this library:
+ * <pre>
+ InMemoryTransport transport = new InMemoryTransport();
+ transport.put(TrackerFactory.create(1, "Bug"));
+ RedmineManager mgr = new RedmineManager(transport, null);
+ Issue created = mgr.getIssueManager().createIssue(IssueFactory.create(1, "subject"));
+ * </pre>
+ * <p>Objects are copied on each write and read, so changes made by a caller to
+ * a returned bean are not visible until the bean is saved back. Only a small set of
+ * list filters is supported: "issue_id" (comma-separated values or ">=id"),
+ * "project_id" (comma-separated values), "subject",
+ * "created_on"/"updated_on"/"spent_on" (">&lt;from|to", ">=date" and "&lt;=date"
+ * with yyyy-MM-dd dates) and "limit"/"offset". Lists are sorted by id, all other
+ * parameters are ignored.
+ * <p>This class is thread-safe.
+ */
+public final class InMemoryTransport implements ITransport {
+	private static final int DEFAULT_OBJECTS_PER_PAGE = 25;
+	private static final String CHARSET = "UTF-8";
+	/** Length of "yyyy-MM-dd" date filters. */
+	private static final int SHORT_DATE_LENGTH = 10;
+
+	/**
+	 * Key of a child collection, like "versions of project 5".
+	 */
+	private static final class ChildKey {
+		final Class<?> parentClass;
+		final Integer parentId;
+		final Class<?> childClass;
+
+		ChildKey(final Class<?> parentClass, final Integer parentId, final Class<?> childClass) {
+			this.parentClass = parentClass;
+			this.parentId = parentId;
+			this.childClass = childClass;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (!(o instanceof ChildKey)) {
+				return false;
+			}
+			final ChildKey other = (ChildKey) o;
+			return parentClass.equals(other.parentClass) && parentId.equals(other.parentId)
+					&& childClass.equals(other.childClass);
+		}
+
+		@Override
+		public int hashCode() {
+			return (parentClass.hashCode() * 31 + parentId.hashCode()) * 31 + childClass.hashCode();
+		}
+	}
+
+	private final ConcurrentMap<Class<?>, ConcurrentNavigableMap<Integer, Object>> objects;
+	private final ConcurrentMap<ChildKey, Set<Integer>> children;
+	private final ConcurrentMap<String, byte[]> contents;
+	private final AtomicInteger idSequence;
+	private final AtomicReference<User> currentUser;
+
+	private volatile RequestContext context;
+
+	public InMemoryTransport() {
+		objects = new ConcurrentHashMap<Class<?>, ConcurrentNavigableMap<Integer, Object>>();
+		children = new ConcurrentHashMap<ChildKey, Set<Integer>>();
+		contents = new ConcurrentHashMap<String, byte[]>();
+		idSequence = new AtomicInteger();
+		currentUser = new AtomicReference<User>();
+		context = RequestContext.create();
+	}
+
+	/**
+	 * Creates a view sharing all the objects with the parent.
+	 */
+	private InMemoryTransport(final InMemoryTransport parent, final RequestContext context) {
+		objects = parent.objects;
+		children = parent.children;
+		contents = parent.contents;
+		idSequence = parent.idSequence;
+		currentUser = parent.currentUser;
+		this.context = context;
+	}
+
+	/**
+	 * Stores an object "as is", like it was created on the server by somebody
+	 * else. Use it to populate read-only entities (trackers, statuses, roles,...).
+	 * An id is generated when the object has none.
+	 *
+	 * @return stored object copy.
+	 */
+	public <T extends Identifiable> T put(final T object) {
+		final Integer id = object.getId() != null ? object.getId() : nextId();
+		advanceSequence(id);
+		final T stored = BeanCopier.copy(object, id);
+		getObjects(object.getClass()).put(id, stored);
+		return BeanCopier.copy(stored, id);
+	}
+
+	/**
+	 * Sets a user returned by {@link #getCurrentUser(NameValuePair...)}.
+	 */
+	public void setCurrentUser(final User user) {
+		currentUser.set(user);
+	}
+
+	/**
+	 * Registers a content to be returned by {@link #download(String, ContentHandler)}.
+	 */
+	public void putContent(final String uri, final byte[] content) {
+		contents.put(uri, content.clone());
+	}
+
+	/**
+	 * Returns a content uploaded with the given token or null if there is no
+	 * such upload.
+	 */
+	public byte[] getUpload(final String token) {
+		final byte[] guess = contents.get(token);
+		return guess == null ? null : guess.clone();
+	}
+
+	/**
+	 * Returns the credentials set to this transport as "login:password" or null
+	 * if no login was set.
+	 */
+	public String getCredentials() {
+		final RequestContext current = context;
+		return current.getLogin() == null ? null : current.getLogin() + ':' + current.getPassword();
+	}
+
+	public String getOnBehalfOfUser() {
+		return context.getOnBehalfOfUser();
+	}
+
+	@Override
+	public <T> T addChildEntry(final Class<?> parentClass, final String parentId, final T object,
+			final NameValuePair... params) throws RedmineException {
+		final Integer parentKey = resolveKey(parentClass, parentId);
+		final T stored = store(object, nextId());
+		final Integer id = ((Identifiable) stored).getId();
+		getChildren(new ChildKey(parentClass, parentKey, object.getClass())).add(id);
+		return BeanCopier.copy(stored, id);
+	}
+
+	@Override
+	public <T> T addObject(final T object, final NameValuePair... params) throws RedmineException {
+		final T stored = store(object, nextId());
+		return BeanCopier.copy(stored, ((Identifiable) stored).getId());
+	}
+
+	@Override
+	public void addUserToGroup(final int userId, final int groupId) throws RedmineException {
+		getObject(Group.class, groupId);
+		getObject(User.class, userId);
+		getChildren(new ChildKey(Group.class, groupId, User.class)).add(userId);
+	}
+
+	@Override
+	public void addWatcherToIssue(final int watcherId, final int issueId) throws RedmineException {
+		getObject(Issue.class, issueId);
+		getObjects(Watcher.class).putIfAbsent(watcherId, WatcherFactory.create(watcherId));
+		getChildren(new ChildKey(Issue.class, issueId, Watcher.class)).add(watcherId);
+	}
+
+	@Override
+	public void close() throws IOException {
+		// nothing to release
+	}
+
+	@Override
+	public <T> void deleteChildId(final Class<?> parentClass, final String parentId, final T object,
+			final Integer value) throws RedmineException {
+		final Integer parentKey = resolveKey(parentClass, parentId);
+		final Set<Integer> ids = children.get(new ChildKey(parentClass, parentKey, object.getClass()));
+		if (ids == null || !ids.remove(value)) {
+			throw new NotFoundException("Object " + object.getClass().getSimpleName() + " " + value
+					+ " is not found in " + parentClass.getSimpleName() + " " + parentId);
+		}
+	}
+
+	@Override
+	public <T extends Identifiable> void deleteObject(final Class<T> classs, final String id)
+			throws RedmineException {
+		final Integer key = resolveKey(classs, id);
+		if (getObjects(classs).remove(key) == null) {
+			throw notFound(classs, id);
+		}
+		for (final Map.Entry<ChildKey, Set<Integer>> entry : children.entrySet()) {
+			final ChildKey childKey = entry.getKey();
+			if (childKey.parentClass.equals(classs) && childKey.parentId.equals(key)) {
+				children.remove(childKey);
+			} else if (childKey.childClass.equals(classs)) {
+				entry.getValue().remove(key);
+			}
+		}
+	}
+
+	@Override
+	public <R> R download(final String uri, final ContentHandler<BasicHttpResponse, R> handler)
+			throws RedmineException {
+		final byte[] content = contents.get(uri);
+		if (content == null) {
+			throw new NotFoundException("Content " + uri + " is not found");
+		}
+		return handler.processContent(new BasicHttpResponse(200, new ByteArrayInputStream(content), CHARSET));
+	}
+
+	@Override
+	public <T> List<T> getChildEntries(final Class<?> parentClass, final int parentId, final Class<T> classs)
+			throws RedmineException {
+		return getChildEntries(parentClass, Integer.toString(parentId), classs);
+	}
+
+	@Override
+	public <T> List<T> getChildEntries(final Class<?> parentClass, final String parentKey, final Class<T> classs)
+			throws RedmineException {
+		final Integer key = resolveKey(parentClass, parentKey);
+		final Set<Integer> ids = children.get(new ChildKey(parentClass, key, classs));
+		final List<T> result = new ArrayList<T>();
+		if (ids == null) {
+			return result;
+		}
+		final Map<Integer, Object> stored = getObjects(classs);
+		for (final Integer id : ids) {
+			final Object guess = stored.get(id);
+			if (guess != null) {
+				result.add(classs.cast(BeanCopier.copy(guess, id)));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public <T> T getChildEntry(final Class<?> parentClass, final String parentId, final Class<T> classs,
+			final String childId, final NameValuePair... params) throws RedmineException {
+		final Integer key = resolveKey(parentClass, parentId);
+		final Integer id = resolveKey(classs, childId);
+		final Set<Integer> ids = children.get(new ChildKey(parentClass, key, classs));
+		if (ids == null || !ids.contains(id)) {
+			throw notFound(classs, childId);
+		}
+		return getObject(classs, id, params);
+	}
+
+	@Override
+	public User getCurrentUser(final NameValuePair... params) throws RedmineException {
+		final User user = currentUser.get();
+		final String login = context.getLogin();
+		if (user != null) {
+			return BeanCopier.copy(user, user.getId());
+		}
+		for (final Object candidate : getObjects(User.class).values()) {
+			final User guess = (User) candidate;
+			if (login != null && login.equals(guess.getLogin())) {
+				return BeanCopier.copy(guess, guess.getId());
+			}
+		}
+		throw new NotFoundException("Current user is not found");
+	}
+
+	@Override
+	public <T> T getObject(final Class<T> classs, final Integer key, final NameValuePair... args)
+			throws RedmineException {
+		return getObject(classs, key.toString(), args);
+	}
+
+	@Override
+	public <T> T getObject(final Class<T> classs, final String key, final NameValuePair... args)
+			throws RedmineException {
+		final T result = findObject(classs, key, args);
+		if (result == null) {
+			throw notFound(classs, key);
+		}
+		return result;
+	}
+
+	@Override
+	public <T> T findObject(final Class<T> classs, final Integer key, final NameValuePair... args)
+			throws RedmineException {
+		return findObject(classs, key.toString(), args);
+	}
+
+	@Override
+	public <T> T findObject(final Class<T> classs, final String key, final NameValuePair... args)
+			throws RedmineException {
+		final Integer id = findKey(classs, key);
+		final Object stored = id == null ? null : getObjects(classs).get(id);
+		if (stored == null) {
+			return null;
+		}
+		final T result = classs.cast(BeanCopier.copy(stored, id));
+		if (result instanceof Issue && isIncluded(Include.relations, Arrays.asList(args))) {
+			((Issue) result).addRelations(getChildEntries(Issue.class, id, IssueRelation.class));
+		}
+		return result;
+	}
+
+	@Override
+	public <T> List<T> getObjectsList(final Class<T> objectClass, final Collection<? extends NameValuePair> params)
+			throws RedmineException {
+		final Integer contextPageSize = context.getObjectsPerPage();
+		final int objectsPerPage = contextPageSize == null ? DEFAULT_OBJECTS_PER_PAGE : contextPageSize;
+		final List<T> result = new ArrayList<T>();
+		int offset = 0;
+		Integer totalObjectsFoundOnServer;
+		do {
+			final List<NameValuePair> newParams = new ArrayList<NameValuePair>(params);
+			newParams.add(new BasicNameValuePair("limit", String.valueOf(objectsPerPage)));
+			newParams.add(new BasicNameValuePair("offset", String.valueOf(offset)));
+			final ResultsWrapper<T> wrapper = getObjectsListNoPaging(objectClass, newParams);
+			result.addAll(wrapper.getResults());
+			totalObjectsFoundOnServer = wrapper.getTotalFoundOnServer();
+			if (!wrapper.hasSomeResults()) {
+				break;
+			}
+			offset += wrapper.getResultsNumber();
+		} while (offset < totalObjectsFoundOnServer);
+		return result;
+	}
+
+	@Override
+	public <T> List<T> getObjectsList(final Class<T> objectClass, final NameValuePair... params)
+			throws RedmineException {
+		return getObjectsList(objectClass, Arrays.asList(params));
+	}
+
+	@Override
+	public <T> ResultsWrapper<T> getObjectsListNoPaging(final Class<T> objectClass,
+			final Collection<? extends NameValuePair> params) throws RedmineException {
+		int limit = DEFAULT_OBJECTS_PER_PAGE;
+		int offset = 0;
+		for (final NameValuePair param : params) {
+			if ("limit".equals(param.getName())) {
+				limit = Integer.parseInt(param.getValue());
+			} else if ("offset".equals(param.getName())) {
+				offset = Integer.parseInt(param.getValue());
+			}
+		}
+		final List<T> page = new ArrayList<T>();
+		int total = 0;
+		for (final Map.Entry<Integer, Object> entry : getObjects(objectClass).entrySet()) {
+			if (!matches(entry.getValue(), params)) {
+				continue;
+			}
+			if (total >= offset && page.size() < limit) {
+				page.add(objectClass.cast(BeanCopier.copy(entry.getValue(), entry.getKey())));
+			}
+			total++;
+		}
+		return new ResultsWrapper<T>(total, page);
+	}
+
+	@Override
+	public RequestContext getContext() {
+		return context;
+	}
+
+	@Override
+	public InMemoryTransport withContext(final RequestContext context) {
+		return new InMemoryTransport(this, context);
+	}
+
+	@Override
+	public synchronized void setCredentials(final String login, final String password) {
+		context = context.withCredentials(login, password);
+	}
+
+	@Override
+	public synchronized void setLogin(final String login) {
+		context = context.withCredentials(login, context.getPassword());
+	}
+
+	@Override
+	public synchronized void setObjectsPerPage(final int pageSize) {
+		context = context.withObjectsPerPage(pageSize);
+	}
+
+	@Override
+	public synchronized void setOnBehalfOfUser(final String loginName) {
+		context = context.withOnBehalfOfUser(loginName);
+	}
+
+	@Override
+	public synchronized void setPassword(final String password) {
+		context = context.withCredentials(context.getLogin(), password);
+	}
+
+	@Override
+	public <T extends Identifiable> void updateObject(final T obj, final NameValuePair... params)
+			throws RedmineException {
+		final Integer id = obj.getId();
+		if (id == null) {
+			throw new RuntimeException("'id' field cannot be NULL in the given object:" +
+					" it is required to identify the object in the target system");
+		}
+		final Object previous = getObjects(obj.getClass()).get(id);
+		if (previous == null) {
+			throw notFound(obj.getClass(), id.toString());
+		}
+		final T stored = BeanCopier.copy(obj, id);
+		BeanCopier.setField(stored, "createdOn", BeanCopier.getField(previous, "createdOn"));
+		BeanCopier.setField(stored, "updatedOn", new Date());
+		if (getObjects(obj.getClass()).replace(id, stored) == null) {
+			throw notFound(obj.getClass(), id.toString());
+		}
+	}
+
+	@Override
+	public String upload(final InputStream content) throws RedmineException {
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		final byte[] chunk = new byte[4096];
+		int readed;
+		try {
+			while ((readed = content.read(chunk)) > 0) {
+				buffer.write(chunk, 0, readed);
+			}
+		} catch (final IOException e) {
+			throw new RedmineCommunicationException(e);
+		}
+		final String token = UUID.randomUUID().toString();
+		contents.put(token, buffer.toByteArray());
+		return token;
+	}
+
+	private <T> T store(final T object, final Integer id) {
+		final T stored = BeanCopier.copy(object, id);
+		final Date now = new Date();
+		BeanCopier.setField(stored, "createdOn", now);
+		BeanCopier.setField(stored, "updatedOn", now);
+		getObjects(object.getClass()).put(id, stored);
+		return stored;
+	}
+
+	private Integer nextId() {
+		return idSequence.incrementAndGet();
+	}
+
+	/**
+	 * Makes sure generated ids never clash with the given one.
+	 */
+	private void advanceSequence(final int id) {
+		int current;
+		do {
+			current = idSequence.get();
+		} while (current < id && !idSequence.compareAndSet(current, id));
+	}
+
+	private ConcurrentNavigableMap<Integer, Object> getObjects(final Class<?> classs) {
+		final ConcurrentNavigableMap<Integer, Object> guess = objects.get(classs);
+		if (guess != null) {
+			return guess;
+		}
+		objects.putIfAbsent(classs, new ConcurrentSkipListMap<Integer, Object>());
+		return objects.get(classs);
+	}
+
+	private Set<Integer> getChildren(final ChildKey key) {
+		final Set<Integer> guess = children.get(key);
+		if (guess != null) {
+			return guess;
+		}
+		children.putIfAbsent(key, new ConcurrentSkipListSet<Integer>());
+		return children.get(key);
+	}
+
+	/**
+	 * Converts an object key (database id, project identifier or group name)
+	 * to the database id.
+	 */
+	private Integer resolveKey(final Class<?> classs, final String key) throws NotFoundException {
+		final Integer id = findKey(classs, key);
+		if (id == null) {
+			throw notFound(classs, key);
+		}
+		return id;
+	}
+
+	/**
+	 * @return database id of the object with the id or key, null if there is
+	 *         no object with the key.
+	 */
+	private Integer findKey(final Class<?> classs, final String key) {
+		try {
+			return Integer.valueOf(key);
+		} catch (final NumberFormatException e) {
+			// not a database id, search by identifier below
+		}
+		for (final Map.Entry<Integer, Object> entry : getObjects(classs).entrySet()) {
+			final Object value = entry.getValue();
+			if (value instanceof Project && key.equals(((Project) value).getIdentifier())
+					|| value instanceof Group && key.equals(((Group) value).getName())) {
+				return entry.getKey();
+			}
+		}
+		return null;
+	}
+
+	private static NotFoundException notFound(final Class<?> classs, final String key) {
+		return new NotFoundException("Object " + classs.getSimpleName() + " " + key + " is not found");
+	}
+
+	private static boolean isIncluded(final Include include, final Collection<? extends NameValuePair> params) {
+		for (final NameValuePair param : params) {
+			if ("include".equals(param.getName()) && param.getValue() != null
+					&& Arrays.asList(param.getValue().split(",")).contains(include.toString())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks an object against the supported list filters.
+	 */
+	private boolean matches(final Object object, final Collection<? extends NameValuePair> params) {
+		for (final NameValuePair param : params) {
+			final String name = param.getName();
+			if ("issue_id".equals(name)) {
+				final Object value = object instanceof Issue ? ((Issue) object).getId()
+						: BeanCopier.getField(object, "issueId");
+				if (param.getValue().startsWith(">=")) {
+					if (value == null || (Integer) value < Integer.parseInt(param.getValue().substring(2))) {
+						return false;
+					}
+				} else if (!isOneOf(value, param.getValue())) {
+					return false;
+				}
+			} else if ("project_id".equals(name)) {
+				if (!matchesProject(object, param.getValue())) {
+					return false;
+				}
+			} else if ("subject".equals(name) && object instanceof Issue) {
+				if (!param.getValue().equals(((Issue) object).getSubject())) {
+					return false;
+				}
+			} else if ("created_on".equals(name)) {
+				if (!matchesDate(BeanCopier.getField(object, "createdOn"), param.getValue())) {
+					return false;
+				}
+			} else if ("updated_on".equals(name)) {
+				if (!matchesDate(BeanCopier.getField(object, "updatedOn"), param.getValue())) {
+					return false;
+				}
+			} else if ("spent_on".equals(name)) {
+				if (!matchesDate(BeanCopier.getField(object, "spentOn"), param.getValue())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean matchesProject(final Object object, final String filter) {
+		final StringBuilder ids = new StringBuilder();
+		for (final String key : filter.split(",")) {
+			try {
+				ids.append(resolveKey(Project.class, key)).append(',');
+			} catch (final NotFoundException e) {
+				// unknown project matches nothing
+			}
+		}
+		final Object project = BeanCopier.getField(object, "project");
+		if (project instanceof Project) {
+			return isOneOf(((Project) project).getId(), ids.toString());
+		}
+		return isOneOf(BeanCopier.getField(object, "projectId"), ids.toString());
+	}
+
+	/**
+	 * Compares a date with a day filter, both bounds are inclusive.
+	 */
+	private static boolean matchesDate(final Object value, final String filter) {
+		if (!(value instanceof Date)) {
+			return false;
+		}
+		final Date date = (Date) value;
+		if (filter.startsWith("><")) {
+			final String[] bounds = filter.substring(2).split("\\|");
+			return compareDate(date, bounds[0]) >= 0 && compareDate(date, bounds[1]) <= 0;
+		} else if (filter.startsWith(">=")) {
+			return compareDate(date, filter.substring(2)) >= 0;
+		} else if (filter.startsWith("<=")) {
+			return compareDate(date, filter.substring(2)) <= 0;
+		}
+		return compareDate(date, filter) == 0;
+	}
+
+	/**
+	 * Compares a date with a filter bound, a day like "2015-01-31" or a UTC
+	 * timestamp like "2015-01-31T10:00:00Z".
+	 */
+	private static int compareDate(final Date date, final String bound) {
+		if (bound.length() <= SHORT_DATE_LENGTH) {
+			return RedmineDateParser.SHORT_DATE_FORMAT_V2.get().format(date).compareTo(bound);
+		}
+		final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		try {
+			final long boundTime = format.parse(bound).getTime();
+			final long seconds = date.getTime() / 1000 * 1000;
+			return seconds < boundTime ? -1 : seconds == boundTime ? 0 : 1;
+		} catch (final ParseException e) {
+			throw new IllegalArgumentException("Bad date filter " + bound, e);
+		}
+	}
+
+	private static boolean isOneOf(final Object value, final String filter) {
+		if (value == null || filter == null) {
+			return false;
+		}
+		final Set<String> values = new HashSet<String>(Arrays.asList(filter.split(",")));
+		return values.contains(value.toString());
+	}
+}
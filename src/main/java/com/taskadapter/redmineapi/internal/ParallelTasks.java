@@ -0,0 +1,272 @@
+package com.taskadapter.redmineapi.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.taskadapter.redmineapi.BulkItemResult;
+import com.taskadapter.redmineapi.BulkProgressListener;
+import com.taskadapter.redmineapi.BulkResult;
+import com.taskadapter.redmineapi.ITransport;
+import com.taskadapter.redmineapi.NotFoundException;
+import com.taskadapter.redmineapi.RedmineCommunicationException;
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RedmineInternalError;
+import com.taskadapter.redmineapi.bean.Identifiable;
+
+/**
+ * Runs Redmine requests in parallel with a bounded number of tasks in flight.
+ * No more than "parallelism" tasks are submitted at a time, so the same
+ * executor may be shared by several bulk operations.
+ */
+public final class ParallelTasks {
+	/** Parallelism used by bulk operations when nothing else is specified. */
+	public static final int DEFAULT_PARALLELISM = 4;
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelTasks.class);
+
+	private static final ThreadFactory DAEMON_THREADS = new ThreadFactory() {
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(final Runnable r) {
+			final Thread thread = new Thread(r, "redmine-bulk-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
+
+	/**
+	 * Creates executors for bulk and fan-out operations.
+	 */
+	public interface ExecutorFactory {
+		/**
+		 * @param threads maximal number of tasks which will run at the same
+		 *            time.
+		 * @return executor, shut down by the caller when no longer needed.
+		 */
+		ExecutorService newExecutor(int threads);
+	}
+
+	private static final ExecutorFactory PLATFORM_THREADS = new ExecutorFactory() {
+		@Override
+		public ExecutorService newExecutor(final int threads) {
+			return Executors.newFixedThreadPool(threads, DAEMON_THREADS);
+		}
+	};
+
+	private static volatile ExecutorFactory executorFactory = PLATFORM_THREADS;
+
+	/**
+	 * Operation applied to each item of a bulk operation.
+	 */
+	public interface ItemTask<T> {
+		/**
+		 * @return operation result to report for the item.
+		 */
+		T process(T item) throws RedmineException;
+	}
+
+	private ParallelTasks() {
+	}
+
+	/**
+	 * Applies the task to each item. Exceptions of the task, including
+	 * runtime exceptions, are reported as item failures and do not stop other
+	 * items. Exceptions of the listener are logged.
+	 *
+	 * @param listener progress listener, may be null.
+	 */
+	public static <T> BulkResult<T> forEach(final Collection<? extends T> items, final int parallelism,
+			final ItemTask<T> task, final BulkProgressListener<T> listener) throws RedmineException {
+		final int total = items.size();
+		final AtomicInteger completed = new AtomicInteger();
+		final List<Callable<BulkItemResult<T>>> tasks = new ArrayList<Callable<BulkItemResult<T>>>(total);
+		int index = 0;
+		for (final T item : items) {
+			final int itemIndex = index++;
+			tasks.add(new Callable<BulkItemResult<T>>() {
+				@Override
+				public BulkItemResult<T> call() {
+					BulkItemResult<T> result;
+					try {
+						result = BulkItemResult.success(itemIndex, item, task.process(item));
+					} catch (final RedmineException e) {
+						result = BulkItemResult.failure(itemIndex, item, e);
+					} catch (final RuntimeException e) {
+						// invalid item, like an object without id
+						result = BulkItemResult.failure(itemIndex, item,
+								new RedmineException("Cannot process item " + itemIndex + ": " + e.getMessage(), e));
+					}
+					final int done = completed.incrementAndGet();
+					if (listener != null) {
+						try {
+							listener.onItemCompleted(result, done, total);
+						} catch (final RuntimeException e) {
+							logger.warn("Bulk progress listener failed on item " + itemIndex, e);
+						}
+					}
+					return result;
+				}
+			});
+		}
+		return new BulkResult<T>(invokeAll(tasks, parallelism));
+	}
+
+	/**
+	 * Deletes objects by keys. Objects which are not found are considered as
+	 * already deleted.
+	 *
+	 * @return deleted keys and failures.
+	 */
+	public static <K> BulkResult<K> deleteAll(final ITransport transport,
+			final Class<? extends Identifiable> objectClass, final Collection<K> keys, final int parallelism)
+			throws RedmineException {
+		return forEach(keys, parallelism, new ItemTask<K>() {
+			@Override
+			public K process(final K key) throws RedmineException {
+				try {
+					transport.deleteObject(objectClass, key.toString());
+				} catch (final NotFoundException e) {
+					// already deleted
+				}
+				return key;
+			}
+		}, null);
+	}
+
+	/**
+	 * Runs tasks on a temporary thread pool.
+	 *
+	 * @return task results in the order of tasks.
+	 * @throws RedmineException the first exception thrown by a task. Other
+	 *             tasks are cancelled.
+	 */
+	public static <T> List<T> invokeAll(final List<? extends Callable<T>> tasks, final int parallelism)
+			throws RedmineException {
+		checkParallelism(parallelism);
+		if (tasks.size() <= 1 || parallelism == 1) {
+			return invokeSequentially(tasks);
+		}
+		final ExecutorService executor = newExecutor(Math.min(parallelism, tasks.size()));
+		try {
+			return invokeAll(tasks, parallelism, executor);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Creates an executor for a temporary use, a fixed pool of daemon threads
+	 * unless another factory is set. Shut it down when it is no longer needed.
+	 */
+	public static ExecutorService newExecutor(final int threads) {
+		return executorFactory.newExecutor(threads);
+	}
+
+	/**
+	 * Sets the factory of executors used by bulk operations, batch lookups,
+	 * windowed scans and federated queries. The number of tasks in flight is
+	 * still limited by the "parallelism" of each operation.
+	 *
+	 * @param factory executor factory, null to restore fixed thread pools.
+	 */
+	public static void setExecutorFactory(final ExecutorFactory factory) {
+		executorFactory = factory == null ? PLATFORM_THREADS : factory;
+	}
+
+	/**
+	 * Runs tasks on the given executor.
+	 *
+	 * @return task results in the order of tasks.
+	 * @throws RedmineException the first exception thrown by a task. Other
+	 *             tasks are cancelled.
+	 */
+	public static <T> List<T> invokeAll(final List<? extends Callable<T>> tasks, final int parallelism,
+			final ExecutorService executor) throws RedmineException {
+		checkParallelism(parallelism);
+		final CompletionService<Integer> completion = new ExecutorCompletionService<Integer>(executor);
+		final List<Future<Integer>> futures = new ArrayList<Future<Integer>>(tasks.size());
+		@SuppressWarnings("unchecked")
+		final T[] results = (T[]) new Object[tasks.size()];
+		int submitted = 0;
+		try {
+			while (submitted < tasks.size() && submitted < parallelism) {
+				futures.add(completion.submit(indexed(tasks, submitted++, results)));
+			}
+			for (int completed = 0; completed < tasks.size(); completed++) {
+				completion.take().get();
+				if (submitted < tasks.size()) {
+					futures.add(completion.submit(indexed(tasks, submitted++, results)));
+				}
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RedmineCommunicationException("Interrupted while waiting for parallel requests", e);
+		} catch (final ExecutionException e) {
+			throw unwrap(e.getCause());
+		} finally {
+			for (final Future<Integer> future : futures) {
+				future.cancel(true);
+			}
+		}
+		return Arrays.asList(results);
+	}
+
+	private static void checkParallelism(final int parallelism) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism must be positive. You provided: " + parallelism);
+		}
+	}
+
+	private static <T> List<T> invokeSequentially(final List<? extends Callable<T>> tasks)
+			throws RedmineException {
+		final List<T> results = new ArrayList<T>(tasks.size());
+		for (final Callable<T> task : tasks) {
+			try {
+				results.add(task.call());
+			} catch (final Exception e) {
+				throw unwrap(e);
+			}
+		}
+		return results;
+	}
+
+	private static <T> Callable<Integer> indexed(final List<? extends Callable<T>> tasks, final int index,
+			final T[] results) {
+		final Callable<T> task = tasks.get(index);
+		return new Callable<Integer>() {
+			@Override
+			public Integer call() throws Exception {
+				results[index] = task.call();
+				return index;
+			}
+		};
+	}
+
+	private static RedmineException unwrap(final Throwable cause) {
+		if (cause instanceof RedmineException) {
+			return (RedmineException) cause;
+		}
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		throw new RedmineInternalError(cause);
+	}
+}
@@ -3,17 +3,21 @@ package com.taskadapter.redmineapi.internal;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.codec.binary.Base64;
 import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
@@ -31,11 +35,15 @@ import org.json.JSONWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.taskadapter.redmineapi.EntityCache;
 import com.taskadapter.redmineapi.ITransport;
+import com.taskadapter.redmineapi.NotFoundException;
+import com.taskadapter.redmineapi.PageSizeTuner;
 import com.taskadapter.redmineapi.RedmineException;
 import com.taskadapter.redmineapi.RedmineFormatException;
 import com.taskadapter.redmineapi.RedmineInternalError;
 import com.taskadapter.redmineapi.RedmineManager;
+import com.taskadapter.redmineapi.RequestContext;
 import com.taskadapter.redmineapi.bean.CustomFieldDefinition;
 import com.taskadapter.redmineapi.bean.Group;
 import com.taskadapter.redmineapi.bean.Identifiable;
@@ -63,7 +71,6 @@ import com.taskadapter.redmineapi.internal.comm.Communicator;
 import com.taskadapter.redmineapi.internal.comm.Communicators;
 import com.taskadapter.redmineapi.internal.comm.ContentHandler;
 import com.taskadapter.redmineapi.internal.comm.SimpleCommunicator;
-import com.taskadapter.redmineapi.internal.comm.redmine.RedmineAuthenticator;
 import com.taskadapter.redmineapi.internal.comm.redmine.RedmineErrorHandler;
 import com.taskadapter.redmineapi.internal.json.JsonInput;
 import com.taskadapter.redmineapi.internal.json.JsonObjectParser;
@@ -207,6 +214,23 @@ public final class Transport implements ITransport {
 	}
 	private static final String CHARSET = "UTF-8";
 	
+	private static final ContentHandler<BasicHttpResponse, BasicHttpResponse> ERROR_HANDLER = new RedmineErrorHandler();
+	
+	/**
+	 * Reads response content, answers null for "404 not found" without
+	 * reading the error page.
+	 */
+	private static final ContentHandler<BasicHttpResponse, String> NOT_FOUND_AS_NULL =
+			new ContentHandler<BasicHttpResponse, String>() {
+				@Override
+				public String processContent(final BasicHttpResponse content) throws RedmineException {
+					if (content.getResponseCode() == HttpStatus.SC_NOT_FOUND) {
+						return null;
+					}
+					return Communicators.contentReader().processContent(ERROR_HANDLER.processContent(content));
+				}
+			};
+	
 	private static <T> EntityConfig<T> config(final String objectField,
 			final String urlPrefix, final JsonObjectWriter<T> writer,
 			final JsonObjectParser<T> parser) {
@@ -239,51 +263,122 @@ public final class Transport implements ITransport {
 	private final Logger logger = LoggerFactory.getLogger(RedmineManager.class);
 	private final SimpleCommunicator<String> communicator;
 	private final Communicator<BasicHttpResponse> errorCheckingCommunicator;
+	/** Communicator decoding responses without error checks. */
+	private final Communicator<BasicHttpResponse> decodingCommunicator;
 	
-	private final RedmineAuthenticator<HttpResponse> authenticator;
+	/**
+	 * Request context with values derived from it. Replaced as a whole, so a
+	 * request always sees a consistent set of values.
+	 */
+	private static final class RequestState {
+		final RequestContext context;
+		final URIConfigurator configurator;
+		final String authorization;
+		/** Server and credentials, entity cache entries are not shared between scopes. */
+		final String cacheScope;
+
+		RequestState(final RequestContext context, final URIConfigurator baseConfigurator) {
+			this.context = context;
+			this.configurator = context.getApiKey() == null ? baseConfigurator
+					: baseConfigurator.withApiAccessKey(context.getApiKey());
+			this.authorization = context.getLogin() == null ? null
+					: createAuthKey(context.getLogin(), context.getPassword());
+			this.cacheScope = configurator.getServerURI() + '|' + configurator.getApiAccessKey() + '|'
+					+ authorization + '|' + context.getOnBehalfOfUser();
+		}
+	}
 	
-	private String onBehalfOfUser = null;
+	/**
+	 * Creates a value of the "Authorization" header for HTTP Basic
+	 * authentication.
+	 */
+	private static String createAuthKey(final String login, final String password) {
+		try {
+			return "Basic " + Base64.encodeBase64String((login + ':' + password).getBytes(CHARSET)).trim();
+		} catch (final UnsupportedEncodingException e) {
+			throw new RedmineInternalError(e);
+		}
+	}
 	
-	private final URIConfigurator configurator;
+	private final URIConfigurator baseConfigurator;
 	
-	private String login;
+	private volatile RequestState state;
 	
-	private String password;
+	private volatile PageSizeTuner pageSizeTuner;
 	
-	private int objectsPerPage = DEFAULT_OBJECTS_PER_PAGE;
+	private volatile EntityCache entityCache;
 	private final CloseableHttpClient	client;
 	
+	/**
+	 * True if this transport closes the client, false for context views.
+	 */
+	private final boolean ownsClient;
+	
 	public Transport(final URIConfigurator configurator, final CloseableHttpClient client) {
-		this.configurator = configurator;
+		this(configurator, client, new BaseCommunicator(client));
+	}
+	
+	/**
+	 * Creates a transport sending requests through the given communicator.
+	 * Use it to decorate plain HTTP communication (see {@link Communicators#retrying}).
+	 *
+	 * @param client
+	 *            http client, closed together with this transport. May be null
+	 *            if the communicator does not use an Apache http client.
+	 * @param baseCommunicator
+	 *            communicator executing requests with the client.
+	 */
+	public Transport(final URIConfigurator configurator, final CloseableHttpClient client,
+			final Communicator<HttpResponse> baseCommunicator) {
+		this.baseConfigurator = configurator;
 		this.client = client;
-		final Communicator<HttpResponse> baseCommunicator = new BaseCommunicator(client);
-		authenticator = new RedmineAuthenticator<HttpResponse>(
-				baseCommunicator, CHARSET);
-		final ContentHandler<BasicHttpResponse, BasicHttpResponse> errorProcessor = new RedmineErrorHandler();
-		errorCheckingCommunicator = Communicators.fmap(
-				authenticator,
-				Communicators.compose(errorProcessor,
-						Communicators.transportDecoder()));
+		this.ownsClient = true;
+		this.state = new RequestState(RequestContext.create(), configurator);
+		decodingCommunicator = Communicators.fmap(baseCommunicator, Communicators.transportDecoder());
+		errorCheckingCommunicator = Communicators.fmap(decodingCommunicator, ERROR_HANDLER);
 		final Communicator<String> coreCommunicator = Communicators.fmap(errorCheckingCommunicator,
 				Communicators.contentReader());
 		communicator = Communicators.simplify(coreCommunicator,
 				Communicators.<String>identityHandler());
 	}
 	
+	/**
+	 * Creates a view of the parent transport with another request context.
+	 */
+	private Transport(final Transport parent, final RequestContext context) {
+		this.baseConfigurator = parent.baseConfigurator;
+		this.client = parent.client;
+		this.ownsClient = false;
+		this.state = new RequestState(context, baseConfigurator);
+		this.pageSizeTuner = parent.pageSizeTuner;
+		this.entityCache = parent.entityCache;
+		this.errorCheckingCommunicator = parent.errorCheckingCommunicator;
+		this.decodingCommunicator = parent.decodingCommunicator;
+		this.communicator = parent.communicator;
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.taskadapter.redmineapi.internal.ITransport#addChildEntry(java.lang.Class, java.lang.String, T, org.apache.http.NameValuePair)
 	 */
 	@Override
 	public <T> T addChildEntry(final Class<?> parentClass, final String parentId, final T object,
 			final NameValuePair... params) throws RedmineException {
+		final RequestState requestState = state;
 		final EntityConfig<T> config = getConfig(object.getClass());
-		final URI uri = getURIConfigurator().getChildObjectsURI(parentClass,
+		final URI uri = requestState.configurator.getChildObjectsURI(parentClass,
 				parentId, object.getClass(), params);
 		final HttpPost httpPost = new HttpPost(uri);
 		final String body = RedmineJSONBuilder.toSimpleJSON(config.singleObjectName,
 				object, config.writer);
 		setEntity(httpPost, body);
-		final String response = send(httpPost);
+		invalidateCached(parentClass, parentId);
+		final String response;
+		try {
+			response = send(httpPost, requestState);
+		} finally {
+			invalidateCached(parentClass, parentId);
+			invalidateMissing(object.getClass());
+		}
 		logger.debug(response);
 		return parseResponse(response, config.singleObjectName, config.parser);
 	}
@@ -294,15 +389,21 @@ public final class Transport implements ITransport {
 	@Override
 	public <T> T addObject(final T object, final NameValuePair... params)
 			throws RedmineException {
+		final RequestState requestState = state;
 		final EntityConfig<T> config = getConfig(object.getClass());
 		if (config.writer == null) {
 			throw new RuntimeException("can't create object: writer is not implemented or is not registered in RedmineJSONBuilder for object " + object);
 		}
-		final URI uri = getURIConfigurator().getObjectsURI(object.getClass(), params);
+		final URI uri = requestState.configurator.getObjectsURI(object.getClass(), params);
 		final HttpPost httpPost = new HttpPost(uri);
 		final String body = RedmineJSONBuilder.toSimpleJSON(config.singleObjectName, object, config.writer);
 		setEntity(httpPost, body);
-		final String response = send(httpPost);
+		final String response;
+		try {
+			response = send(httpPost, requestState);
+		} finally {
+			invalidateMissing(object.getClass());
+		}
 		logger.debug(response);
 		return parseResponse(response, config.singleObjectName, config.parser);
 	}
@@ -312,8 +413,9 @@ public final class Transport implements ITransport {
 	 */
 	@Override
 	public void addUserToGroup(final int userId, final int groupId) throws RedmineException {
+		final RequestState requestState = state;
 		logger.debug("adding user " + userId + " to group " + groupId + "...");
-		final URI uri = getURIConfigurator().getChildObjectsURI(Group.class, Integer.toString(groupId), User.class);
+		final URI uri = requestState.configurator.getChildObjectsURI(Group.class, Integer.toString(groupId), User.class);
 		final HttpPost httpPost = new HttpPost(uri);
 		final StringWriter writer = new StringWriter();
 		final JSONWriter jsonWriter = new JSONWriter(writer);
@@ -324,7 +426,15 @@ public final class Transport implements ITransport {
 		}
 		final String body = writer.toString();
 		setEntity(httpPost, body);
-		final String response = send(httpPost);
+		invalidateCached(User.class, Integer.toString(userId));
+		invalidateCached(Group.class, Integer.toString(groupId));
+		final String response;
+		try {
+			response = send(httpPost, requestState);
+		} finally {
+			invalidateCached(User.class, Integer.toString(userId));
+			invalidateCached(Group.class, Integer.toString(groupId));
+		}
 		logger.debug(response);
 	}
 	
@@ -333,8 +443,9 @@ public final class Transport implements ITransport {
 	 */
 	@Override
 	public void addWatcherToIssue(final int watcherId, final int issueId) throws RedmineException {
+		final RequestState requestState = state;
 		logger.debug("adding watcher " + watcherId + " to issue " + issueId + "...");
-		final URI uri = getURIConfigurator().getChildObjectsURI(Issue.class, Integer.toString(issueId), Watcher.class);
+		final URI uri = requestState.configurator.getChildObjectsURI(Issue.class, Integer.toString(issueId), Watcher.class);
 		final HttpPost httpPost = new HttpPost(uri);
 		final StringWriter writer = new StringWriter();
 		final JSONWriter jsonWriter = new JSONWriter(writer);
@@ -345,13 +456,25 @@ public final class Transport implements ITransport {
 		}
 		final String body = writer.toString();
 		setEntity(httpPost, body);
-		final String response = send(httpPost);
+		invalidateCached(Issue.class, Integer.toString(issueId));
+		final String response;
+		try {
+			response = send(httpPost, requestState);
+		} finally {
+			invalidateCached(Issue.class, Integer.toString(issueId));
+		}
 		logger.debug(response);
 	}
 	
+	/**
+	 * Closes the http client, if any. Context views do nothing, the client is
+	 * closed by the transport which created it.
+	 */
 	@Override
 	public void close() throws IOException {
-		client.close();
+		if (ownsClient && client != null) {
+			client.close();
+		}
 	}
 	
 	/* (non-Javadoc)
@@ -359,9 +482,16 @@ public final class Transport implements ITransport {
 	 */
 	@Override
 	public <T> void deleteChildId(final Class<?> parentClass, final String parentId, final T object, final Integer value) throws RedmineException {
-		final URI uri = getURIConfigurator().getChildIdURI(parentClass, parentId, object.getClass(), value);
+		final RequestState requestState = state;
+		final URI uri = requestState.configurator.getChildIdURI(parentClass, parentId, object.getClass(), value);
 		final HttpDelete httpDelete = new HttpDelete(uri);
-		final String response = send(httpDelete);
+		invalidateCached(parentClass, parentId);
+		final String response;
+		try {
+			response = send(httpDelete, requestState);
+		} finally {
+			invalidateCached(parentClass, parentId);
+		}
 		logger.debug(response);
 	}
 	
@@ -371,9 +501,15 @@ public final class Transport implements ITransport {
 	@Override
 	public <T extends Identifiable> void deleteObject(final Class<T> classs, final String id)
 			throws RedmineException {
-		final URI uri = getURIConfigurator().getObjectURI(classs, id);
+		final RequestState requestState = state;
+		final URI uri = requestState.configurator.getObjectURI(classs, id);
 		final HttpDelete http = new HttpDelete(uri);
-		send(http);
+		invalidateCached(classs, id);
+		try {
+			send(http, requestState);
+		} finally {
+			invalidateCached(classs, id);
+		}
 	}
 	
 	/* (non-Javadoc)
@@ -384,9 +520,7 @@ public final class Transport implements ITransport {
 			final ContentHandler<BasicHttpResponse, R> handler)
 					throws RedmineException {
 		final HttpGet request = new HttpGet(uri);
-		if (onBehalfOfUser != null) {
-			request.addHeader("X-Redmine-Switch-User", onBehalfOfUser);
-		}
+		addContextHeaders(request, state);
 		return errorCheckingCommunicator.sendRequest(request, handler);
 	}
 	
@@ -403,12 +537,13 @@ public final class Transport implements ITransport {
 	 */
 	@Override
 	public <T> List<T> getChildEntries(final Class<?> parentClass, final String parentKey, final Class<T> classs) throws RedmineException {
+		final RequestState requestState = state;
 		final EntityConfig<T> config = getConfig(classs);
-		final URI uri = getURIConfigurator().getChildObjectsURI(parentClass,
-				parentKey, classs, new BasicNameValuePair("limit", String.valueOf(objectsPerPage)));
+		final URI uri = requestState.configurator.getChildObjectsURI(parentClass,
+				parentKey, classs, new BasicNameValuePair("limit", String.valueOf(getObjectsPerPage(requestState.context))));
 		
 		final HttpGet http = new HttpGet(uri);
-		final String response = send(http);
+		final String response = send(http, requestState);
 		final JSONObject responseObject;
 		try {
 			responseObject = RedmineJSONParser.getResponse(response);
@@ -424,10 +559,11 @@ public final class Transport implements ITransport {
 	@Override
 	public <T> T getChildEntry(final Class<?> parentClass, final String parentId,
 			final Class<T> classs, final String childId, final NameValuePair... params) throws RedmineException {
+		final RequestState requestState = state;
 		final EntityConfig<T> config = getConfig(classs);
-		final URI uri = getURIConfigurator().getChildIdURI(parentClass, parentId, classs, childId, params);
+		final URI uri = requestState.configurator.getChildIdURI(parentClass, parentId, classs, childId, params);
 		final HttpGet http = new HttpGet(uri);
-		final String response = send(http);
+		final String response = send(http, requestState);
 		
 		return parseResponse(response, config.singleObjectName, config.parser);
 	}
@@ -437,9 +573,10 @@ public final class Transport implements ITransport {
 	 */
 	@Override
 	public User getCurrentUser(final NameValuePair... params) throws RedmineException {
-		final URI uri = getURIConfigurator().createURI("users/current.json", params);
+		final RequestState requestState = state;
+		final URI uri = requestState.configurator.createURI("users/current.json", params);
 		final HttpGet http = new HttpGet(uri);
-		final String response = send(http);
+		final String response = send(http, requestState);
 		return parseResponse(response, "user", RedmineJSONParser.USER_PARSER);
 	}
 
@@ -457,12 +594,123 @@ public final class Transport implements ITransport {
 	@Override
 	public <T> T getObject(final Class<T> classs, final String key, final NameValuePair... args)
 			throws RedmineException {
+		return loadObject(classs, key, args, false);
+	}
+	
+	@Override
+	public <T> T findObject(final Class<T> classs, final Integer key, final NameValuePair... args)
+			throws RedmineException {
+		return findObject(classs, key.toString(), args);
+	}
+	
+	@Override
+	public <T> T findObject(final Class<T> classs, final String key, final NameValuePair... args)
+			throws RedmineException {
+		return loadObject(classs, key, args, true);
+	}
+	
+	/**
+	 * @param orNull true to return null for missing objects, false to throw
+	 *            {@link NotFoundException}.
+	 */
+	private <T> T loadObject(final Class<T> classs, final String key, final NameValuePair[] args,
+			final boolean orNull) throws RedmineException {
 		final EntityConfig<T> config = getConfig(classs);
-		final URI uri = getURIConfigurator().getObjectURI(classs, key, args);
+		final RequestState requestState = state;
+		final EntityCache cache = entityCache;
+		final String variant = cache == null ? null : getCacheVariant(requestState, args);
+		if (cache != null) {
+			final String cached = cache.get(classs, key, variant);
+			if (cached != null) {
+				return parseResponse(cached, config.singleObjectName, config.parser);
+			}
+			if (cache.isMissing(classs, key, variant)) {
+				if (orNull) {
+					return null;
+				}
+				throw new NotFoundException("Object " + classs.getSimpleName() + " " + key
+						+ " was not found by a recent request");
+			}
+		}
+		final URI uri = requestState.configurator.getObjectURI(classs, key, args);
 		final HttpGet http = new HttpGet(uri);
-		final String response = send(http);
+		final String response;
+		try {
+			response = orNull ? sendOrNull(http, requestState) : send(http, requestState);
+		} catch (final NotFoundException e) {
+			if (cache != null) {
+				cache.putMissing(classs, key, variant);
+			}
+			throw e;
+		}
+		if (response == null) {
+			if (cache != null) {
+				cache.putMissing(classs, key, variant);
+			}
+			return null;
+		}
 		logger.debug(response);
-		return parseResponse(response, config.singleObjectName, config.parser);
+		final T result = parseResponse(response, config.singleObjectName, config.parser);
+		if (cache != null) {
+			final Integer objectId = result instanceof Identifiable ? ((Identifiable) result).getId() : null;
+			cache.put(classs, key, objectId, variant, response);
+		}
+		return result;
+	}
+	
+	/**
+	 * Builds the part of the entity cache key which is not the object id:
+	 * credentials and request parameters. Values of the "include" parameter
+	 * are sorted, so the same set of includes in any order gives the same key.
+	 */
+	private static String getCacheVariant(final RequestState requestState, final NameValuePair... args) {
+		final List<String> params = new ArrayList<String>(args.length);
+		for (final NameValuePair arg : args) {
+			String value = arg.getValue();
+			if ("include".equals(arg.getName()) && value != null) {
+				final String[] includes = value.split(",");
+				Arrays.sort(includes);
+				final StringBuilder sorted = new StringBuilder();
+				for (final String include : includes) {
+					if (sorted.length() > 0) {
+						sorted.append(',');
+					}
+					sorted.append(include.trim());
+				}
+				value = sorted.toString();
+			}
+			params.add(arg.getName() + '=' + value);
+		}
+		Collections.sort(params);
+		final StringBuilder result = new StringBuilder(requestState.cacheScope);
+		for (final String param : params) {
+			result.append('&').append(param);
+		}
+		return result.toString();
+	}
+	
+	/**
+	 * Forgets objects of the class which were not found, one of them may have
+	 * been created by this transport. Called when the create request is
+	 * finished, lookups running during the request may still find nothing.
+	 */
+	private void invalidateMissing(final Class<?> objectClass) {
+		final EntityCache cache = entityCache;
+		if (cache != null) {
+			cache.invalidateMissing(objectClass);
+		}
+	}
+	
+	/**
+	 * Drops cached copies of the object changed by this transport. Writes
+	 * call it before and after the request: reads running during the request
+	 * may cache the object as it was before the change.
+	 */
+	private void invalidateCached(final Class<?> objectClass, final String id) {
+		final EntityCache cache = entityCache;
+		if (cache != null) {
+			cache.invalidate(objectClass, id);
+		}
 	}
 	
 	/* (non-Javadoc)
@@ -471,16 +719,29 @@ public final class Transport implements ITransport {
 	@Override
 	public <T> List<T> getObjectsList(final Class<T> objectClass,
 			final Collection<? extends NameValuePair> params) throws RedmineException {
+		final RequestState requestState = state;
+		final EntityConfig<T> config = getConfig(objectClass);
+		final RequestContext context = requestState.context;
+		final PageSizeTuner tuner = context.getObjectsPerPage() == null ? pageSizeTuner : null;
+		final String include = tuner == null ? null : getParameter(params, "include");
 		final List<T> result = new ArrayList<T>();
 		int offset = 0;
 		
 		Integer totalObjectsFoundOnServer;
 		do {
+			final int limit = tuner == null ? getObjectsPerPage(context) : tuner.getPageSize(objectClass, include);
 			final List<NameValuePair> newParams = new ArrayList<NameValuePair>(params);
-			newParams.add(new BasicNameValuePair("limit", String.valueOf(objectsPerPage)));
+			newParams.add(new BasicNameValuePair("limit", String.valueOf(limit)));
 			newParams.add(new BasicNameValuePair("offset", String.valueOf(offset)));
 			
-			final ResultsWrapper<T> wrapper = getObjectsListNoPaging(objectClass, newParams);
+			final long start = System.nanoTime();
+			final URI uri = requestState.configurator.getObjectsURI(objectClass, newParams);
+			final String response = send(new HttpGet(uri), requestState);
+			final ResultsWrapper<T> wrapper = parseObjectsList(config, response);
+			if (tuner != null) {
+				tuner.onPage(objectClass, include, limit, offset, wrapper.getResultsNumber(),
+						wrapper.getTotalFoundOnServer(), response.length(), System.nanoTime() - start);
+			}
 			result.addAll(wrapper.getResults());
 			
 			totalObjectsFoundOnServer = wrapper.getTotalFoundOnServer();
@@ -511,12 +772,18 @@ public final class Transport implements ITransport {
 	@Override
 	public <T> ResultsWrapper<T> getObjectsListNoPaging(final Class<T> objectClass,
 			final Collection<? extends NameValuePair> params) throws RedmineException {
+		final RequestState requestState = state;
 		final EntityConfig<T> config = getConfig(objectClass);
 		final List<NameValuePair> newParams = new ArrayList<NameValuePair>(params);
 		final List<NameValuePair> paramsList = new ArrayList<NameValuePair>(newParams);
-		final URI uri = getURIConfigurator().getObjectsURI(objectClass, paramsList);
+		final URI uri = requestState.configurator.getObjectsURI(objectClass, paramsList);
 		final HttpGet http = new HttpGet(uri);
-		final String response = send(http);
+		final String response = send(http, requestState);
+		return parseObjectsList(config, response);
+	}
+	
+	private static <T> ResultsWrapper<T> parseObjectsList(final EntityConfig<T> config, final String response)
+			throws RedmineFormatException {
 		try {
 			final JSONObject responseObject = RedmineJSONParser.getResponse(response);
 			final List<T> results = JsonInput.getListOrNull(responseObject, config.multiObjectName, config.parser);
@@ -527,49 +794,98 @@ public final class Transport implements ITransport {
 		}
 	}
 	
+	private static String getParameter(final Collection<? extends NameValuePair> params, final String name) {
+		for (final NameValuePair param : params) {
+			if (name.equals(param.getName())) {
+				return param.getValue();
+			}
+		}
+		return null;
+	}
+	
+	@Override
+	public RequestContext getContext() {
+		return state.context;
+	}
+	
+	/**
+	 * Creates a transport sharing the http client and communicators of this
+	 * transport, but sending requests with the given context. Closing the
+	 * returned transport does not close the client.
+	 */
+	@Override
+	public Transport withContext(final RequestContext context) {
+		return new Transport(this, context);
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.taskadapter.redmineapi.internal.ITransport#setCredentials(java.lang.String, java.lang.String)
 	 */
 	@Override
-	public void setCredentials(final String login, final String password) {
-		this.login = login;
-		this.password = password;
-		authenticator.setCredentials(login, password);
+	public synchronized void setCredentials(final String login, final String password) {
+		setContext(state.context.withCredentials(login, password));
 	}
 	
 	/* (non-Javadoc)
 	 * @see com.taskadapter.redmineapi.internal.ITransport#setLogin(java.lang.String)
 	 */
 	@Override
-	public void setLogin(final String login) {
-		setCredentials(login, password);
+	public synchronized void setLogin(final String login) {
+		setCredentials(login, state.context.getPassword());
 	}
 	
 	/* (non-Javadoc)
 	 * @see com.taskadapter.redmineapi.internal.ITransport#setObjectsPerPage(int)
 	 */
 	@Override
-	public void setObjectsPerPage(final int pageSize) {
-		if (pageSize <= 0) {
-			throw new IllegalArgumentException("Page size must be >= 0. You provided: " + pageSize);
-		}
-		objectsPerPage = pageSize;
+	public synchronized void setObjectsPerPage(final int pageSize) {
+		setContext(state.context.withObjectsPerPage(pageSize));
+	}
+	
+	/**
+	 * Lets the tuner choose page sizes of {@link #getObjectsList} requests
+	 * unless the request context sets a fixed page size (see
+	 * {@link #setObjectsPerPage(int)}).
+	 *
+	 * @param tuner page size tuner, null to use the fixed page size.
+	 */
+	public void setPageSizeTuner(final PageSizeTuner tuner) {
+		pageSizeTuner = tuner;
+	}
+	
+	/**
+	 * Caches objects loaded by {@link #getObject}. Changes sent by this
+	 * transport and its context views invalidate cached objects.
+	 *
+	 * @param cache entity cache, null to disable caching.
+	 */
+	public void setEntityCache(final EntityCache cache) {
+		entityCache = cache;
 	}
 	
 	/* (non-Javadoc)
 	 * @see com.taskadapter.redmineapi.internal.ITransport#setOnBehalfOfUser(java.lang.String)
 	 */
 	@Override
-	public void setOnBehalfOfUser(final String loginName) {
-		onBehalfOfUser = loginName;
+	public synchronized void setOnBehalfOfUser(final String loginName) {
+		setContext(state.context.withOnBehalfOfUser(loginName));
 	}
 	
 	/* (non-Javadoc)
 	 * @see com.taskadapter.redmineapi.internal.ITransport#setPassword(java.lang.String)
 	 */
 	@Override
-	public void setPassword(final String password) {
-		setCredentials(login, password);
+	public synchronized void setPassword(final String password) {
+		setCredentials(state.context.getLogin(), password);
+	}
+	
+	private void setContext(final RequestContext context) {
+		state = new RequestState(context, baseConfigurator);
+	}
+	
+	private static int getObjectsPerPage(final RequestContext context) {
+		final Integer pageSize = context.getObjectsPerPage();
+		return pageSize == null ? DEFAULT_OBJECTS_PER_PAGE : pageSize;
 	}
 	
 	/*
@@ -584,19 +900,25 @@ public final class Transport implements ITransport {
 	@Override
 	public <T extends Identifiable> void updateObject(final T obj,
 			final NameValuePair... params) throws RedmineException {
+		final RequestState requestState = state;
 		final EntityConfig<T> config = getConfig(obj.getClass());
 		final Integer id = obj.getId();
 		if (id == null) {
 			throw new RuntimeException("'id' field cannot be NULL in the given object:" +
 					" it is required to identify the object in the target system");
 		}
-		final URI uri = getURIConfigurator().getObjectURI(obj.getClass(),
+		final URI uri = requestState.configurator.getObjectURI(obj.getClass(),
 				Integer.toString(id));
 		final HttpPut http = new HttpPut(uri);
 		final String body = RedmineJSONBuilder.toSimpleJSON(
 				config.singleObjectName, obj, config.writer);
 		setEntity(http, body);
-		send(http);
+		invalidateCached(obj.getClass(), Integer.toString(id));
+		try {
+			send(http, requestState);
+		} finally {
+			invalidateCached(obj.getClass(), Integer.toString(id));
+		}
 	}
 	
 	/* (non-Javadoc)
@@ -604,14 +926,15 @@ public final class Transport implements ITransport {
 	 */
 	@Override
 	public String upload(final InputStream content) throws RedmineException {
-		final URI uploadURI = getURIConfigurator().getUploadURI();
+		final RequestState requestState = state;
+		final URI uploadURI = requestState.configurator.getUploadURI();
 		final HttpPost request = new HttpPost(uploadURI);
 		final AbstractHttpEntity entity = new InputStreamEntity(content, -1);
 		/* Content type required by a Redmine */
 		entity.setContentType("application/octet-stream");
 		request.setEntity(entity);
 		
-		final String result = send(request);
+		final String result = send(request, requestState);
 		return parseResponse(result, "upload", RedmineJSONParser.UPLOAD_TOKEN_PARSER);
 	}
 	
@@ -624,15 +947,28 @@ public final class Transport implements ITransport {
 		return (EntityConfig<T>) guess;
 	}
 	
-	private URIConfigurator getURIConfigurator() {
-		return configurator;
+	private String send(final HttpRequestBase http, final RequestState requestState) throws RedmineException {
+		addContextHeaders(http, requestState);
+		return communicator.sendRequest(http);
 	}
-
-	private String send(final HttpRequestBase http) throws RedmineException {
-		if (onBehalfOfUser != null) {
-			http.addHeader("X-Redmine-Switch-User", onBehalfOfUser);
+	
+	/**
+	 * Sends a request, "404 not found" answers give null instead of an
+	 * exception.
+	 */
+	private String sendOrNull(final HttpRequestBase http, final RequestState requestState)
+			throws RedmineException {
+		addContextHeaders(http, requestState);
+		return decodingCommunicator.sendRequest(http, NOT_FOUND_AS_NULL);
+	}
+	
+	private static void addContextHeaders(final HttpRequestBase request, final RequestState state) {
+		if (state.authorization != null) {
+			request.setHeader("Authorization", state.authorization);
+		}
+		if (state.context.getOnBehalfOfUser() != null) {
+			request.setHeader("X-Redmine-Switch-User", state.context.getOnBehalfOfUser());
 		}
-		return communicator.sendRequest(http);
 	}
 	
 }
@@ -4,17 +4,20 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
+import org.apache.http.Consts;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.client.utils.URLEncodedUtils;
 import org.apache.http.message.BasicNameValuePair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.taskadapter.redmineapi.RedmineInternalError;
 import com.taskadapter.redmineapi.bean.Attachment;
@@ -68,24 +71,94 @@ public class URIConfigurator {
 		urls.put(CustomFieldDefinition.class, "custom_fields");
 	}
 	
+	/** Characters kept as is in paths, the same set as {@link URIBuilder} uses. */
+	private static final BitSet PATH_SAFE = new BitSet(128);
+
+	static {
+		for (char c = 'a'; c <= 'z'; c++) {
+			PATH_SAFE.set(c);
+		}
+		for (char c = 'A'; c <= 'Z'; c++) {
+			PATH_SAFE.set(c);
+		}
+		for (char c = '0'; c <= '9'; c++) {
+			PATH_SAFE.set(c);
+		}
+		for (final char c : "_-!.~'()*,;:$&+=/@".toCharArray()) {
+			PATH_SAFE.set(c);
+		}
+	}
+
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	private static final Logger logger = LoggerFactory.getLogger(URIConfigurator.class);
+
 	private final URL baseURL;
 	private final String apiAccessKey;
+
+	/** Scheme, host, port and encoded path of the server, like "http://host:3000/redmine". */
+	private final String serverPrefix;
+	/** Encoded "key" parameter or null. */
+	private final String keyParameter;
+	/** Server prefix followed by the encoded entity path, keyed by entity class. */
+	private final Map<Class<?>, String> entityPrefixes;
 	
 	public URIConfigurator(final String host, final String apiAccessKey) {
+		this(parseHost(host), apiAccessKey);
+	}
+	
+	private URIConfigurator(final URL baseURL, final String apiAccessKey) {
+		this.baseURL = baseURL;
+		this.apiAccessKey = apiAccessKey;
+		final StringBuilder prefix = new StringBuilder();
+		prefix.append(baseURL.getProtocol()).append("://").append(baseURL.getHost());
+		if (baseURL.getPort() >= 0) {
+			prefix.append(':').append(baseURL.getPort());
+		}
+		appendPath(prefix, baseURL.getPath());
+		this.serverPrefix = prefix.toString();
+		this.keyParameter = apiAccessKey == null ? null : URLEncodedUtils.format(
+				Collections.singletonList(new BasicNameValuePair("key", apiAccessKey)), Consts.UTF_8);
+		this.entityPrefixes = new HashMap<Class<?>, String>();
+		for (final Map.Entry<Class<?>, String> entry : urls.entrySet()) {
+			final StringBuilder entityPrefix = new StringBuilder(serverPrefix).append('/');
+			appendPath(entityPrefix, entry.getValue());
+			entityPrefixes.put(entry.getKey(), entityPrefix.toString());
+		}
+	}
+
+	private static URL parseHost(final String host) {
 		if (host == null || host.isEmpty()) {
 			throw new IllegalArgumentException(
 					"The host parameter is NULL or empty");
 		}
 		try {
-			baseURL = new URL(host);
+			return new URL(host);
 		} catch (final MalformedURLException e) {
 			throw new IllegalArgumentException("Illegal host URL " + host, e);
 		}
-		this.apiAccessKey = apiAccessKey;
 	}
 	
+	/**
+	 * @return configurator for the same server with another API key.
+	 */
+	public URIConfigurator withApiAccessKey(final String apiAccessKey) {
+		return new URIConfigurator(baseURL, apiAccessKey);
+	}
+	
+	/**
+	 * @return scheme, host, port and path of the server.
+	 */
+	public String getServerURI() {
+		return serverPrefix;
+	}
+
+	public String getApiAccessKey() {
+		return apiAccessKey;
+	}
+
 	public URI createURI(final String query) {
-		return createURI(query, new ArrayList<NameValuePair>());
+		return createURI(query, Collections.<NameValuePair>emptyList());
 	}
 	
 	public URI createURI(final String query, final NameValuePair... param) {
@@ -99,34 +172,43 @@ public class URIConfigurator {
 	
 	public URI getChildIdURI(final Class<?> parent, final String parentId,
 			final Class<?> child, final String value, final NameValuePair... params) {
-		final String base = getConfig(parent);
-		final String detal = getConfig(child);
-		return createURI(base + "/" + parentId + "/" + detal +
-				"/" + value + URL_POSTFIX, params);
+		final StringBuilder uri = new StringBuilder(getEntityPrefix(parent));
+		uri.append('/');
+		appendPath(uri, parentId);
+		uri.append('/');
+		appendPath(uri, getConfig(child));
+		uri.append('/');
+		appendPath(uri, value);
+		uri.append(URL_POSTFIX);
+		return build(uri, Arrays.asList(params));
 	}
 	
 	public URI getChildObjectsURI(final Class<?> parent, final String parentId,
 			final Class<?> child, final NameValuePair... args) {
-		final String base = getConfig(parent);
-		final String detal = getConfig(child);
-		return createURI(base + "/" + parentId + "/" + detal + URL_POSTFIX,
-				args);
+		final StringBuilder uri = new StringBuilder(getEntityPrefix(parent));
+		uri.append('/');
+		appendPath(uri, parentId);
+		uri.append('/');
+		appendPath(uri, getConfig(child));
+		uri.append(URL_POSTFIX);
+		return build(uri, Arrays.asList(args));
 	}
 	
 	public URI getObjectsURI(final Class<?> child,
 			final Collection<? extends NameValuePair> args) {
-		final String detal = getConfig(child);
-		return createURI(detal + URL_POSTFIX, args);
+		return build(new StringBuilder(getEntityPrefix(child)).append(URL_POSTFIX), args);
 	}
 	
 	public URI getObjectsURI(final Class<?> child, final NameValuePair... args) {
-		final String detal = getConfig(child);
-		return createURI(detal + URL_POSTFIX, args);
+		return getObjectsURI(child, Arrays.asList(args));
 	}
 	
 	public URI getObjectURI(final Class<?> object, final String id, final NameValuePair... args) {
-		final String detal = getConfig(object);
-		return createURI(detal + "/" + id + URL_POSTFIX, args);
+		final StringBuilder uri = new StringBuilder(getEntityPrefix(object));
+		uri.append('/');
+		appendPath(uri, id);
+		uri.append(URL_POSTFIX);
+		return build(uri, Arrays.asList(args));
 	}
 	
 	public URI getUploadURI() {
@@ -139,33 +221,70 @@ public class URIConfigurator {
 	 * @return URI with auth parameter "key" if not in "basic auth mode.
 	 */
 	private URI createURI(final String query,
-			final Collection<? extends NameValuePair> origParams) {
-		final List<NameValuePair> params = new ArrayList<NameValuePair>(
-				origParams);
-		if (apiAccessKey != null) {
-			params.add(new BasicNameValuePair("key", apiAccessKey));
+			final Collection<? extends NameValuePair> params) {
+		final StringBuilder uri = new StringBuilder(serverPrefix);
+		if (!query.isEmpty()) {
+			uri.append('/');
+			appendPath(uri, query);
 		}
-		URI uri;
-		try {
-			final URL url = baseURL;
-			final URIBuilder uriBuilder = new URIBuilder();
-			uriBuilder.setHost(url.getHost());
-			uriBuilder.setPort(url.getPort());
-			uriBuilder.setScheme(url.getProtocol());
-			uriBuilder.setParameters(params);
-			uriBuilder.setCharset(Charset.forName("UTF-8"));
-			uriBuilder.setPath(url.getPath());
-			if (!query.isEmpty()) {
-				uriBuilder.setPath(uriBuilder.getPath() + '/' + query);
-			}
+		return build(uri, params);
+	}
 
-			uri = uriBuilder.build();
-			System.out.println(query);
-			System.out.println(uri);
+	/**
+	 * Appends encoded parameters and the API key to the encoded path.
+	 */
+	private URI build(final StringBuilder uri, final Collection<? extends NameValuePair> params) {
+		boolean hasQuery = false;
+		if (!params.isEmpty()) {
+			uri.append('?').append(URLEncodedUtils.format(params, Consts.UTF_8));
+			hasQuery = true;
+		}
+		if (logger.isDebugEnabled()) {
+			// the key is not logged
+			logger.debug("Request URI {}", uri);
+		}
+		if (keyParameter != null) {
+			uri.append(hasQuery ? '&' : '?').append(keyParameter);
+		}
+		try {
+			return new URI(uri.toString());
 		} catch (final URISyntaxException e) {
 			throw new RedmineInternalError(e);
 		}
-		return uri;
+	}
+
+	private String getEntityPrefix(final Class<?> item) {
+		final String prefix = entityPrefixes.get(item);
+		if (prefix == null) {
+			throw new RedmineInternalError("Unsupported item class "
+					+ item.getCanonicalName());
+		}
+		return prefix;
+	}
+
+	/**
+	 * Appends a path percent-encoding UTF-8 bytes of characters which are not
+	 * allowed in paths. "/" is kept as a segment separator.
+	 */
+	private static void appendPath(final StringBuilder target, final String path) {
+		final int length = path.length();
+		int i = 0;
+		while (i < length && PATH_SAFE.get(path.charAt(i))) {
+			i++;
+		}
+		if (i == length) {
+			target.append(path);
+			return;
+		}
+		target.append(path, 0, i);
+		for (final byte b : path.substring(i).getBytes(Consts.UTF_8)) {
+			final int c = b & 0xFF;
+			if (PATH_SAFE.get(c)) {
+				target.append((char) c);
+			} else {
+				target.append('%').append(HEX[c >> 4]).append(HEX[c & 0x0F]);
+			}
+		}
 	}
 	
 	private String getConfig(final Class<?> item) {
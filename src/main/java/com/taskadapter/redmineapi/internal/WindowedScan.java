@@ -0,0 +1,192 @@
+package com.taskadapter.redmineapi.internal;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.message.BasicNameValuePair;
+
+import com.taskadapter.redmineapi.ITransport;
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.bean.Identifiable;
+
+/**
+ * Loads objects matching a date range by splitting the range into day windows
+ * ("updated_on=&gt;&lt;2015-01-01|2015-01-31") and loading windows in parallel.
+ * Each window holds up to "window size" objects, so offsets stay
+ * shallow. Window sizes are chosen from "total_count" of cheap "limit=1"
+ * requests: too large windows are split in halves until they fit or become
+ * one day long. Objects found in several windows (e.g. updated during the
+ * scan) are reported once, with the state from the latest window.
+ */
+public final class WindowedScan<T extends Identifiable> {
+	/** Number of objects in one window when nothing else is specified. */
+	public static final int DEFAULT_WINDOW_SIZE = 500;
+
+	private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+	private final ITransport transport;
+	private final Class<T> objectClass;
+	private final List<NameValuePair> params;
+	private final String dateParameter;
+	private final Calendar firstDay;
+	private final int parallelism;
+	private final int windowSize;
+
+	/**
+	 * Loads all objects with the date from "from" to "to" days, both inclusive.
+	 *
+	 * @param params list filters. Paging parameters and the date parameter are
+	 *            ignored.
+	 * @param dateParameter date filter name, like "updated_on" or "spent_on".
+	 */
+	public static <T extends Identifiable> List<T> scan(final ITransport transport, final Class<T> objectClass,
+			final Collection<? extends NameValuePair> params, final String dateParameter, final Date from,
+			final Date to, final int parallelism, final int windowSize) throws RedmineException {
+		return new WindowedScan<T>(transport, objectClass, params, dateParameter, from, parallelism, windowSize)
+				.scanUntil(to);
+	}
+
+	private WindowedScan(final ITransport transport, final Class<T> objectClass,
+			final Collection<? extends NameValuePair> params, final String dateParameter, final Date from,
+			final int parallelism, final int windowSize) {
+		if (windowSize <= 0) {
+			throw new IllegalArgumentException("Window size must be positive. You provided: " + windowSize);
+		}
+		this.transport = transport;
+		this.objectClass = objectClass;
+		this.params = new ArrayList<NameValuePair>();
+		for (final NameValuePair param : params) {
+			final String name = param.getName();
+			if (!name.equals(dateParameter) && !"limit".equals(name) && !"offset".equals(name)) {
+				this.params.add(param);
+			}
+		}
+		this.dateParameter = dateParameter;
+		this.firstDay = Calendar.getInstance();
+		this.firstDay.setTime(from);
+		this.firstDay.set(Calendar.HOUR_OF_DAY, 0);
+		this.firstDay.set(Calendar.MINUTE, 0);
+		this.firstDay.set(Calendar.SECOND, 0);
+		this.firstDay.set(Calendar.MILLISECOND, 0);
+		this.parallelism = parallelism;
+		this.windowSize = windowSize;
+	}
+
+	private List<T> scanUntil(final Date to) throws RedmineException {
+		final int lastDay = dayIndex(to);
+		if (lastDay < 0) {
+			return new ArrayList<T>();
+		}
+		final int total = count(0, lastDay);
+		if (total == 0) {
+			return new ArrayList<T>();
+		}
+		final List<Window> windows = splitIntoWindows(lastDay, total);
+		final List<Callable<List<T>>> loads = new ArrayList<Callable<List<T>>>(windows.size());
+		for (final Window window : windows) {
+			loads.add(new Callable<List<T>>() {
+				@Override
+				public List<T> call() throws RedmineException {
+					return transport.getObjectsList(objectClass, withFilter(window.firstDay, window.lastDay));
+				}
+			});
+		}
+		final Map<Integer, T> merged = new LinkedHashMap<Integer, T>();
+		for (final List<T> windowObjects : ParallelTasks.invokeAll(loads, parallelism)) {
+			for (final T object : windowObjects) {
+				merged.put(object.getId(), object);
+			}
+		}
+		return new ArrayList<T>(merged.values());
+	}
+
+	private List<Window> splitIntoWindows(final int lastDay, final int total) throws RedmineException {
+		final List<Window> result = new ArrayList<Window>();
+		List<Window> pending = new ArrayList<Window>();
+		final int days = lastDay + 1;
+		final int windows = Math.min(days, (total + windowSize - 1) / windowSize);
+		if (windows <= 1) {
+			result.add(new Window(0, lastDay));
+			return result;
+		}
+		for (int i = 0; i < windows; i++) {
+			final int first = (int) ((long) days * i / windows);
+			final int last = (int) ((long) days * (i + 1) / windows) - 1;
+			pending.add(new Window(first, last));
+		}
+		while (!pending.isEmpty()) {
+			final List<Callable<Integer>> counts = new ArrayList<Callable<Integer>>(pending.size());
+			for (final Window window : pending) {
+				counts.add(new Callable<Integer>() {
+					@Override
+					public Integer call() throws RedmineException {
+						return count(window.firstDay, window.lastDay);
+					}
+				});
+			}
+			final List<Integer> counted = ParallelTasks.invokeAll(counts, parallelism);
+			final List<Window> oversized = new ArrayList<Window>();
+			for (int i = 0; i < pending.size(); i++) {
+				final Window window = pending.get(i);
+				final int count = counted.get(i);
+				if (count > windowSize && window.lastDay > window.firstDay) {
+					final int middle = (window.firstDay + window.lastDay) / 2;
+					oversized.add(new Window(window.firstDay, middle));
+					oversized.add(new Window(middle + 1, window.lastDay));
+				} else if (count > 0) {
+					result.add(window);
+				}
+			}
+			pending = oversized;
+		}
+		return result;
+	}
+
+	private int count(final int first, final int last) throws RedmineException {
+		final List<NameValuePair> countParams = withFilter(first, last);
+		countParams.add(new BasicNameValuePair("limit", "1"));
+		final Transport.ResultsWrapper<T> wrapper = transport.getObjectsListNoPaging(objectClass, countParams);
+		final Integer total = wrapper.getTotalFoundOnServer();
+		// no total count - load the window as a whole
+		return total == null ? 1 : total;
+	}
+
+	private List<NameValuePair> withFilter(final int first, final int last) {
+		final List<NameValuePair> result = new ArrayList<NameValuePair>(params);
+		result.add(new BasicNameValuePair(dateParameter, "><" + formatDay(first) + "|" + formatDay(last)));
+		return result;
+	}
+
+	private int dayIndex(final Date date) {
+		final Calendar day = Calendar.getInstance();
+		day.setTime(date);
+		final long offset = firstDay.get(Calendar.ZONE_OFFSET) + firstDay.get(Calendar.DST_OFFSET);
+		final long dayOffset = day.get(Calendar.ZONE_OFFSET) + day.get(Calendar.DST_OFFSET);
+		final long firstLocal = firstDay.getTimeInMillis() + offset;
+		final long dayLocal = day.getTimeInMillis() + dayOffset;
+		return (int) Math.floor((double) (dayLocal - firstLocal) / MILLIS_PER_DAY);
+	}
+
+	private String formatDay(final int index) {
+		final Calendar day = (Calendar) firstDay.clone();
+		day.add(Calendar.DAY_OF_MONTH, index);
+		return RedmineDateParser.SHORT_DATE_FORMAT_V2.get().format(day.getTime());
+	}
+
+	private static final class Window {
+		final int firstDay;
+		final int lastDay;
+
+		Window(final int firstDay, final int lastDay) {
+			this.firstDay = firstDay;
+			this.lastDay = lastDay;
+		}
+	}
+}
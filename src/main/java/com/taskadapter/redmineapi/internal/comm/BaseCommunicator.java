@@ -15,6 +15,7 @@ import org.slf4j.LoggerFactory;
 
 import com.taskadapter.redmineapi.RedmineException;
 import com.taskadapter.redmineapi.RedmineFormatException;
+import com.taskadapter.redmineapi.RedmineRequestAbortedException;
 import com.taskadapter.redmineapi.RedmineTransportException;
 
 public class BaseCommunicator implements Communicator<HttpResponse>, Closeable {
@@ -47,8 +48,9 @@ public class BaseCommunicator implements Communicator<HttpResponse>, Closeable {
 			final ContentHandler<HttpResponse, R> handler) throws RedmineException {
 		logger.debug(request.getRequestLine().toString());
 		
-		request.addHeader("Accept-Encoding", "gzip");
+		request.setHeader("Accept-Encoding", "gzip");
 		final HttpClient httpclient = client;
+		RequestAbortScope.register(request);
 		try {
 			final HttpResponse httpResponse = httpclient
 					.execute((HttpUriRequest) request);
@@ -61,12 +63,29 @@ public class BaseCommunicator implements Communicator<HttpResponse>, Closeable {
 		} catch (final ClientProtocolException e1) {
 			throw new RedmineFormatException(e1);
 		} catch (final IOException e1) {
+			if (isAborted(request)) {
+				throw new RedmineRequestAbortedException("Request to " + getMessageURI(request)
+						+ " was aborted", e1);
+			}
 			throw new RedmineTransportException("Cannot fetch data from "
 					+ getMessageURI(request) + " : "
 					+ e1.toString(), e1);
+		} catch (final RedmineTransportException e1) {
+			// the response body was being read when the request was aborted
+			if (isAborted(request) && !(e1 instanceof RedmineRequestAbortedException)) {
+				throw new RedmineRequestAbortedException("Request to " + getMessageURI(request)
+						+ " was aborted", e1);
+			}
+			throw e1;
+		} finally {
+			RequestAbortScope.unregister(request);
 		}
 	}
 	
+	private static boolean isAborted(final HttpRequest request) {
+		return ((HttpUriRequest) request).isAborted() || RequestAbortScope.isCurrentAborted();
+	}
+	
 	private String getMessageURI(final HttpRequest request) {
 		final String uri = request.getRequestLine().getUri();
 		final int paramsIndex = uri.indexOf('?');
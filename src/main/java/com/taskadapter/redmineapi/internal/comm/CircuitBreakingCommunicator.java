@@ -0,0 +1,76 @@
+package com.taskadapter.redmineapi.internal.comm;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+
+import com.taskadapter.redmineapi.CircuitBreaker;
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RedmineFormatException;
+import com.taskadapter.redmineapi.RedmineRequestAbortedException;
+import com.taskadapter.redmineapi.RedmineTransportException;
+
+/**
+ * Communicator passing requests through a {@link CircuitBreaker}. I/O errors
+ * and 5xx responses are recorded as failures, any other response as a success.
+ * Requests aborted before the response or ended by runtime errors are not
+ * recorded.
+ */
+public final class CircuitBreakingCommunicator implements Communicator<HttpResponse> {
+	private static final int FIRST_SERVER_ERROR = 500;
+
+	private final Communicator<HttpResponse> peer;
+	private final CircuitBreaker breaker;
+
+	public CircuitBreakingCommunicator(final Communicator<HttpResponse> peer, final CircuitBreaker breaker) {
+		this.peer = peer;
+		this.breaker = breaker;
+	}
+
+	@Override
+	public <R> R sendRequest(final HttpRequest request,
+			final ContentHandler<HttpResponse, R> handler) throws RedmineException {
+		breaker.acquirePermission();
+		final long start = System.currentTimeMillis();
+		final boolean[] recorded = new boolean[1];
+		try {
+			return peer.sendRequest(request, new ContentHandler<HttpResponse, R>() {
+				@Override
+				public R processContent(final HttpResponse content) throws RedmineException {
+					final long duration = System.currentTimeMillis() - start;
+					if (content.getStatusLine().getStatusCode() >= FIRST_SERVER_ERROR) {
+						breaker.onError(duration);
+					} else {
+						breaker.onSuccess(duration);
+					}
+					recorded[0] = true;
+					return handler.processContent(content);
+				}
+			});
+		} catch (final RedmineRequestAbortedException e) {
+			if (!recorded[0]) {
+				breaker.releasePermission();
+				recorded[0] = true;
+			}
+			throw e;
+		} catch (final RedmineTransportException e) {
+			if (!recorded[0]) {
+				breaker.onError(System.currentTimeMillis() - start);
+				recorded[0] = true;
+			}
+			throw e;
+		} catch (final RedmineFormatException e) {
+			// protocol error, the server answered garbage
+			if (!recorded[0]) {
+				breaker.onError(System.currentTimeMillis() - start);
+				recorded[0] = true;
+			}
+			throw e;
+		} finally {
+			if (!recorded[0]) {
+				// the call ended without a response and without a known cause,
+				// e.g. with a runtime error: it tells nothing about the server
+				breaker.releasePermission();
+			}
+		}
+	}
+}
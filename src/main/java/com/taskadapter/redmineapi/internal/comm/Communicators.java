@@ -1,15 +1,22 @@
 package com.taskadapter.redmineapi.internal.comm;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 
 import org.apache.http.HttpResponse;
 
+import com.taskadapter.redmineapi.CircuitBreaker;
+import com.taskadapter.redmineapi.ConcurrencyLimiter;
 import com.taskadapter.redmineapi.RedmineException;
 import com.taskadapter.redmineapi.RedmineTransportException;
+import com.taskadapter.redmineapi.RequestRateLimits;
+import com.taskadapter.redmineapi.RetryPolicy;
+import com.taskadapter.redmineapi.internal.io.BufferPool;
 
 /**
  * Communicator utilities.
@@ -55,23 +62,76 @@ public final class Communicators {
 		}
 	};
 
-	private static final ContentHandler<BasicHttpResponse, String> CHAR_CONTENT_READER = compose(
-			READ_CHARS, CHARACTER_DECODER);
+	/**
+	 * Reads the response bytes with a pooled buffer and decodes them at once,
+	 * without a reader and its intermediate buffers.
+	 */
+	private static final ContentHandler<BasicHttpResponse, String> CHAR_CONTENT_READER = new ContentHandler<BasicHttpResponse, String>() {
+		@Override
+		public String processContent(BasicHttpResponse content) throws RedmineException {
+			final Charset charset;
+			try {
+				charset = Charset.forName(content.getCharset());
+			} catch (IllegalArgumentException e) {
+				throw new RedmineTransportException(
+						"Unsupported response charset " + content.getCharset(), e);
+			}
+			final byte[] buffer = BufferPool.takeBytes();
+			try {
+				final InputStream input = content.getStream();
+				try {
+					int length = readFully(input, buffer);
+					if (length < buffer.length) {
+						return new String(buffer, 0, length, charset);
+					}
+					final ByteArrayOutputStream bytes = new ByteArrayOutputStream(buffer.length * 2);
+					do {
+						bytes.write(buffer, 0, length);
+						length = readFully(input, buffer);
+					} while (length > 0);
+					return new String(bytes.toByteArray(), charset);
+				} finally {
+					input.close();
+				}
+			} catch (IOException e) {
+				throw new RedmineTransportException(e);
+			} finally {
+				BufferPool.returnBytes(buffer);
+			}
+		}
+	};
 
 	static String readAll(Reader r) throws RedmineException {
-		final StringWriter writer = new StringWriter();
-		final char[] buffer = new char[4096];
+		final StringBuilder result = new StringBuilder();
+		final char[] buffer = BufferPool.takeChars();
 		int readed;
 		try {
 			while ((readed = r.read(buffer)) > 0) {
-				writer.write(buffer, 0, readed);
+				result.append(buffer, 0, readed);
 			}
 			r.close();
-			writer.close();
-			return writer.toString();
+			return result.toString();
 		} catch (IOException e) {
 			throw new RedmineTransportException(e);
+		} finally {
+			BufferPool.returnChars(buffer);
+		}
+	}
+
+	/**
+	 * Reads until the buffer is full or the stream ends.
+	 * 
+	 * @return number of bytes read.
+	 */
+	private static int readFully(InputStream input, byte[] buffer)
+			throws IOException {
+		int position = 0;
+		int readed;
+		while (position < buffer.length
+				&& (readed = input.read(buffer, position, buffer.length - position)) >= 0) {
+			position += readed;
 		}
+		return position;
 	}
 
 	public static <K, V> SimpleCommunicator<V> simplify(
@@ -98,6 +158,39 @@ public final class Communicators {
 		return new FmapCommunicator<R, K>(handler, comm);
 	}
 
+	/**
+	 * Creates a communicator retrying failed requests according to the policy.
+	 */
+	public static Communicator<HttpResponse> retrying(
+			Communicator<HttpResponse> comm, RetryPolicy policy) {
+		return new RetryingCommunicator(comm, policy);
+	}
+
+	/**
+	 * Creates a communicator passing requests through the circuit breaker.
+	 */
+	public static Communicator<HttpResponse> circuitBreaking(
+			Communicator<HttpResponse> comm, CircuitBreaker breaker) {
+		return new CircuitBreakingCommunicator(comm, breaker);
+	}
+
+	/**
+	 * Creates a communicator taking rate limit tokens before each request.
+	 */
+	public static Communicator<HttpResponse> rateLimiting(
+			Communicator<HttpResponse> comm, RequestRateLimits limits) {
+		return new RateLimitingCommunicator(comm, limits);
+	}
+
+	/**
+	 * Creates a communicator holding a concurrency limiter permit while a
+	 * request is in flight.
+	 */
+	public static Communicator<HttpResponse> concurrencyLimiting(
+			Communicator<HttpResponse> comm, ConcurrencyLimiter limiter) {
+		return new ConcurrencyLimitingCommunicator(comm, limiter);
+	}
+
 	public static ContentHandler<HttpResponse, BasicHttpResponse> transportDecoder() {
 		return TRANSPORT_DECODER;
 	}
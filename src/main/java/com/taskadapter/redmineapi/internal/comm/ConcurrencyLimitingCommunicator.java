@@ -0,0 +1,75 @@
+package com.taskadapter.redmineapi.internal.comm;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+
+import com.taskadapter.redmineapi.ConcurrencyLimiter;
+import com.taskadapter.redmineapi.RedmineCommunicationException;
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RedmineRequestAbortedException;
+import com.taskadapter.redmineapi.RedmineTransportException;
+
+/**
+ * Communicator holding a {@link ConcurrencyLimiter} permit while a request is
+ * in flight, until its response is processed. Latency of the whole request,
+ * I/O errors and 5xx responses adjust the limit, aborted requests do not.
+ */
+public final class ConcurrencyLimitingCommunicator implements Communicator<HttpResponse> {
+	private static final int FIRST_SERVER_ERROR = 500;
+
+	private final Communicator<HttpResponse> peer;
+	private final ConcurrencyLimiter limiter;
+
+	public ConcurrencyLimitingCommunicator(final Communicator<HttpResponse> peer, final ConcurrencyLimiter limiter) {
+		this.peer = peer;
+		this.limiter = limiter;
+	}
+
+	@Override
+	public <R> R sendRequest(final HttpRequest request,
+			final ContentHandler<HttpResponse, R> handler) throws RedmineException {
+		try {
+			limiter.acquire();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RedmineCommunicationException("Interrupted while waiting for a concurrency limit", e);
+		}
+		final long start = System.nanoTime();
+		final boolean[] released = new boolean[1];
+		try {
+			return peer.sendRequest(request, new ContentHandler<HttpResponse, R>() {
+				@Override
+				public R processContent(final HttpResponse content) throws RedmineException {
+					// the permit is held while the body is downloaded and parsed
+					boolean transportFailure = false;
+					try {
+						return handler.processContent(content);
+					} catch (final RedmineTransportException e) {
+						// body download failed or was aborted, classified below
+						transportFailure = true;
+						throw e;
+					} finally {
+						if (!transportFailure) {
+							limiter.release(System.nanoTime() - start,
+									content.getStatusLine().getStatusCode() >= FIRST_SERVER_ERROR);
+							released[0] = true;
+						}
+					}
+				}
+			});
+		} catch (final RedmineRequestAbortedException e) {
+			// released without a sample in "finally"
+			throw e;
+		} catch (final RedmineTransportException e) {
+			if (!released[0]) {
+				limiter.release(System.nanoTime() - start, true);
+				released[0] = true;
+			}
+			throw e;
+		} finally {
+			if (!released[0]) {
+				limiter.release();
+			}
+		}
+	}
+}
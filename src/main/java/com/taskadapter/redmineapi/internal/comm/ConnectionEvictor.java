@@ -3,9 +3,23 @@ package com.taskadapter.redmineapi.internal.comm;
 import org.apache.http.conn.ClientConnectionManager;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 public final class ConnectionEvictor implements Runnable {
 
+	/**
+	 * Guards the "terminate" flag. A lock is used instead of a monitor, so
+	 * waiting does not pin the carrier when run on a virtual thread.
+	 */
+	private final Lock lock = new ReentrantLock();
+
+	/**
+	 * Signalled on shutdown.
+	 */
+	private final Condition terminated = lock.newCondition();
+
 	/**
 	 * "Terminate" flag.
 	 */
@@ -50,14 +64,17 @@ public final class ConnectionEvictor implements Runnable {
 
 		while (nowTime < sleepEndTime) {
 			final long toSleep = Math.max(100, sleepEndTime - nowTime);
-			synchronized (this) {
+			lock.lock();
+			try {
 				if (terminate)
 					return false;
 				try {
-					wait(toSleep);
+					terminated.await(toSleep, TimeUnit.MILLISECONDS);
 				} catch (InterruptedException e) {
 					// ignore
 				}
+			} finally {
+				lock.unlock();
 			}
 			nowTime = System.currentTimeMillis();
 		}
@@ -67,9 +84,14 @@ public final class ConnectionEvictor implements Runnable {
 	/**
 	 * Shutdowns an evictor.
 	 */
-	public synchronized void shutdown() {
-		terminate = true;
-		notifyAll();
+	public void shutdown() {
+		lock.lock();
+		try {
+			terminate = true;
+			terminated.signalAll();
+		} finally {
+			lock.unlock();
+		}
 	}
 
 }
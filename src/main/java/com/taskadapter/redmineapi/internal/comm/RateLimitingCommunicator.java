@@ -0,0 +1,66 @@
+package com.taskadapter.redmineapi.internal.comm;
+
+import java.util.Locale;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+
+import com.taskadapter.redmineapi.RateLimiter;
+import com.taskadapter.redmineapi.RedmineCommunicationException;
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RedmineRateLimitException;
+import com.taskadapter.redmineapi.RequestRateLimits;
+
+/**
+ * Communicator taking a token from read, write or upload limiter before
+ * sending a request.
+ */
+public final class RateLimitingCommunicator implements Communicator<HttpResponse> {
+	private static final String UPLOADS_PATH = "/uploads.json";
+
+	private final Communicator<HttpResponse> peer;
+	private final RequestRateLimits limits;
+
+	public RateLimitingCommunicator(final Communicator<HttpResponse> peer, final RequestRateLimits limits) {
+		this.peer = peer;
+		this.limits = limits;
+	}
+
+	@Override
+	public <R> R sendRequest(final HttpRequest request,
+			final ContentHandler<HttpResponse, R> handler) throws RedmineException {
+		final RateLimiter limiter = getLimiter(request);
+		if (limiter != null) {
+			acquire(limiter, request);
+		}
+		return peer.sendRequest(request, handler);
+	}
+
+	private RateLimiter getLimiter(final HttpRequest request) {
+		final String method = request.getRequestLine().getMethod().toUpperCase(Locale.ENGLISH);
+		if ("GET".equals(method) || "HEAD".equals(method)) {
+			return limits.getReads();
+		}
+		final String uri = request.getRequestLine().getUri();
+		final int paramsIndex = uri.indexOf('?');
+		final String path = paramsIndex >= 0 ? uri.substring(0, paramsIndex) : uri;
+		return path.endsWith(UPLOADS_PATH) ? limits.getUploads() : limits.getWrites();
+	}
+
+	private void acquire(final RateLimiter limiter, final HttpRequest request) throws RedmineException {
+		if (!limits.isBlocking()) {
+			if (!limiter.tryAcquire()) {
+				throw new RedmineRateLimitException("Rate limit of " + limiter.getPermitsPerSecond()
+						+ " requests per second is exceeded by " + request.getRequestLine().getMethod()
+						+ " request");
+			}
+			return;
+		}
+		try {
+			limiter.acquire();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RedmineCommunicationException("Interrupted while waiting for a rate limit", e);
+		}
+	}
+}
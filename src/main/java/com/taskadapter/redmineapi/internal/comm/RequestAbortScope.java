@@ -0,0 +1,122 @@
+package com.taskadapter.redmineapi.internal.comm;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.Cancellable;
+
+/**
+ * Lets another thread abort the requests sent by the current thread. Requests
+ * sent by {@link BaseCommunicator} while the scope is open on the thread are
+ * registered in the scope; {@link #abort()} aborts the request in flight and
+ * all later requests of the scope. An aborted request fails with
+ * {@link com.taskadapter.redmineapi.RedmineRequestAbortedException}.
+ * Communicators not based on {@link HttpUriRequest} register their calls with
+ * {@link #register(Cancellable)}.
+ * <pre>
+ * final RequestAbortScope scope = RequestAbortScope.open();
+ * try {
+ *     transport.getObjectsListNoPaging(Issue.class, params);
+ * } finally {
+ *     scope.close();
+ * }
+ * </pre>
+ */
+public final class RequestAbortScope {
+	private static final ThreadLocal<RequestAbortScope> CURRENT = new ThreadLocal<RequestAbortScope>();
+
+	/* HttpUriRequest or Cancellable in flight */
+	private final AtomicReference<Object> call = new AtomicReference<Object>();
+
+	private volatile boolean aborted;
+
+	private RequestAbortScope() {
+	}
+
+	/**
+	 * Opens a scope on the current thread. Close it on the same thread.
+	 */
+	public static RequestAbortScope open() {
+		final RequestAbortScope scope = new RequestAbortScope();
+		CURRENT.set(scope);
+		return scope;
+	}
+
+	/**
+	 * Aborts the request in flight and all later requests of the scope. May
+	 * be called from any thread.
+	 */
+	public void abort() {
+		aborted = true;
+		abort(call.get());
+	}
+
+	public boolean isAborted() {
+		return aborted;
+	}
+
+	/**
+	 * @return true if a scope is open on the current thread and is aborted.
+	 */
+	public static boolean isCurrentAborted() {
+		final RequestAbortScope scope = CURRENT.get();
+		return scope != null && scope.aborted;
+	}
+
+	/**
+	 * Registers a call in flight in the scope of the current thread, if any.
+	 * The call is cancelled at once if the scope is already aborted.
+	 */
+	public static void register(final Cancellable cancellable) {
+		register((Object) cancellable);
+	}
+
+	public static void unregister(final Cancellable cancellable) {
+		unregister((Object) cancellable);
+	}
+
+	public void close() {
+		if (CURRENT.get() == this) {
+			CURRENT.remove();
+		}
+	}
+
+	static void register(final HttpRequest httpRequest) {
+		if (httpRequest instanceof HttpUriRequest) {
+			register((Object) httpRequest);
+		}
+	}
+
+	static void unregister(final HttpRequest httpRequest) {
+		if (httpRequest instanceof HttpUriRequest) {
+			unregister((Object) httpRequest);
+		}
+	}
+
+	private static void register(final Object inFlight) {
+		final RequestAbortScope scope = CURRENT.get();
+		if (scope == null) {
+			return;
+		}
+		scope.call.set(inFlight);
+		if (scope.aborted) {
+			abort(inFlight);
+		}
+	}
+
+	private static void unregister(final Object inFlight) {
+		final RequestAbortScope scope = CURRENT.get();
+		if (scope != null) {
+			scope.call.compareAndSet(inFlight, null);
+		}
+	}
+
+	private static void abort(final Object inFlight) {
+		if (inFlight instanceof HttpUriRequest) {
+			((HttpUriRequest) inFlight).abort();
+		} else if (inFlight instanceof Cancellable) {
+			((Cancellable) inFlight).cancel();
+		}
+	}
+}
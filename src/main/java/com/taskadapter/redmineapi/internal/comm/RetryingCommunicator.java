@@ -0,0 +1,148 @@
+package com.taskadapter.redmineapi.internal.comm;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.utils.DateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RedmineRequestAbortedException;
+import com.taskadapter.redmineapi.RedmineTransportException;
+import com.taskadapter.redmineapi.RetryPolicy;
+
+/**
+ * Communicator retrying idempotent requests on I/O errors and on "retryable"
+ * HTTP status codes according to a {@link RetryPolicy}. Aborted requests are
+ * not retried.
+ */
+public final class RetryingCommunicator implements Communicator<HttpResponse> {
+	private static final Logger logger = LoggerFactory.getLogger(RetryingCommunicator.class);
+
+	/**
+	 * Signals a response which should be retried. Never leaves this class.
+	 */
+	private static final class RetryableResponseException extends RedmineException {
+		private static final long serialVersionUID = 1L;
+		final int statusCode;
+		final long retryAfterMillis;
+
+		RetryableResponseException(final int statusCode, final long retryAfterMillis) {
+			super("Server returned " + statusCode);
+			this.statusCode = statusCode;
+			this.retryAfterMillis = retryAfterMillis;
+		}
+	}
+
+	private final Communicator<HttpResponse> peer;
+	private final RetryPolicy policy;
+
+	public RetryingCommunicator(final Communicator<HttpResponse> peer, final RetryPolicy policy) {
+		this.peer = peer;
+		this.policy = policy;
+	}
+
+	@Override
+	public <R> R sendRequest(final HttpRequest request,
+			final ContentHandler<HttpResponse, R> handler) throws RedmineException {
+		if (!isRetryable(request)) {
+			return peer.sendRequest(request, handler);
+		}
+		int attempt = 1;
+		while (true) {
+			final boolean lastAttempt = attempt >= policy.getMaxAttempts();
+			try {
+				return peer.sendRequest(request, lastAttempt ? handler : statusChecking(handler));
+			} catch (final RetryableResponseException e) {
+				logger.debug("Request " + request.getRequestLine() + " failed with status " + e.statusCode
+						+ ", attempt " + attempt);
+				pause(request, Math.max(e.retryAfterMillis, backoff(attempt)));
+			} catch (final RedmineRequestAbortedException e) {
+				throw e;
+			} catch (final RedmineTransportException e) {
+				if (lastAttempt) {
+					throw e;
+				}
+				logger.debug("Request " + request.getRequestLine() + " failed: " + e.getMessage()
+						+ ", attempt " + attempt);
+				pause(request, backoff(attempt));
+			}
+			attempt++;
+		}
+	}
+
+	private <R> ContentHandler<HttpResponse, R> statusChecking(final ContentHandler<HttpResponse, R> handler) {
+		return new ContentHandler<HttpResponse, R>() {
+			@Override
+			public R processContent(final HttpResponse content) throws RedmineException {
+				final int statusCode = content.getStatusLine().getStatusCode();
+				if (policy.getRetryableStatusCodes().contains(statusCode)) {
+					throw new RetryableResponseException(statusCode, getRetryAfterMillis(content));
+				}
+				return handler.processContent(content);
+			}
+		};
+	}
+
+	private boolean isRetryable(final HttpRequest request) {
+		if (policy.getMaxAttempts() <= 1) {
+			return false;
+		}
+		if (request instanceof HttpEntityEnclosingRequest) {
+			final HttpEntityEnclosingRequest withEntity = (HttpEntityEnclosingRequest) request;
+			if (withEntity.getEntity() != null && !withEntity.getEntity().isRepeatable()) {
+				return false;
+			}
+		}
+		final String method = request.getRequestLine().getMethod().toUpperCase(Locale.ENGLISH);
+		return policy.getRetryableMethods().contains(method)
+				|| request.containsHeader(RetryPolicy.IDEMPOTENCY_KEY_HEADER);
+	}
+
+	private long backoff(final int attempt) {
+		return policy.getBackoffMillis(attempt, ThreadLocalRandom.current().nextDouble());
+	}
+
+	/**
+	 * Parses "Retry-After" header given either in seconds or as HTTP date.
+	 *
+	 * @return delay in milliseconds, 0 if the header is absent or not respected.
+	 */
+	private long getRetryAfterMillis(final HttpResponse response) {
+		if (!policy.isRespectRetryAfter()) {
+			return 0;
+		}
+		final Header header = response.getFirstHeader("Retry-After");
+		if (header == null) {
+			return 0;
+		}
+		final String value = header.getValue().trim();
+		long result;
+		try {
+			result = Long.parseLong(value) * 1000;
+		} catch (final NumberFormatException e) {
+			final Date date = DateUtils.parseDate(value);
+			result = date == null ? 0 : date.getTime() - System.currentTimeMillis();
+		}
+		return Math.max(0, Math.min(result, policy.getMaxBackoffMillis()));
+	}
+
+	private static void pause(final HttpRequest request, final long millis) throws RedmineException {
+		if (millis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(millis);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RedmineTransportException("Interrupted while waiting to retry "
+					+ request.getRequestLine(), e);
+		}
+	}
+}
@@ -2,13 +2,12 @@ package com.taskadapter.redmineapi.internal.comm;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.InflaterInputStream;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import com.taskadapter.redmineapi.RedmineException;
 import com.taskadapter.redmineapi.RedmineTransportException;
+import com.taskadapter.redmineapi.internal.io.PooledInflaterInputStream;
 
 /**
  * ITransport encoding decoder.
@@ -36,7 +35,8 @@ final class TransportDecoder implements
 	}
 
 	/**
-	 * Decodes a transport stream.
+	 * Decodes a transport stream. Compressed streams use pooled inflaters,
+	 * which are returned to the pool when the content is read or closed.
 	 * 
 	 * @param encoding
 	 *            stream encoding.
@@ -50,9 +50,9 @@ final class TransportDecoder implements
 		if (encoding == null)
 			return initialStream;
 		if ("gzip".equals(encoding))
-			return new GZIPInputStream(initialStream);
+			return PooledInflaterInputStream.gzip(initialStream);
 		if ("deflate".equals(encoding))
-			return new InflaterInputStream(initialStream);
+			return PooledInflaterInputStream.deflate(initialStream);
 		throw new IOException("Unsupported transport encoding " + encoding);
 	}
 }
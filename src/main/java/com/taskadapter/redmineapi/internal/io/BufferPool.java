@@ -0,0 +1,97 @@
+package com.taskadapter.redmineapi.internal.io;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Inflater;
+
+/**
+ * Bounded pools of buffers and inflaters used while reading responses. Each
+ * response takes what it needs and returns it when the content is read, so
+ * steady traffic does not allocate new buffers or native inflater memory.
+ * Objects beyond the pool capacity are dropped; dropped inflaters are ended
+ * at once instead of waiting for finalization.
+ * <p>All methods are thread-safe.
+ */
+public final class BufferPool {
+	/** Size of pooled byte buffers. */
+	public static final int BYTE_BUFFER_SIZE = 16 * 1024;
+
+	/** Size of pooled char buffers. */
+	public static final int CHAR_BUFFER_SIZE = 4096;
+
+	private static final int MAX_POOLED = 32;
+
+	private static final Pool<byte[]> BYTE_BUFFERS = new Pool<byte[]>();
+	private static final Pool<char[]> CHAR_BUFFERS = new Pool<char[]>();
+	private static final Pool<Inflater> ZLIB_INFLATERS = new Pool<Inflater>();
+	private static final Pool<Inflater> RAW_INFLATERS = new Pool<Inflater>();
+
+	private BufferPool() {
+	}
+
+	public static byte[] takeBytes() {
+		final byte[] buffer = BYTE_BUFFERS.take();
+		return buffer == null ? new byte[BYTE_BUFFER_SIZE] : buffer;
+	}
+
+	public static void returnBytes(final byte[] buffer) {
+		BYTE_BUFFERS.offer(buffer);
+	}
+
+	public static char[] takeChars() {
+		final char[] buffer = CHAR_BUFFERS.take();
+		return buffer == null ? new char[CHAR_BUFFER_SIZE] : buffer;
+	}
+
+	public static void returnChars(final char[] buffer) {
+		CHAR_BUFFERS.offer(buffer);
+	}
+
+	/**
+	 * @param nowrap true for raw deflate data (gzip), false for zlib data.
+	 */
+	public static Inflater takeInflater(final boolean nowrap) {
+		final Inflater inflater = (nowrap ? RAW_INFLATERS : ZLIB_INFLATERS).take();
+		return inflater == null ? new Inflater(nowrap) : inflater;
+	}
+
+	/**
+	 * Resets the inflater and returns it to the pool or ends it if the pool is
+	 * full.
+	 *
+	 * @param nowrap the value used to take the inflater.
+	 */
+	public static void returnInflater(final Inflater inflater, final boolean nowrap) {
+		inflater.reset();
+		if (!(nowrap ? RAW_INFLATERS : ZLIB_INFLATERS).offer(inflater)) {
+			inflater.end();
+		}
+	}
+
+	static int getPooledInflaters() {
+		return RAW_INFLATERS.size.get() + ZLIB_INFLATERS.size.get();
+	}
+
+	private static final class Pool<T> {
+		private final Queue<T> items = new ConcurrentLinkedQueue<T>();
+		private final AtomicInteger size = new AtomicInteger();
+
+		T take() {
+			final T item = items.poll();
+			if (item != null) {
+				size.decrementAndGet();
+			}
+			return item;
+		}
+
+		boolean offer(final T item) {
+			if (size.incrementAndGet() > MAX_POOLED) {
+				size.decrementAndGet();
+				return false;
+			}
+			items.offer(item);
+			return true;
+		}
+	}
+}
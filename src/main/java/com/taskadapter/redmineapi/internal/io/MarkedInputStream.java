@@ -58,10 +58,20 @@ public final class MarkedInputStream extends FilterInputStream {
 		}
 	}
 
+	/*
+	 * mark() and reset() call the wrapped stream directly. The synchronized
+	 * versions of FilterInputStream would hold a monitor during a blocking
+	 * call and pin the carrier of a virtual thread.
+	 */
 	@Override
-	public synchronized void reset() throws IOException {
+	public void mark(int readlimit) {
+		in.mark(readlimit);
+	}
+
+	@Override
+	public void reset() throws IOException {
 		try {
-			super.reset();
+			in.reset();
 		} catch (IOException e) {
 			throw new MarkedIOException(tag, e);
 		}
@@ -0,0 +1,217 @@
+package com.taskadapter.redmineapi.internal.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Decompresses "gzip" or "deflate" content with an inflater and a buffer from
+ * the {@link BufferPool}. Both are taken on the first read and returned as
+ * soon as the compressed data ends or the stream is closed, so the native
+ * inflater memory is reused instead of being released on finalization.
+ * <p>Gzip data must contain one member, as sent by web servers; data after
+ * the first member is ignored.
+ */
+public final class PooledInflaterInputStream extends InputStream {
+	private static final int FHCRC = 2;
+	private static final int FEXTRA = 4;
+	private static final int FNAME = 8;
+	private static final int FCOMMENT = 16;
+
+	private final InputStream in;
+	private final boolean gzip;
+	private final byte[] singleByte = new byte[1];
+
+	private Inflater inflater;
+	private byte[] buffer;
+	private int bufferLength;
+	private CRC32 crc;
+	private boolean finished;
+	private boolean closed;
+
+	private PooledInflaterInputStream(final InputStream in, final boolean gzip) {
+		this.in = in;
+		this.gzip = gzip;
+	}
+
+	/**
+	 * Creates a stream reading "Content-Encoding: gzip" data.
+	 */
+	public static PooledInflaterInputStream gzip(final InputStream in) {
+		return new PooledInflaterInputStream(in, true);
+	}
+
+	/**
+	 * Creates a stream reading "Content-Encoding: deflate" (zlib) data.
+	 */
+	public static PooledInflaterInputStream deflate(final InputStream in) {
+		return new PooledInflaterInputStream(in, false);
+	}
+
+	@Override
+	public int read() throws IOException {
+		return read(singleByte, 0, 1) == -1 ? -1 : singleByte[0] & 0xff;
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len) throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (finished) {
+			return -1;
+		}
+		if (len == 0) {
+			return 0;
+		}
+		if (inflater == null) {
+			start();
+		}
+		try {
+			while (true) {
+				final int inflated = inflater.inflate(b, off, len);
+				if (inflated > 0) {
+					if (crc != null) {
+						crc.update(b, off, inflated);
+					}
+					return inflated;
+				}
+				if (inflater.finished()) {
+					finish();
+					return -1;
+				}
+				if (inflater.needsDictionary()) {
+					throw new ZipException("Compressed content requires a preset dictionary");
+				}
+				if (inflater.needsInput()) {
+					fill();
+				}
+			}
+		} catch (final DataFormatException e) {
+			release();
+			final String message = e.getMessage();
+			throw new ZipException(message != null ? message : "Invalid compressed data format");
+		} catch (final IOException e) {
+			release();
+			throw e;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			release();
+			in.close();
+		}
+	}
+
+	private void start() throws IOException {
+		if (gzip) {
+			readGzipHeader();
+			crc = new CRC32();
+		}
+		inflater = BufferPool.takeInflater(gzip);
+		buffer = BufferPool.takeBytes();
+	}
+
+	private void fill() throws IOException {
+		bufferLength = in.read(buffer, 0, buffer.length);
+		if (bufferLength == -1) {
+			throw new EOFException("Unexpected end of compressed content");
+		}
+		inflater.setInput(buffer, 0, bufferLength);
+	}
+
+	private void finish() throws IOException {
+		if (gzip) {
+			readGzipTrailer();
+		}
+		finished = true;
+		release();
+	}
+
+	private void release() {
+		if (inflater != null) {
+			BufferPool.returnInflater(inflater, gzip);
+			inflater = null;
+		}
+		if (buffer != null) {
+			BufferPool.returnBytes(buffer);
+			buffer = null;
+		}
+	}
+
+	private void readGzipHeader() throws IOException {
+		if (readUShort(in) != 0x8b1f) {
+			throw new ZipException("Not in GZIP format");
+		}
+		if (readUByte(in) != 8) {
+			throw new ZipException("Unsupported compression method");
+		}
+		final int flags = readUByte(in);
+		// modification time, extra flags, operating system
+		skipBytes(in, 6);
+		if ((flags & FEXTRA) != 0) {
+			skipBytes(in, readUShort(in));
+		}
+		if ((flags & FNAME) != 0) {
+			while (readUByte(in) != 0) {
+				// skip file name
+			}
+		}
+		if ((flags & FCOMMENT) != 0) {
+			while (readUByte(in) != 0) {
+				// skip comment
+			}
+		}
+		if ((flags & FHCRC) != 0) {
+			skipBytes(in, 2);
+		}
+	}
+
+	private void readGzipTrailer() throws IOException {
+		final int remaining = inflater.getRemaining();
+		InputStream trailer = in;
+		if (remaining > 0) {
+			trailer = new SequenceInputStream(
+					new ByteArrayInputStream(buffer, bufferLength - remaining, remaining), in);
+		}
+		final long expectedCrc = readUInt(trailer);
+		final long expectedSize = readUInt(trailer);
+		if (expectedCrc != crc.getValue() || expectedSize != (inflater.getBytesWritten() & 0xffffffffL)) {
+			throw new ZipException("Corrupt GZIP trailer");
+		}
+	}
+
+	private static long readUInt(final InputStream stream) throws IOException {
+		return readUShort(stream) | ((long) readUShort(stream) << 16);
+	}
+
+	private static int readUShort(final InputStream stream) throws IOException {
+		return readUByte(stream) | (readUByte(stream) << 8);
+	}
+
+	private static int readUByte(final InputStream stream) throws IOException {
+		final int b = stream.read();
+		if (b == -1) {
+			throw new EOFException("Unexpected end of GZIP data");
+		}
+		return b;
+	}
+
+	private static void skipBytes(final InputStream stream, final int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			readUByte(stream);
+		}
+	}
+}
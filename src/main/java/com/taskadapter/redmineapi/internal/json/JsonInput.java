@@ -5,12 +5,46 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 public class JsonInput {
+	/**
+	 * Parallel parsing settings, null when arrays are parsed on the calling
+	 * thread.
+	 */
+	private static volatile ParallelParsing parallelParsing;
+
+	/**
+	 * Parses arrays of "threshold" or more objects on the fork-join pool.
+	 * Smaller arrays are parsed on the calling thread. Item order is kept.
+	 * Parsing in parallel pays off for CPU-heavy pages only (e.g. issues with
+	 * journals and relations), so it is disabled by default. Item parsers must
+	 * be thread-safe, parsers of {@link com.taskadapter.redmineapi.internal.RedmineJSONParser} are.
+	 *
+	 * @param pool pool running parse tasks.
+	 * @param threshold minimal array length to parse in parallel.
+	 */
+	public static void setParallelParsing(final ForkJoinPool pool, final int threshold) {
+		if (threshold < 2) {
+			throw new IllegalArgumentException("Parallel parsing threshold must be >= 2. You provided: "
+					+ threshold);
+		}
+		parallelParsing = new ParallelParsing(pool, threshold);
+	}
+
+	/**
+	 * Parses all arrays on the calling thread again.
+	 */
+	public static void disableParallelParsing() {
+		parallelParsing = null;
+	}
+
 	/**
 	 * Returns a json array as "not-null" value.
 	 *
@@ -151,12 +185,7 @@ public class JsonInput {
 	public static <T> List<T> getListNotNull(final JSONObject obj, final String field,
 			final JsonObjectParser<T> parser) throws JSONException {
 		final JSONArray items = getArrayNotNull(obj, field);
-		final int length = items.length();
-		final List<T> result = new ArrayList<T>(length);
-		for (int i = 0; i < length; i++) {
-			result.add(parser.parse(items.getJSONObject(i)));
-		}
-		return result;
+		return parseItems(items, parser);
 	}
 
 	/**
@@ -181,12 +210,7 @@ public class JsonInput {
 		if (items == null) {
 			return new ArrayList<T>();
 		}
-		final int length = items.length();
-		final List<T> result = new ArrayList<T>(length);
-		for (int i = 0; i < length; i++) {
-			result.add(parser.parse(items.getJSONObject(i)));
-		}
-		return result;
+		return parseItems(items, parser);
 	}
 
 	/**
@@ -208,12 +232,7 @@ public class JsonInput {
 			return null;
 		}
 		final JSONArray items = obj.getJSONArray(field);
-		final int length = items.length();
-		final List<T> result = new ArrayList<T>(length);
-		for (int i = 0; i < length; i++) {
-			result.add(parser.parse(items.getJSONObject(i)));
-		}
-		return result;
+		return parseItems(items, parser);
 	}
 
 	/**
@@ -376,4 +395,109 @@ public class JsonInput {
 		}
 		return obj.getString(field);
 	}
+
+	private static <T> List<T> parseItems(final JSONArray items, final JsonObjectParser<T> parser)
+			throws JSONException {
+		final int length = items.length();
+		final ParallelParsing parallel = parallelParsing;
+		if (parallel != null && length >= parallel.threshold) {
+			return parseInParallel(items, parser, parallel);
+		}
+		final List<T> result = new ArrayList<T>(length);
+		for (int i = 0; i < length; i++) {
+			result.add(parser.parse(items.getJSONObject(i)));
+		}
+		return result;
+	}
+
+	private static <T> List<T> parseInParallel(final JSONArray items, final JsonObjectParser<T> parser,
+			final ParallelParsing parallel) throws JSONException {
+		final int length = items.length();
+		final Object[] parsed = new Object[length];
+		/* Enough chunks for work stealing, but not smaller than a few items */
+		final int chunk = Math.max(4, length / (parallel.pool.getParallelism() * 4));
+		final ParseTask task = new ParseTask(items, parser, parsed, 0, length, chunk);
+		try {
+			if (ForkJoinTask.inForkJoinPool()) {
+				task.invoke();
+			} else {
+				parallel.pool.invoke(task);
+			}
+		} catch (final ParseFailure e) {
+			throw (JSONException) e.getCause();
+		}
+		final List<T> result = new ArrayList<T>(length);
+		for (final Object item : parsed) {
+			@SuppressWarnings("unchecked")
+			final T typed = (T) item;
+			result.add(typed);
+		}
+		return result;
+	}
+
+	private static final class ParallelParsing {
+		final ForkJoinPool pool;
+		final int threshold;
+
+		ParallelParsing(final ForkJoinPool pool, final int threshold) {
+			if (pool == null) {
+				throw new IllegalArgumentException("Fork-join pool must not be null");
+			}
+			this.pool = pool;
+			this.threshold = threshold;
+		}
+	}
+
+	/**
+	 * Parses a range of array items into the same positions of the result
+	 * array.
+	 */
+	private static final class ParseTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final JSONArray items;
+		private final JsonObjectParser<?> parser;
+		private final Object[] parsed;
+		private final int from;
+		private final int to;
+		private final int chunk;
+
+		ParseTask(final JSONArray items, final JsonObjectParser<?> parser, final Object[] parsed,
+				final int from, final int to, final int chunk) {
+			this.items = items;
+			this.parser = parser;
+			this.parsed = parsed;
+			this.from = from;
+			this.to = to;
+			this.chunk = chunk;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= chunk) {
+				try {
+					for (int i = from; i < to; i++) {
+						parsed[i] = parser.parse(items.getJSONObject(i));
+					}
+				} catch (final JSONException e) {
+					throw new ParseFailure(e);
+				}
+				return;
+			}
+			final int middle = (from + to) >>> 1;
+			invokeAll(new ParseTask(items, parser, parsed, from, middle, chunk),
+					new ParseTask(items, parser, parsed, middle, to, chunk));
+		}
+	}
+
+	/**
+	 * Carries a checked parse exception out of a fork-join task.
+	 */
+	private static final class ParseFailure extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		ParseFailure(final JSONException cause) {
+			super(cause);
+		}
+	}
 }
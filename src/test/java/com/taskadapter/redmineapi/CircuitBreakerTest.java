@@ -0,0 +1,154 @@
+package com.taskadapter.redmineapi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.junit.Test;
+
+import com.taskadapter.redmineapi.internal.comm.CircuitBreakingCommunicator;
+import com.taskadapter.redmineapi.internal.comm.Communicator;
+import com.taskadapter.redmineapi.internal.comm.Communicators;
+import com.taskadapter.redmineapi.internal.comm.ContentHandler;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class CircuitBreakerTest {
+    private static final CircuitBreakerConfig CONFIG = CircuitBreakerConfig.create()
+            .withSlidingWindow(4, 4)
+            .withFailureRateThreshold(50)
+            .withSlowCallThreshold(100, 1000)
+            .withOpenState(50, 2);
+
+    @Test
+    public void breakerOpensWhenFailureRateIsReached() throws RedmineException {
+        final CircuitBreaker breaker = CircuitBreaker.create(CONFIG);
+        call(breaker, true);
+        call(breaker, false);
+        call(breaker, true);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        call(breaker, false);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void openBreakerRejectsCalls() throws RedmineException {
+        final CircuitBreaker breaker = openBreaker();
+        try {
+            breaker.acquirePermission();
+            fail("must not be permitted");
+        } catch (RedmineCircuitOpenException e) {
+            assertThat(breaker.getNotPermittedCalls()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void breakerClosesAfterSuccessfulTrialCalls() throws Exception {
+        final CircuitBreaker breaker = openBreaker();
+        Thread.sleep(60);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        call(breaker, true);
+        call(breaker, true);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void breakerOpensAgainAfterFailedTrialCalls() throws Exception {
+        final CircuitBreaker breaker = openBreaker();
+        Thread.sleep(60);
+        call(breaker, false);
+        call(breaker, false);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void brokenTrialCallsDoNotCloseBreaker() throws Exception {
+        final CircuitBreaker breaker = openBreaker();
+        Thread.sleep(60);
+        final Communicator<HttpResponse> communicator = new CircuitBreakingCommunicator(
+                new Communicator<HttpResponse>() {
+                    @Override
+                    public <R> R sendRequest(HttpRequest request, ContentHandler<HttpResponse, R> handler)
+                            throws RedmineException {
+                        throw new RedmineFormatException("bad response");
+                    }
+                }, breaker);
+        try {
+            communicator.sendRequest(new HttpGet("http://host"), Communicators.httpResponseCodeReader());
+            fail("must fail");
+        } catch (RedmineFormatException e) {
+            // expected
+        }
+        final Communicator<HttpResponse> broken = new CircuitBreakingCommunicator(
+                new Communicator<HttpResponse>() {
+                    @Override
+                    public <R> R sendRequest(HttpRequest request, ContentHandler<HttpResponse, R> handler) {
+                        throw new IllegalStateException("bug");
+                    }
+                }, breaker);
+        for (int i = 0; i < 3; i++) {
+            try {
+                broken.sendRequest(new HttpGet("http://host"), Communicators.httpResponseCodeReader());
+                fail("must fail");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.getBufferedCalls()).isEqualTo(1);
+        call(breaker, false);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void slowCallsOpenBreaker() throws RedmineException {
+        final CircuitBreaker breaker = CircuitBreaker.create(CONFIG);
+        for (int i = 0; i < 4; i++) {
+            breaker.acquirePermission();
+            breaker.onSuccess(2000);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void listenersReceiveTransitions() throws Exception {
+        final CircuitBreaker breaker = CircuitBreaker.create(CONFIG);
+        final List<CircuitBreaker.State> states = new ArrayList<CircuitBreaker.State>();
+        breaker.addListener(new CircuitBreaker.StateListener() {
+            @Override
+            public void onStateTransition(CircuitBreaker source, CircuitBreaker.State from, CircuitBreaker.State to) {
+                states.add(to);
+            }
+        });
+        for (int i = 0; i < 4; i++) {
+            call(breaker, false);
+        }
+        Thread.sleep(60);
+        call(breaker, true);
+        call(breaker, true);
+        assertThat(states).containsExactly(CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN,
+                CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getStateTransitions()).isEqualTo(3);
+    }
+
+    private static CircuitBreaker openBreaker() throws RedmineException {
+        final CircuitBreaker breaker = CircuitBreaker.create(CONFIG);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, false);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        return breaker;
+    }
+
+    private static void call(CircuitBreaker breaker, boolean success) throws RedmineException {
+        breaker.acquirePermission();
+        if (success) {
+            breaker.onSuccess(1);
+        } else {
+            breaker.onError(1);
+        }
+    }
+}
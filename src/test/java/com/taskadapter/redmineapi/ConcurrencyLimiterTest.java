@@ -0,0 +1,97 @@
+package com.taskadapter.redmineapi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Test;
+
+import com.taskadapter.redmineapi.internal.comm.Communicator;
+import com.taskadapter.redmineapi.internal.comm.ConcurrencyLimitingCommunicator;
+import com.taskadapter.redmineapi.internal.comm.ContentHandler;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    public void callersWaitWhenLimitIsReached() throws InterruptedException {
+        final ConcurrencyLimiter limiter = ConcurrencyLimiter.create(2, 1, 10);
+        limiter.acquire();
+        limiter.acquire();
+        assertThat(limiter.tryAcquire(10, TimeUnit.MILLISECONDS)).isFalse();
+        limiter.release();
+        assertThat(limiter.tryAcquire(10, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    public void limitGrowsWhileLatencyIsStable() throws InterruptedException {
+        final ConcurrencyLimiter limiter = ConcurrencyLimiter.create(2, 1, 10);
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire();
+            limiter.release(FAST, false);
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(2);
+        assertThat(limiter.getBaselineLatencyMillis()).isEqualTo(10);
+    }
+
+    @Test
+    public void limitDropsOnErrorsAndSlowResponses() throws InterruptedException {
+        final ConcurrencyLimiter limiter = ConcurrencyLimiter.create(10, 2, 10, 0.5, 2);
+        limiter.acquire();
+        limiter.release(FAST, false);
+        limiter.acquire();
+        limiter.release(SLOW, false);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        // requests started after the decrease
+        limiter.acquire();
+        limiter.release(0, true);
+        limiter.acquire();
+        limiter.release(0, true);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void requestsInFlightDuringDecreaseDecreaseOnlyOnce() throws InterruptedException {
+        final ConcurrencyLimiter limiter = ConcurrencyLimiter.create(10, 1, 10, 0.5, 2);
+        limiter.acquire();
+        limiter.release(FAST, false);
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+        }
+        for (int i = 0; i < 5; i++) {
+            limiter.release(SLOW, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        assertThat(limiter.getBaselineLatencyMillis()).as("slow samples are not in the baseline").isEqualTo(10);
+    }
+
+    @Test
+    public void permitIsHeldWhileResponseIsProcessed() throws RedmineException {
+        final ConcurrencyLimiter limiter = ConcurrencyLimiter.create(2, 1, 10);
+        final Communicator<HttpResponse> communicator = new ConcurrencyLimitingCommunicator(
+                new Communicator<HttpResponse>() {
+                    @Override
+                    public <R> R sendRequest(HttpRequest request, ContentHandler<HttpResponse, R> handler)
+                            throws RedmineException {
+                        return handler.processContent(new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK"));
+                    }
+                }, limiter);
+        final int inFlight = communicator.sendRequest(new HttpGet("http://host"),
+                new ContentHandler<HttpResponse, Integer>() {
+                    @Override
+                    public Integer processContent(HttpResponse content) {
+                        return limiter.getInFlight();
+                    }
+                });
+        assertThat(inFlight).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isEqualTo(0);
+    }
+}
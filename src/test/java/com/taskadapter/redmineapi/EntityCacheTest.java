@@ -0,0 +1,246 @@
+package com.taskadapter.redmineapi;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Test;
+
+import com.taskadapter.redmineapi.bean.Issue;
+import com.taskadapter.redmineapi.bean.Project;
+import com.taskadapter.redmineapi.bean.ProjectFactory;
+import com.taskadapter.redmineapi.bean.User;
+import com.taskadapter.redmineapi.internal.Transport;
+import com.taskadapter.redmineapi.internal.URIConfigurator;
+import com.taskadapter.redmineapi.internal.comm.Communicator;
+import com.taskadapter.redmineapi.internal.comm.ContentHandler;
+
+public class EntityCacheTest {
+
+    /**
+     * Counts requests and answers with the same issue and project.
+     */
+    private static final class CountingCommunicator implements Communicator<HttpResponse> {
+        final AtomicInteger requests = new AtomicInteger();
+
+        @Override
+        public <R> R sendRequest(HttpRequest request, ContentHandler<HttpResponse, R> handler)
+                throws RedmineException {
+            requests.incrementAndGet();
+            final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+            response.setEntity(new StringEntity("{\"issue\":{\"id\":1,\"subject\":\"s\"},"
+                    + "\"project\":{\"id\":7,\"identifier\":\"demo\",\"name\":\"Demo\"}}", "UTF-8"));
+            return handler.processContent(response);
+        }
+    }
+
+    /**
+     * Answers "404 not found" to all requests except creation of projects.
+     */
+    private static final class NotFoundCommunicator implements Communicator<HttpResponse> {
+        final AtomicInteger requests = new AtomicInteger();
+
+        @Override
+        public <R> R sendRequest(HttpRequest request, ContentHandler<HttpResponse, R> handler)
+                throws RedmineException {
+            requests.incrementAndGet();
+            if ("POST".equals(request.getRequestLine().getMethod())) {
+                final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 201, "Created");
+                response.setEntity(new StringEntity("{\"project\":{\"id\":8,\"identifier\":\"foo\",\"name\":\"Foo\"}}", "UTF-8"));
+                return handler.processContent(response);
+            }
+            final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 404, "Not Found");
+            response.setEntity(new StringEntity("<html>not found</html>", "UTF-8"));
+            return handler.processContent(response);
+        }
+    }
+
+    /**
+     * Keeps the subject of issue 1, PUT changes it. Runs the hook during the
+     * write, before the new subject is stored.
+     */
+    private static final class IssueStoreCommunicator implements Communicator<HttpResponse> {
+        volatile String subject = "old";
+        volatile Callable<?> duringWrite;
+
+        @Override
+        public <R> R sendRequest(HttpRequest request, ContentHandler<HttpResponse, R> handler)
+                throws RedmineException {
+            if ("PUT".equals(request.getRequestLine().getMethod())) {
+                try {
+                    duringWrite.call();
+                } catch (Exception e) {
+                    throw new RedmineException(e.getMessage(), e);
+                }
+                subject = "new";
+            }
+            final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+            response.setEntity(new StringEntity("{\"issue\":{\"id\":1,\"subject\":\"" + subject + "\"}}", "UTF-8"));
+            return handler.processContent(response);
+        }
+    }
+
+    @Test
+    public void repeatedLookupsAreAnsweredFromCache() throws RedmineException {
+        final EntityCache cache = EntityCache.create(100, 60000);
+        final CountingCommunicator communicator = new CountingCommunicator();
+        final RedmineManager manager = createManager(cache, communicator);
+
+        final Issue first = manager.getIssueManager().getIssueById(1, Include.journals, Include.relations);
+        final Issue second = manager.getIssueManager().getIssueById(1, Include.relations, Include.journals);
+
+        assertThat(communicator.requests.get()).isEqualTo(1);
+        assertThat(second.getSubject()).isEqualTo("s");
+        assertThat(second).isNotSameAs(first);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+
+        manager.getIssueManager().getIssueById(1);
+        assertThat(communicator.requests.get()).as("other includes are another entry").isEqualTo(2);
+    }
+
+    @Test
+    public void updatesAndDeletesInvalidateEntries() throws RedmineException {
+        final EntityCache cache = EntityCache.create(100, 60000);
+        final CountingCommunicator communicator = new CountingCommunicator();
+        final RedmineManager manager = createManager(cache, communicator);
+
+        final Issue issue = manager.getIssueManager().getIssueById(1);
+        manager.getIssueManager().update(issue);
+        manager.getIssueManager().getIssueById(1);
+        assertThat(communicator.requests.get()).isEqualTo(3);
+
+        final Project project = manager.getProjectManager().getProjectByKey("demo");
+        manager.getProjectManager().getProjectById(7);
+        final int beforeUpdate = communicator.requests.get();
+        manager.getProjectManager().update(project);
+        manager.getProjectManager().getProjectByKey("demo");
+        manager.getProjectManager().getProjectById(7);
+        assertThat(communicator.requests.get()).as("both keys of the project are invalidated")
+                .isEqualTo(beforeUpdate + 3);
+        assertThat(cache.getInvalidationCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void readDuringUpdateDoesNotCacheOldState() throws Exception {
+        final EntityCache cache = EntityCache.create(100, 60000);
+        final IssueStoreCommunicator communicator = new IssueStoreCommunicator();
+        final RedmineManager manager = createManager(cache, communicator);
+        final Issue issue = manager.getIssueManager().getIssueById(1);
+        final ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            communicator.duringWrite = new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return reader.submit(new Callable<Issue>() {
+                        @Override
+                        public Issue call() throws RedmineException {
+                            return manager.getIssueManager().getIssueById(1);
+                        }
+                    }).get();
+                }
+            };
+            issue.setSubject("new");
+            manager.getIssueManager().update(issue);
+        } finally {
+            reader.shutdown();
+        }
+        assertThat(manager.getIssueManager().getIssueById(1).getSubject()).isEqualTo("new");
+    }
+
+    @Test
+    public void entriesAreNotSharedBetweenUsers() throws RedmineException {
+        final EntityCache cache = EntityCache.create(100, 60000);
+        final CountingCommunicator communicator = new CountingCommunicator();
+        final RedmineManager manager = createManager(cache, communicator);
+
+        manager.getIssueManager().getIssueById(1);
+        manager.as("jsmith").getIssueManager().getIssueById(1);
+        manager.withContext(RequestContext.create().withApiKey("other")).getIssueManager().getIssueById(1);
+        assertThat(communicator.requests.get()).isEqualTo(3);
+
+        manager.as("jsmith").getIssueManager().getIssueById(1);
+        assertThat(communicator.requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void missingObjectsAreRememberedForAShortTime() throws RedmineException {
+        final EntityCache cache = EntityCache.create(100, 60000);
+        cache.setMissingTimeToLive(60000);
+        final NotFoundCommunicator communicator = new NotFoundCommunicator();
+        final RedmineManager manager = createManager(cache, communicator);
+
+        assertThat(manager.getProjectManager().findProjectByKey("foo")).isNull();
+        assertThat(manager.getProjectManager().findProjectByKey("foo")).isNull();
+        try {
+            manager.getProjectManager().getProjectByKey("foo");
+            fail("Missing project must not be returned");
+        } catch (NotFoundException e) {
+            // expected
+        }
+        assertThat(communicator.requests.get()).isEqualTo(1);
+        assertThat(cache.getMissingHitCount()).isEqualTo(2);
+
+        manager.getProjectManager().createProject(ProjectFactory.create("Foo", "foo"));
+        assertThat(manager.getProjectManager().findProjectByKey("foo")).as("created projects are not missing")
+                .isNull();
+        assertThat(communicator.requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void findDoesNotRememberMissingObjectsByDefault() throws RedmineException {
+        final NotFoundCommunicator communicator = new NotFoundCommunicator();
+        final RedmineManager manager = createManager(EntityCache.create(100, 60000), communicator);
+
+        assertThat(manager.getUserManager().findGroupByName("admins")).isNull();
+        assertThat(manager.getIssueManager().findIssueById(5)).isNull();
+        assertThat(manager.getIssueManager().findIssueById(5)).isNull();
+        assertThat(communicator.requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void entriesUsedAgainSurviveOneOffLookups() {
+        final EntityCache cache = EntityCache.create(10, 60000);
+        cache.put(Issue.class, "1", 1, "", "hot");
+        assertThat(cache.get(Issue.class, "1", "")).isEqualTo("hot");
+        for (int i = 100; i < 120; i++) {
+            cache.put(Issue.class, Integer.toString(i), i, "", "cold");
+        }
+        assertThat(cache.size()).isEqualTo(10);
+        assertThat(cache.getEvictionCount()).isEqualTo(11);
+        assertThat(cache.get(Issue.class, "1", "")).isEqualTo("hot");
+        assertThat(cache.get(Issue.class, "100", "")).isNull();
+    }
+
+    @Test
+    public void timeToLiveIsSetPerType() throws InterruptedException {
+        final EntityCache cache = EntityCache.create(10, 60000);
+        cache.setTimeToLive(User.class, 1);
+        cache.setTimeToLive(Project.class, 0);
+        cache.put(User.class, "1", 1, "", "user");
+        cache.put(Project.class, "1", 1, "", "project");
+        cache.put(Issue.class, "1", 1, "", "issue");
+        Thread.sleep(10);
+
+        assertThat(cache.get(User.class, "1", "")).isNull();
+        assertThat(cache.get(Project.class, "1", "")).isNull();
+        assertThat(cache.get(Issue.class, "1", "")).isEqualTo("issue");
+        assertThat(cache.getExpirationCount()).isEqualTo(1);
+        assertThat(cache.getHitRate()).isEqualTo(1f / 3);
+    }
+
+    private static RedmineManager createManager(EntityCache cache, Communicator<HttpResponse> communicator) {
+        final Transport transport = new Transport(new URIConfigurator("http://host", "key"), null, communicator);
+        transport.setEntityCache(cache);
+        return new RedmineManager(transport, null);
+    }
+}
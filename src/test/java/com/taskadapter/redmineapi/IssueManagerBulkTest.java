@@ -0,0 +1,170 @@
+package com.taskadapter.redmineapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.taskadapter.redmineapi.bean.Issue;
+import com.taskadapter.redmineapi.bean.IssueFactory;
+import com.taskadapter.redmineapi.bean.Project;
+import com.taskadapter.redmineapi.bean.ProjectFactory;
+import com.taskadapter.redmineapi.internal.InMemoryTransport;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class IssueManagerBulkTest {
+    private InMemoryTransport transport;
+    private IssueManager issueManager;
+    private Project project;
+
+    @Before
+    public void setUp() throws RedmineException {
+        transport = new InMemoryTransport();
+        final RedmineManager mgr = new RedmineManager(transport, null);
+        issueManager = mgr.getIssueManager();
+        project = mgr.getProjectManager().createProject(ProjectFactory.create("test", "test-key"));
+    }
+
+    @Test
+    public void issuesAreLoadedByIdsInSeveralChunks() throws RedmineException {
+        final List<Integer> ids = new ArrayList<Integer>();
+        for (int i = 0; i < 250; i++) {
+            ids.add(issueManager.createIssue(IssueFactory.create(project.getId(), "issue " + i)).getId());
+        }
+        transport.setObjectsPerPage(30);
+        final ObjectsByIds<Issue> result = issueManager.getIssuesByIds(ids);
+        assertThat(result.isComplete()).isTrue();
+        assertThat(new ArrayList<Integer>(result.getObjects().keySet())).isEqualTo(ids);
+        assertThat(result.get(ids.get(123)).getSubject()).isEqualTo("issue 123");
+    }
+
+    @Test
+    public void missingIdsAreReported() throws RedmineException {
+        final Issue first = issueManager.createIssue(IssueFactory.create(project.getId(), "first"));
+        final Issue second = issueManager.createIssue(IssueFactory.create(project.getId(), "second"));
+        issueManager.deleteIssue(second.getId());
+        final ObjectsByIds<Issue> result = issueManager.getIssuesByIds(
+                Arrays.asList(first.getId(), second.getId(), 100500, first.getId()));
+        assertThat(result.getObjects().keySet()).containsOnly(first.getId());
+        assertThat(result.getMissingIds()).containsOnly(second.getId(), 100500);
+    }
+
+    @Test
+    public void issuesAreCreatedInParallelWithProgress() throws RedmineException {
+        final List<Issue> issues = new ArrayList<Issue>();
+        for (int i = 0; i < 20; i++) {
+            issues.add(IssueFactory.create(project.getId(), "issue " + i));
+        }
+        final AtomicInteger lastCompleted = new AtomicInteger();
+        final BulkResult<Issue> result = issueManager.createIssues(issues, 5, new BulkProgressListener<Issue>() {
+            @Override
+            public void onItemCompleted(BulkItemResult<Issue> item, int completed, int total) {
+                assertThat(total).isEqualTo(20);
+                lastCompleted.set(Math.max(lastCompleted.get(), completed));
+            }
+        });
+        assertThat(result.hasFailures()).isFalse();
+        assertThat(lastCompleted.get()).isEqualTo(20);
+        assertThat(result.getItems().get(7).getResult().getSubject()).isEqualTo("issue 7");
+        assertThat(result.getItems().get(7).getResult().getId()).isNotNull();
+        assertThat(issueManager.getIssues(project.getIdentifier(), null)).hasSize(20);
+    }
+
+    @Test
+    public void failedUpdateDoesNotStopOthers() throws RedmineException {
+        final Issue first = issueManager.createIssue(IssueFactory.create(project.getId(), "first"));
+        final Issue second = issueManager.createIssue(IssueFactory.create(project.getId(), "second"));
+        final Issue third = issueManager.createIssue(IssueFactory.create(project.getId(), "third"));
+        issueManager.deleteIssue(second.getId());
+        first.setSubject("first updated");
+        third.setSubject("third updated");
+        final BulkResult<Issue> result = issueManager.updateIssues(Arrays.asList(first, second, third));
+        assertThat(result.getFailures()).hasSize(1);
+        assertThat(result.getFailures().get(0).getIndex()).isEqualTo(1);
+        assertThat(result.getFailures().get(0).getException()).isInstanceOf(NotFoundException.class);
+        assertThat(issueManager.getIssueById(third.getId()).getSubject()).isEqualTo("third updated");
+    }
+
+    @Test
+    public void issueWithoutIdFailsAloneAndListenerErrorsAreIgnored() throws RedmineException {
+        final Issue first = issueManager.createIssue(IssueFactory.create(project.getId(), "first"));
+        final Issue third = issueManager.createIssue(IssueFactory.create(project.getId(), "third"));
+        first.setSubject("first updated");
+        third.setSubject("third updated");
+        final Issue withoutId = IssueFactory.create(project.getId(), "no id");
+        final BulkResult<Issue> result = issueManager.updateIssues(Arrays.asList(first, withoutId, third), 2,
+                new BulkProgressListener<Issue>() {
+                    @Override
+                    public void onItemCompleted(BulkItemResult<Issue> item, int completed, int total) {
+                        throw new IllegalStateException("listener failure");
+                    }
+                });
+        assertThat(result.getFailures()).hasSize(1);
+        assertThat(result.getFailures().get(0).getIndex()).isEqualTo(1);
+        assertThat(result.getFailures().get(0).getItem()).isSameAs(withoutId);
+        assertThat(result.getFailures().get(0).getException()).isNotNull();
+        assertThat(issueManager.getIssueById(first.getId()).getSubject()).isEqualTo("first updated");
+        assertThat(issueManager.getIssueById(third.getId()).getSubject()).isEqualTo("third updated");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidParallelismIsRejectedForSingleIssue() throws RedmineException {
+        issueManager.createIssues(Collections.singletonList(IssueFactory.create(project.getId(), "issue")), 0, null);
+    }
+
+    @Test
+    public void deleteTreatsMissingIssuesAsDeleted() throws RedmineException {
+        final List<Integer> ids = new ArrayList<Integer>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(issueManager.createIssue(IssueFactory.create(project.getId(), "issue " + i)).getId());
+        }
+        issueManager.deleteIssue(ids.get(3));
+        final BulkResult<Integer> result = issueManager.deleteIssues(ids, 3);
+        result.checkFailures();
+        assertThat(result.getResults()).isEqualTo(ids);
+        assertThat(issueManager.getIssues(project.getIdentifier(), null)).isEmpty();
+    }
+
+    @Test
+    public void keysetPagingLoadsAllIssuesInIdOrder() throws RedmineException {
+        final List<Integer> ids = new ArrayList<Integer>();
+        for (int i = 0; i < 230; i++) {
+            ids.add(issueManager.createIssue(IssueFactory.create(project.getId(), "issue " + i)).getId());
+        }
+        issueManager.deleteIssue(ids.remove(150));
+        final List<Issue> issues = issueManager.getIssuesInIdOrder(Collections.<String, String>emptyMap());
+        final List<Integer> loaded = new ArrayList<Integer>();
+        for (final Issue issue : issues) {
+            loaded.add(issue.getId());
+        }
+        assertThat(loaded).isEqualTo(ids);
+    }
+
+    @Test
+    public void issuesAreCountedWithoutLoading() throws RedmineException {
+        final Project other = transport.put(ProjectFactory.create("other", "other-key"));
+        for (int i = 0; i < 40; i++) {
+            issueManager.createIssue(IssueFactory.create(i < 30 ? project.getId() : other.getId(), "issue " + i));
+        }
+        assertThat(issueManager.countIssues(Collections.<String, String>emptyMap())).isEqualTo(40);
+
+        final Map<String, Map<String, String>> queries = new LinkedHashMap<String, Map<String, String>>();
+        for (final Project each : Arrays.asList(project, other)) {
+            final Map<String, String> query = new HashMap<String, String>();
+            query.put("project_id", each.getIdentifier());
+            queries.put(each.getIdentifier(), query);
+        }
+        final Map<String, Integer> counts = issueManager.countIssuesBatch(queries);
+        assertThat(new ArrayList<String>(counts.keySet())).isEqualTo(Arrays.asList("test-key", "other-key"));
+        assertThat(counts.get("test-key")).isEqualTo(30);
+        assertThat(counts.get("other-key")).isEqualTo(10);
+    }
+}
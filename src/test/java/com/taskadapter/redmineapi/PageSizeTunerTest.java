@@ -0,0 +1,70 @@
+package com.taskadapter.redmineapi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.taskadapter.redmineapi.bean.Issue;
+import com.taskadapter.redmineapi.bean.Tracker;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class PageSizeTunerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    public void firstPageRequestsMaximumSize() {
+        final PageSizeTuner tuner = PageSizeTuner.create(10, 500, 100000, 1000);
+        assertThat(tuner.getPageSize(Issue.class, null)).isEqualTo(500);
+        assertThat(tuner.getServerMaxPageSize()).isEqualTo(-1);
+    }
+
+    @Test
+    public void serverCapIsDetectedFromTruncatedPage() {
+        final PageSizeTuner tuner = PageSizeTuner.create(10, 500, 1000000, 1000);
+        tuner.onPage(Tracker.class, null, 500, 0, 100, 300, 10000, FAST);
+        assertThat(tuner.getServerMaxPageSize()).isEqualTo(100);
+        assertThat(tuner.getPageSize(Tracker.class, null)).isEqualTo(100);
+        assertThat(tuner.getPageSize(Issue.class, null)).isEqualTo(100);
+    }
+
+    @Test
+    public void lastPageDoesNotLookLikeCap() {
+        final PageSizeTuner tuner = PageSizeTuner.create(10, 500, 1000000, 1000);
+        tuner.onPage(Tracker.class, null, 500, 0, 7, 7, 700, FAST);
+        assertThat(tuner.getServerMaxPageSize()).isEqualTo(-1);
+    }
+
+    @Test
+    public void shortPageInTheMiddleDoesNotLowerCap() {
+        final PageSizeTuner tuner = PageSizeTuner.create(10, 500, 1000000, 1000);
+        tuner.onPage(Tracker.class, null, 500, 0, 100, 300, 10000, FAST);
+        tuner.onPage(Tracker.class, null, 100, 100, 37, 300, 3700, FAST);
+        assertThat(tuner.getServerMaxPageSize()).isEqualTo(100);
+    }
+
+    @Test
+    public void capRisesWhenLargerPageIsReturnedInFull() {
+        final PageSizeTuner tuner = PageSizeTuner.create(10, 500, 1000000, 1000);
+        tuner.onPage(Tracker.class, null, 500, 0, 100, 1000, 10000, FAST);
+        tuner.onPage(Tracker.class, null, 200, 0, 200, 1000, 20000, FAST);
+        assertThat(tuner.getServerMaxPageSize()).isEqualTo(200);
+    }
+
+    @Test
+    public void heavyObjectsGetSmallerPages() {
+        final PageSizeTuner tuner = PageSizeTuner.create(10, 500, 100000, 10000);
+        tuner.onPage(Issue.class, "journals", 100, 0, 100, 1000, 100 * 5000, FAST);
+        tuner.onPage(Issue.class, null, 100, 0, 100, 1000, 100 * 500, FAST);
+        assertThat(tuner.getPageSize(Issue.class, "journals")).isEqualTo(20);
+        assertThat(tuner.getPageSize(Issue.class, null)).isEqualTo(200);
+    }
+
+    @Test
+    public void slowResponsesShrinkPages() {
+        final PageSizeTuner tuner = PageSizeTuner.create(10, 500, 1000000, 1000);
+        tuner.onPage(Issue.class, null, 100, 0, 100, 1000, 1000, TimeUnit.SECONDS.toNanos(4));
+        assertThat(tuner.getPageSize(Issue.class, null)).isEqualTo(25);
+    }
+}
@@ -0,0 +1,99 @@
+package com.taskadapter.redmineapi;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.taskadapter.redmineapi.bean.Project;
+import com.taskadapter.redmineapi.bean.ProjectFactory;
+import com.taskadapter.redmineapi.internal.InMemoryTransport;
+
+public class ProjectIndexTest {
+    private ProjectManager projectManager;
+    private RedmineManager manager;
+    private Project root;
+    private Project child;
+    private Project grandChild;
+    private Project other;
+
+    @Before
+    public void setUp() throws RedmineException {
+        manager = new RedmineManager(new InMemoryTransport(), null);
+        projectManager = manager.getProjectManager();
+        root = create("root", null);
+        child = create("child", root);
+        grandChild = create("grand-child", child);
+        other = create("other", null);
+    }
+
+    @Test
+    public void identifiersAreResolvedToIds() throws RedmineException {
+        final ProjectIndex index = ProjectIndex.create(manager);
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.getId("child")).isEqualTo(child.getId());
+        assertThat(index.getId("missing")).isNull();
+        assertThat(index.getProject(other.getId()).getIdentifier()).isEqualTo("other");
+        assertThat(index.getProject("grand-child").getId()).isEqualTo(grandChild.getId());
+    }
+
+    @Test
+    public void hierarchyIsAnsweredLocally() throws RedmineException {
+        final ProjectIndex index = ProjectIndex.create(manager);
+        assertThat(identifiers(index.getRoots())).containsOnly("root", "other");
+        assertThat(index.getParent(grandChild.getId()).getIdentifier()).isEqualTo("child");
+        assertThat(index.getParent(root.getId())).isNull();
+        assertThat(identifiers(index.getChildren(root.getId()))).containsExactly("child");
+        assertThat(identifiers(index.getDescendants(root.getId()))).containsExactly("child", "grand-child");
+        assertThat(identifiers(index.getAncestors(grandChild.getId()))).containsExactly("child", "root");
+        assertThat(index.isInSubtree(root.getId(), grandChild.getId())).isTrue();
+        assertThat(index.isInSubtree(root.getId(), root.getId())).isTrue();
+        assertThat(index.isInSubtree(child.getId(), root.getId())).isFalse();
+        assertThat(index.isInSubtree(other.getId(), child.getId())).isFalse();
+        assertThat(index.getDescendants(12345)).isEmpty();
+    }
+
+    @Test
+    public void refreshAddsNewAndMovedProjects() throws RedmineException {
+        final ProjectIndex index = ProjectIndex.create(manager);
+        create("new-one", other);
+        final Project moved = projectManager.getProjectById(child.getId());
+        moved.setParentId(other.getId());
+        projectManager.update(moved);
+
+        assertThat(index.refresh()).isEqualTo(2);
+        assertThat(index.getId("new-one")).isNotNull();
+        assertThat(identifiers(index.getDescendants(other.getId()))).containsOnly("child", "grand-child", "new-one");
+        assertThat(index.getDescendants(root.getId())).isEmpty();
+        assertThat(index.refresh()).isEqualTo(0);
+    }
+
+    @Test
+    public void rebuildDropsDeletedProjects() throws RedmineException {
+        final ProjectIndex index = ProjectIndex.create(manager);
+        projectManager.deleteProject("other");
+        index.rebuild();
+        assertThat(index.getId("other")).isNull();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    private Project create(String identifier, Project parent) throws RedmineException {
+        final Project project = ProjectFactory.create(identifier, identifier);
+        if (parent != null) {
+            project.setParentId(parent.getId());
+        }
+        return projectManager.createProject(project);
+    }
+
+    private static List<String> identifiers(Collection<Project> projects) {
+        final List<String> result = new ArrayList<String>();
+        for (Project project : projects) {
+            result.add(project.getIdentifier());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,47 @@
+package com.taskadapter.redmineapi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class RateLimiterTest {
+
+    @Test
+    public void burstIsAvailableImmediately() {
+        final RateLimiter limiter = RateLimiter.create(1, 3);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    public void blockingAcquireWaitsForRefill() throws InterruptedException {
+        final RateLimiter limiter = RateLimiter.create(20, 1);
+        limiter.acquire();
+        final long start = System.nanoTime();
+        limiter.acquire();
+        limiter.acquire();
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(90);
+    }
+
+    @Test
+    public void timedAcquireGivesUpWhenTokenIsTooFar() throws InterruptedException {
+        final RateLimiter limiter = RateLimiter.create(1, 1);
+        limiter.acquire();
+        assertThat(limiter.tryAcquire(10, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(limiter.tryAcquire(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void bucketIsRefilledUpToBurst() throws InterruptedException {
+        final RateLimiter limiter = RateLimiter.create(1000, 2);
+        limiter.acquire();
+        limiter.acquire();
+        Thread.sleep(20);
+        assertThat(limiter.getAvailablePermits()).isEqualTo(2);
+    }
+}
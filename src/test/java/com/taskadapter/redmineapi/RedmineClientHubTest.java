@@ -0,0 +1,84 @@
+package com.taskadapter.redmineapi;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.bootstrap.HttpServer;
+import org.apache.http.impl.bootstrap.ServerBootstrap;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class RedmineClientHubTest {
+
+    private HttpServer server;
+    private String uri;
+    private RedmineClientHub hub;
+
+    @Before
+    public void setUp() throws IOException {
+        server = ServerBootstrap.bootstrap()
+                .setLocalAddress(InetAddress.getLoopbackAddress())
+                .registerHandler("*", new HttpRequestHandler() {
+                    @Override
+                    public void handle(HttpRequest request, HttpResponse response, HttpContext context)
+                            throws HttpException, IOException {
+                        response.setStatusCode(200);
+                        response.setEntity(new StringEntity("{\"issue\":{\"id\":1,\"subject\":\"hub\"}}",
+                                ContentType.APPLICATION_JSON));
+                    }
+                })
+                .create();
+        server.start();
+        uri = "http://localhost:" + server.getLocalPort();
+        hub = RedmineClientHub.create(4, 2);
+    }
+
+    @After
+    public void tearDown() {
+        hub.shutdown();
+        server.shutdown(0, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void managersShareThePool() throws Exception {
+        final RedmineManager first = hub.createWithApiKey(uri, "first");
+        final RedmineManager second = hub.createWithUserAuth(uri, "user", "password");
+        assertThat(first.getIssueManager().getIssueById(1).getSubject()).isEqualTo("hub");
+        assertThat(second.getIssueManager().getIssueById(1).getSubject()).isEqualTo("hub");
+        assertThat(hub.getLeasedConnections()).isEqualTo(0);
+        assertThat(hub.getStats(uri).getAvailable()).isGreaterThan(0);
+        assertThat(hub.getStats(uri).getMax()).isEqualTo(2);
+    }
+
+    @Test
+    public void closingManagerKeepsThePoolOpen() throws Exception {
+        final RedmineManager first = hub.createWithApiKey(uri, "first");
+        final RedmineManager second = hub.createWithApiKey(uri, "second");
+        first.getIssueManager().getIssueById(1);
+        first.close();
+        assertThat(second.getIssueManager().getIssueById(1).getSubject()).isEqualTo("hub");
+    }
+
+    @Test
+    public void perHostLimitCanBeOverridden() {
+        hub.setMaxConnectionsPerHost(uri + "/projects", 3);
+        assertThat(hub.getStats(uri).getMax()).isEqualTo(3);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void managersCanNotBeCreatedAfterShutdown() {
+        hub.shutdown();
+        hub.createWithApiKey(uri, "key");
+    }
+}
@@ -0,0 +1,158 @@
+package com.taskadapter.redmineapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.taskadapter.redmineapi.bean.Issue;
+import com.taskadapter.redmineapi.bean.IssueFactory;
+import com.taskadapter.redmineapi.bean.Project;
+import com.taskadapter.redmineapi.bean.ProjectFactory;
+import com.taskadapter.redmineapi.internal.InMemoryTransport;
+import com.taskadapter.redmineapi.internal.comm.RequestAbortScope;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class RedmineFederationTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private RedmineManager dev;
+    private RedmineManager ops;
+    private RedmineFederation federation;
+
+    @Before
+    public void setUp() throws RedmineException {
+        dev = createManager("dev", 2);
+        ops = createManager("ops", 1);
+        final Map<String, RedmineManager> managers = new LinkedHashMap<String, RedmineManager>();
+        managers.put("dev", dev);
+        managers.put("ops", ops);
+        federation = RedmineFederation.create(managers);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    public void issuesAreTaggedWithTheirSource() throws RedmineException {
+        final FederatedResult<Issue> result = federation.getIssues(Collections.<String, String>emptyMap());
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.getObjects()).hasSize(3);
+        assertThat(result.getObjects().get(0).getSource()).isEqualTo("dev");
+        assertThat(result.getObjects().get(2).getSource()).isEqualTo("ops");
+        assertThat(result.getObjects("ops").get(0).getSubject()).isEqualTo("ops 0");
+    }
+
+    @Test
+    public void failedInstanceDoesNotHideOtherResults() throws RedmineException {
+        final FederatedResult<Project> result = federation.query(new RedmineFederation.Query<Project>() {
+            @Override
+            public List<Project> load(RedmineManager manager) throws RedmineException {
+                if (manager == ops) {
+                    throw new NotFoundException("no such project");
+                }
+                return manager.getProjectManager().getProjects();
+            }
+        }, null);
+        assertThat(result.isComplete()).isFalse();
+        assertThat(result.getObjects("dev")).hasSize(1);
+        assertThat(result.getObjects("ops")).isNull();
+        assertThat(result.getFailures().get("ops")).isInstanceOf(NotFoundException.class);
+        assertThat(result.getTimedOutSources()).isEmpty();
+    }
+
+    @Test
+    public void runtimeExceptionIsReportedAsInstanceFailure() throws RedmineException {
+        final FederatedResult<Project> result = federation.query(new RedmineFederation.Query<Project>() {
+            @Override
+            public List<Project> load(RedmineManager manager) throws RedmineException {
+                if (manager == ops) {
+                    throw new IllegalStateException("broken query");
+                }
+                return manager.getProjectManager().getProjects();
+            }
+        }, null);
+        assertThat(result.getObjects("dev")).hasSize(1);
+        assertThat(result.getFailures().get("ops").getCause()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void requestsOfTimedOutInstanceAreAborted() throws Exception {
+        final CountDownLatch aborted = new CountDownLatch(1);
+        final FederatedResult<Project> result = federation.withTimeout("ops", 100)
+                .query(new RedmineFederation.Query<Project>() {
+                    @Override
+                    public List<Project> load(RedmineManager manager) throws RedmineException {
+                        if (manager == ops) {
+                            // a blocking request ignoring interrupts
+                            final long deadline = System.currentTimeMillis() + 10000;
+                            while (!RequestAbortScope.isCurrentAborted() && System.currentTimeMillis() < deadline) {
+                                try {
+                                    Thread.sleep(5);
+                                } catch (InterruptedException e) {
+                                    // ignored, like blocking I/O does
+                                }
+                            }
+                            if (RequestAbortScope.isCurrentAborted()) {
+                                aborted.countDown();
+                            }
+                        }
+                        return manager.getProjectManager().getProjects();
+                    }
+                }, null);
+        assertThat(result.getTimedOutSources()).containsOnly("ops");
+        assertThat(aborted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void slowInstanceTimesOut() throws RedmineException {
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        final long start = System.currentTimeMillis();
+        final FederatedResult<Project> result = federation.withTimeout(10000).withTimeout("ops", 100)
+                .query(new RedmineFederation.Query<Project>() {
+                    @Override
+                    public List<Project> load(RedmineManager manager) throws RedmineException {
+                        if (manager == ops) {
+                            try {
+                                release.await(10, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        return manager.getProjectManager().getProjects();
+                    }
+                }, new FederatedResultListener<Project>() {
+                    @Override
+                    public void onResults(String source, List<Project> objects) {
+                        events.add(source + " " + objects.size());
+                    }
+
+                    @Override
+                    public void onFailure(String source, RedmineException exception) {
+                        events.add(source + " failed");
+                    }
+                });
+        assertThat(System.currentTimeMillis() - start).isLessThan(5000);
+        assertThat(result.getTimedOutSources()).containsOnly("ops");
+        assertThat(result.getObjects("dev")).hasSize(1);
+        assertThat(events).containsExactly("dev 1", "ops failed");
+    }
+
+    private static RedmineManager createManager(String name, int issues) throws RedmineException {
+        final RedmineManager manager = new RedmineManager(new InMemoryTransport(), null);
+        final Project project = manager.getProjectManager().createProject(ProjectFactory.create(name, name));
+        for (int i = 0; i < issues; i++) {
+            manager.getIssueManager().createIssue(IssueFactory.create(project.getId(), name + " " + i));
+        }
+        return manager;
+    }
+}
@@ -0,0 +1,86 @@
+package com.taskadapter.redmineapi;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.taskadapter.redmineapi.bean.Group;
+import com.taskadapter.redmineapi.bean.GroupFactory;
+import com.taskadapter.redmineapi.bean.User;
+import com.taskadapter.redmineapi.bean.UserFactory;
+import com.taskadapter.redmineapi.internal.InMemoryTransport;
+
+public class UserDirectoryTest {
+    private RedmineManager manager;
+    private User jsmith;
+    private User admin;
+
+    @Before
+    public void setUp() throws RedmineException {
+        manager = new RedmineManager(new InMemoryTransport(), null);
+        final Group developers = GroupFactory.create(7);
+        jsmith = create("jsmith", "John.Smith@Example.com", developers);
+        admin = create("admin", "admin@example.com");
+    }
+
+    @Test
+    public void usersAreFoundByLoginMailAndId() throws RedmineException {
+        final UserDirectory directory = UserDirectory.create(manager);
+        assertThat(directory.size()).isEqualTo(2);
+        assertThat(directory.getIdByLogin("jsmith")).isEqualTo(jsmith.getId());
+        assertThat(directory.getIdByLogin("JSMITH")).isNull();
+        assertThat(directory.getIdByMail("john.smith@example.COM")).isEqualTo(jsmith.getId());
+        assertThat(directory.getUserByMail("nobody@example.com")).isNull();
+        assertThat(directory.getUserById(admin.getId()).getLogin()).isEqualTo("admin");
+    }
+
+    @Test
+    public void usersAreFoundByIdArrayAndGroup() throws RedmineException {
+        final UserDirectory directory = UserDirectory.create(manager);
+        final ObjectsByIds<User> users = directory.getUsersByIds(admin.getId(), 12345, jsmith.getId());
+        assertThat(new ArrayList<Integer>(users.getObjects().keySet())).containsExactly(admin.getId(), jsmith.getId());
+        assertThat(users.getMissingIds()).containsOnly(12345);
+        assertThat(logins(directory.getGroupMembers(7))).containsOnly("jsmith");
+        assertThat(directory.getGroupMembers(8)).isEmpty();
+    }
+
+    @Test
+    public void backgroundRefreshLoadsNewUsers() throws Exception {
+        final UserDirectory directory = UserDirectory.create(manager);
+        try {
+            directory.startBackgroundRefresh(10);
+            create("newcomer", "new@example.com");
+            final long deadline = System.currentTimeMillis() + 5000;
+            while (directory.getIdByLogin("newcomer") == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(directory.getIdByMail("NEW@example.com")).isNotNull();
+        } finally {
+            directory.close();
+        }
+    }
+
+    private User create(String login, String mail, Group... groups) throws RedmineException {
+        final User user = UserFactory.create();
+        user.setLogin(login);
+        user.setMail(mail);
+        user.setFirstName(login);
+        user.setLastName(login);
+        user.addGroups(Arrays.asList(groups));
+        return manager.getUserManager().createUser(user);
+    }
+
+    private static List<String> logins(Collection<User> users) {
+        final List<String> result = new ArrayList<String>();
+        for (User user : users) {
+            result.add(user.getLogin());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,126 @@
+package com.taskadapter.redmineapi.internal;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.http.message.BasicNameValuePair;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.taskadapter.redmineapi.IssueManager;
+import com.taskadapter.redmineapi.NotFoundException;
+import com.taskadapter.redmineapi.ProjectManager;
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RedmineManager;
+import com.taskadapter.redmineapi.bean.Issue;
+import com.taskadapter.redmineapi.bean.IssueFactory;
+import com.taskadapter.redmineapi.bean.Project;
+import com.taskadapter.redmineapi.bean.ProjectFactory;
+import com.taskadapter.redmineapi.bean.Tracker;
+import com.taskadapter.redmineapi.bean.TrackerFactory;
+import com.taskadapter.redmineapi.bean.Version;
+import com.taskadapter.redmineapi.bean.VersionFactory;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class InMemoryTransportTest {
+    private InMemoryTransport transport;
+    private IssueManager issueManager;
+    private ProjectManager projectManager;
+    private Project project;
+
+    @Before
+    public void setUp() throws RedmineException {
+        transport = new InMemoryTransport();
+        final RedmineManager mgr = new RedmineManager(transport, null);
+        issueManager = mgr.getIssueManager();
+        projectManager = mgr.getProjectManager();
+        project = projectManager.createProject(ProjectFactory.create("test", "test-key"));
+    }
+
+    @Test
+    public void createdObjectGetsIdAndCanBeLoaded() throws RedmineException {
+        final Issue created = issueManager.createIssue(IssueFactory.create(project.getId(), "subject"));
+        assertThat(created.getId()).isNotNull();
+        assertThat(created.getCreatedOn()).isNotNull();
+        assertThat(issueManager.getIssueById(created.getId()).getSubject()).isEqualTo("subject");
+    }
+
+    @Test
+    public void returnedObjectsAreCopies() throws RedmineException {
+        final Issue created = issueManager.createIssue(IssueFactory.create(project.getId(), "original"));
+        created.setSubject("changed");
+        assertThat(issueManager.getIssueById(created.getId()).getSubject()).isEqualTo("original");
+        issueManager.update(created);
+        assertThat(issueManager.getIssueById(created.getId()).getSubject()).isEqualTo("changed");
+    }
+
+    @Test
+    public void findReturnsNullForMissingObjects() throws RedmineException {
+        assertThat(projectManager.findProjectByKey("test-key").getId()).isEqualTo(project.getId());
+        assertThat(projectManager.findProjectByKey("missing-key")).isNull();
+        assertThat(issueManager.findIssueById(12345)).isNull();
+    }
+
+    @Test(expected = NotFoundException.class)
+    public void deletedObjectIsNotFound() throws RedmineException {
+        final Issue created = issueManager.createIssue(IssueFactory.create(project.getId(), "subject"));
+        issueManager.deleteIssue(created.getId());
+        issueManager.getIssueById(created.getId());
+    }
+
+    @Test
+    public void projectIsFoundByIdentifier() throws RedmineException {
+        assertThat(projectManager.getProjectByKey("test-key").getId()).isEqualTo(project.getId());
+    }
+
+    @Test
+    public void listIsPagedAndReportsTotalCount() throws RedmineException {
+        for (int i = 0; i < 7; i++) {
+            issueManager.createIssue(IssueFactory.create(project.getId(), "issue " + i));
+        }
+        transport.setObjectsPerPage(3);
+        assertThat(issueManager.getIssues(project.getIdentifier(), null)).hasSize(7);
+
+        final Transport.ResultsWrapper<Issue> page = transport.getObjectsListNoPaging(Issue.class,
+                Arrays.asList(new BasicNameValuePair("limit", "2"), new BasicNameValuePair("offset", "6")));
+        assertThat(page.getResultsNumber()).isEqualTo(1);
+        assertThat(page.getTotalFoundOnServer()).isEqualTo(7);
+    }
+
+    @Test
+    public void listIsFilteredByIds() throws RedmineException {
+        final Issue first = issueManager.createIssue(IssueFactory.create(project.getId(), "first"));
+        issueManager.createIssue(IssueFactory.create(project.getId(), "second"));
+        final Issue third = issueManager.createIssue(IssueFactory.create(project.getId(), "third"));
+        final List<Issue> issues = transport.getObjectsList(Issue.class,
+                new BasicNameValuePair("issue_id", first.getId() + "," + third.getId()));
+        assertThat(issues).containsExactly(first, third);
+    }
+
+    @Test
+    public void childEntriesAreKeptPerParent() throws RedmineException {
+        final Version version = VersionFactory.create(project, "1.0");
+        final Version created = projectManager.createVersion(version);
+        assertThat(projectManager.getVersions(project.getId())).containsExactly(created);
+        projectManager.deleteVersion(created);
+        assertThat(projectManager.getVersions(project.getId())).isEmpty();
+    }
+
+    @Test
+    public void seededObjectsKeepTheirIds() throws RedmineException {
+        transport.put(TrackerFactory.create(5, "Bug"));
+        final List<Tracker> trackers = issueManager.getTrackers();
+        assertThat(trackers).hasSize(1);
+        assertThat(trackers.get(0).getId()).isEqualTo(5);
+        final Issue created = issueManager.createIssue(IssueFactory.create(project.getId(), "subject"));
+        assertThat(created.getId()).isGreaterThan(5);
+    }
+
+    @Test
+    public void uploadedContentIsKept() throws RedmineException {
+        final String token = transport.upload(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+        assertThat(transport.getUpload(token)).isEqualTo(new byte[] {1, 2, 3});
+    }
+}
@@ -13,6 +13,7 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import com.taskadapter.redmineapi.bean.ProjectFactory;
 import com.taskadapter.redmineapi.bean.TrackerFactory;
@@ -32,7 +33,9 @@ import com.taskadapter.redmineapi.bean.Tracker;
 import com.taskadapter.redmineapi.bean.User;
 import com.taskadapter.redmineapi.internal.json.JsonInput;
 
+import org.json.JSONArray;
 import org.json.JSONException;
+import org.json.JSONObject;
 
 /**
  * Redmine JSON parser tests.
@@ -432,4 +435,59 @@ public class RedmineJSONParserTest {
 			.getCustomFieldById(1).getValue());
 		Assert.assertEquals("", version.getCustomFieldById(6).getValue());
     }
+
+    @Test
+    public void parallelParsingKeepsIssueOrder() throws JSONException {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        JsonInput.setParallelParsing(pool, 10);
+        try {
+            final List<Issue> issues = JsonInput.getListNotNull(issuesResponse(1000, -1), "issues",
+                    RedmineJSONParser.ISSUE_PARSER);
+            assertThat(issues).hasSize(1000);
+            for (int i = 0; i < issues.size(); i++) {
+                assertEquals(Integer.valueOf(i + 1), issues.get(i).getId());
+                assertEquals("issue " + (i + 1), issues.get(i).getSubject());
+            }
+        } finally {
+            JsonInput.disableParallelParsing();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelParsingReportsInvalidItems() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        JsonInput.setParallelParsing(pool, 10);
+        try {
+            JsonInput.getListOrNull(issuesResponse(100, 57), "issues", RedmineJSONParser.ISSUE_PARSER);
+            fail("Must fail on the invalid item");
+        } catch (JSONException e) {
+            // expected
+        } finally {
+            JsonInput.disableParallelParsing();
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @param invalidIndex index of an item which is not an object, -1 for
+     *            none.
+     */
+    private static JSONObject issuesResponse(int count, int invalidIndex) throws JSONException {
+        final JSONArray items = new JSONArray();
+        for (int i = 0; i < count; i++) {
+            if (i == invalidIndex) {
+                items.put("not an issue");
+                continue;
+            }
+            final JSONObject issue = new JSONObject();
+            issue.put("id", i + 1);
+            issue.put("subject", "issue " + (i + 1));
+            issue.put("created_on", "2015-01-01T10:00:00Z");
+            items.put(issue);
+        }
+        final JSONObject response = new JSONObject();
+        response.put("issues", items);
+        return response;
+    }
 }
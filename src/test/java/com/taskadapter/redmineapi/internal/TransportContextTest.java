@@ -0,0 +1,134 @@
+package com.taskadapter.redmineapi.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RedmineManager;
+import com.taskadapter.redmineapi.RequestContext;
+import com.taskadapter.redmineapi.bean.Issue;
+import com.taskadapter.redmineapi.internal.comm.Communicator;
+import com.taskadapter.redmineapi.internal.comm.ContentHandler;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class TransportContextTest {
+
+    /**
+     * Records requests and answers with a single issue or an empty issue list.
+     */
+    private static final class RecordingCommunicator implements Communicator<HttpResponse> {
+        final List<HttpRequest> requests = new ArrayList<HttpRequest>();
+
+        @Override
+        public synchronized <R> R sendRequest(HttpRequest request, ContentHandler<HttpResponse, R> handler)
+                throws RedmineException {
+            requests.add(request);
+            final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+            response.setEntity(new StringEntity("{\"issue\":{\"id\":1,\"subject\":\"s\"},"
+                    + "\"issues\":[],\"total_count\":0}", "UTF-8"));
+            return handler.processContent(response);
+        }
+
+        HttpRequest last() {
+            return requests.get(requests.size() - 1);
+        }
+    }
+
+    /**
+     * Answers each page with one of three issues and changes the context of
+     * the transport after the first page.
+     */
+    private static final class ContextChangingCommunicator implements Communicator<HttpResponse> {
+        final List<HttpRequest> requests = new ArrayList<HttpRequest>();
+        Transport transport;
+
+        @Override
+        public <R> R sendRequest(HttpRequest request, ContentHandler<HttpResponse, R> handler)
+                throws RedmineException {
+            requests.add(request);
+            if (requests.size() == 1) {
+                transport.setCredentials("other", "secret");
+                transport.setOnBehalfOfUser("jsmith");
+            }
+            final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+            response.setEntity(new StringEntity("{\"issues\":[{\"id\":" + requests.size()
+                    + ",\"subject\":\"s\"}],\"total_count\":3}", "UTF-8"));
+            return handler.processContent(response);
+        }
+    }
+
+    private RecordingCommunicator communicator;
+    private RedmineManager manager;
+
+    @Before
+    public void setUp() {
+        communicator = new RecordingCommunicator();
+        manager = new RedmineManager(new Transport(new URIConfigurator("http://host", "admin-key"), null,
+                communicator), null);
+    }
+
+    @Test
+    public void impersonationDoesNotChangeOriginalManager() throws RedmineException {
+        final RedmineManager jsmith = manager.as("jsmith");
+        jsmith.getIssueManager().getIssueById(1);
+        assertThat(communicator.last().getFirstHeader("X-Redmine-Switch-User").getValue()).isEqualTo("jsmith");
+        assertThat(communicator.last().getRequestLine().getUri()).contains("key=admin-key");
+
+        manager.getIssueManager().getIssueById(1);
+        assertThat(communicator.last().getFirstHeader("X-Redmine-Switch-User")).isNull();
+        assertThat(manager.getContext().getOnBehalfOfUser()).isNull();
+    }
+
+    @Test
+    public void contextReplacesApiKeyAndCredentials() throws RedmineException {
+        manager.withContext(RequestContext.create().withApiKey("user-key")).getIssueManager().getIssueById(1);
+        assertThat(communicator.last().getRequestLine().getUri()).contains("key=user-key");
+        assertThat(communicator.last().getRequestLine().getUri()).excludes("admin-key");
+
+        manager.withContext(RequestContext.create().withCredentials("user", "secret"))
+                .getIssueManager().getIssueById(1);
+        assertThat(communicator.last().getFirstHeader("Authorization").getValue())
+                .isEqualTo("Basic dXNlcjpzZWNyZXQ=");
+    }
+
+    @Test
+    public void contextPageSizeIsUsedForLists() throws RedmineException {
+        manager.withContext(RequestContext.create().withObjectsPerPage(7)).getIssueManager()
+                .getIssues(null, null);
+        assertThat(communicator.last().getRequestLine().getUri()).contains("limit=7");
+    }
+
+    @Test
+    public void legacySettersChangeContext() throws RedmineException {
+        manager.setOnBehalfOfUser("admin2");
+        final RedmineManager view = manager.as("jsmith");
+        manager.setOnBehalfOfUser(null);
+        assertThat(view.getContext().getOnBehalfOfUser()).isEqualTo("jsmith");
+        manager.getIssueManager().getIssueById(1);
+        assertThat(communicator.last().getFirstHeader("X-Redmine-Switch-User")).isNull();
+    }
+
+    @Test
+    public void scanUsesContextOfItsStart() throws RedmineException {
+        final ContextChangingCommunicator changing = new ContextChangingCommunicator();
+        final Transport transport = new Transport(new URIConfigurator("http://host", "admin-key"), null, changing);
+        changing.transport = transport;
+        transport.setObjectsPerPage(1);
+        final List<Issue> issues = transport.getObjectsList(Issue.class);
+        assertThat(issues).hasSize(3);
+        for (HttpRequest request : changing.requests) {
+            assertThat(request.getFirstHeader("Authorization")).isNull();
+            assertThat(request.getFirstHeader("X-Redmine-Switch-User")).isNull();
+            assertThat(request.getRequestLine().getUri()).contains("limit=1");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.taskadapter.redmineapi.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.http.Consts;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.message.BasicNameValuePair;
+import org.junit.Test;
+
+import com.taskadapter.redmineapi.bean.Issue;
+import com.taskadapter.redmineapi.bean.Project;
+import com.taskadapter.redmineapi.bean.Version;
+import com.taskadapter.redmineapi.bean.WikiPageDetail;
+
+public class URIConfiguratorTest {
+
+    @Test
+    public void objectUrisMatchUriBuilder() throws Exception {
+        final String host = "http://redmine.example.com:3000/redmine";
+        final URIConfigurator configurator = new URIConfigurator(host, "k3y/+=");
+        final NameValuePair include = new BasicNameValuePair("include", "journals,relations");
+
+        assertEquals(expected(host, "k3y/+=", "issues/15.json", include),
+                configurator.getObjectURI(Issue.class, "15", include));
+        assertEquals(expected(host, "k3y/+=", "issues.json"),
+                configurator.getObjectsURI(Issue.class));
+        assertEquals(expected(host, "k3y/+=", "projects/my-project/versions.json"),
+                configurator.getChildObjectsURI(Project.class, "my-project", Version.class));
+        assertEquals(expected(host, "k3y/+=", "uploads.json"), configurator.getUploadURI());
+    }
+
+    @Test
+    public void pathsAndParametersAreEncodedLikeUriBuilder() throws Exception {
+        final String host = "https://example.com";
+        final URIConfigurator configurator = new URIConfigurator(host, null);
+        final NameValuePair subject = new BasicNameValuePair("subject", "~ä b&c=d");
+
+        assertEquals(expected(host, null, "projects/p/wiki/Page Ünïcode#1?.json", subject),
+                configurator.getChildIdURI(Project.class, "p", WikiPageDetail.class, "Page Ünïcode#1?", subject));
+        assertEquals(expected(host, null, "users/current.json", subject),
+                configurator.createURI("users/current.json", subject));
+        assertEquals("https://example.com", configurator.createURI("").toString());
+    }
+
+    @Test
+    public void apiKeyIsAppendedAfterParameters() {
+        final URIConfigurator configurator = new URIConfigurator("http://example.com", "abc");
+        final URI uri = configurator.getObjectsURI(Issue.class, new BasicNameValuePair("limit", "25"));
+
+        assertEquals("http://example.com/issues.json?limit=25&key=abc", uri.toString());
+        assertEquals("http://example.com/issues.json?key=xyz",
+                configurator.withApiAccessKey("xyz").getObjectsURI(Issue.class).toString());
+    }
+
+    private static URI expected(String host, String key, String query, NameValuePair... params)
+            throws Exception {
+        final URL url = new URL(host);
+        final List<NameValuePair> allParams = new ArrayList<NameValuePair>(Arrays.asList(params));
+        if (key != null) {
+            allParams.add(new BasicNameValuePair("key", key));
+        }
+        final URIBuilder builder = new URIBuilder();
+        builder.setHost(url.getHost());
+        builder.setPort(url.getPort());
+        builder.setScheme(url.getProtocol());
+        builder.setParameters(allParams);
+        builder.setCharset(Consts.UTF_8);
+        builder.setPath(url.getPath());
+        if (!query.isEmpty()) {
+            builder.setPath(builder.getPath() + '/' + query);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.taskadapter.redmineapi.internal;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.message.BasicNameValuePair;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.bean.Issue;
+import com.taskadapter.redmineapi.bean.IssueFactory;
+import com.taskadapter.redmineapi.bean.ProjectFactory;
+import com.taskadapter.redmineapi.bean.TimeEntry;
+import com.taskadapter.redmineapi.bean.TimeEntryFactory;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class WindowedScanTest {
+    private InMemoryTransport transport;
+    private Calendar start;
+
+    @Before
+    public void setUp() {
+        transport = new InMemoryTransport();
+        start = Calendar.getInstance();
+        start.set(2015, Calendar.MARCH, 1, 12, 0, 0);
+    }
+
+    @Test
+    public void allObjectsOfRangeAreLoadedOnce() throws RedmineException {
+        // 3 issues a day for 30 days, plus a busy day with 20 issues
+        for (int day = 0; day < 30; day++) {
+            for (int i = 0; i < (day == 10 ? 20 : 3); i++) {
+                final Issue issue = IssueFactory.create(1, "day " + day);
+                issue.setUpdatedOn(day(day));
+                transport.put(issue);
+            }
+        }
+        final List<Issue> issues = WindowedScan.scan(transport, Issue.class,
+                Collections.<NameValuePair>emptyList(), "updated_on", day(0), day(29), 3, 10);
+        assertThat(issues).hasSize(29 * 3 + 20);
+        final Set<Integer> ids = new HashSet<Integer>();
+        for (final Issue issue : issues) {
+            ids.add(issue.getId());
+        }
+        assertThat(ids).hasSize(issues.size());
+    }
+
+    @Test
+    public void objectsOutsideOfRangeAreSkipped() throws RedmineException {
+        transport.put(ProjectFactory.create(1));
+        transport.put(ProjectFactory.create(2));
+        for (int day = 0; day < 10; day++) {
+            final TimeEntry entry = TimeEntryFactory.create();
+            entry.setSpentOn(day(day));
+            entry.setProjectId(day % 2 == 0 ? 1 : 2);
+            transport.put(entry);
+        }
+        final List<TimeEntry> entries = WindowedScan.scan(transport, TimeEntry.class,
+                Collections.singletonList(new BasicNameValuePair("project_id", "1")), "spent_on",
+                day(2), day(7), 2, 1);
+        assertThat(entries).hasSize(3);
+    }
+
+    private Date day(final int index) {
+        final Calendar day = (Calendar) start.clone();
+        day.add(Calendar.DAY_OF_MONTH, index);
+        return day.getTime();
+    }
+}
@@ -0,0 +1,123 @@
+package com.taskadapter.redmineapi.internal.comm;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.taskadapter.redmineapi.CircuitBreaker;
+import com.taskadapter.redmineapi.CircuitBreakerConfig;
+import com.taskadapter.redmineapi.ConcurrencyLimiter;
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RedmineRequestAbortedException;
+import com.taskadapter.redmineapi.RetryPolicy;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class RequestAbortScopeTest {
+    /** Accepts connections and never answers. */
+    private ServerSocket server;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<Socket> sockets = new ArrayList<Socket>();
+
+    @Before
+    public void startServer() throws IOException {
+        server = new ServerSocket(0);
+        final Thread acceptor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (true) {
+                        final Socket socket = server.accept();
+                        synchronized (sockets) {
+                            sockets.add(socket);
+                        }
+                        connections.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    // server closed
+                }
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @After
+    public void stopServer() throws IOException {
+        server.close();
+        synchronized (sockets) {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    public void abortedRequestIsNotRetriedNorCountedAsFailure() throws Exception {
+        final CircuitBreaker breaker = CircuitBreaker.create(CircuitBreakerConfig.create()
+                .withSlidingWindow(10, 1));
+        final ConcurrencyLimiter limiter = ConcurrencyLimiter.create(4, 1, 8);
+        final BaseCommunicator base = new BaseCommunicator(HttpClients.createDefault());
+        final Communicator<HttpResponse> communicator = new RetryingCommunicator(
+                new ConcurrencyLimitingCommunicator(new CircuitBreakingCommunicator(base, breaker), limiter),
+                RetryPolicy.create().withBackoff(0, 0));
+
+        final RequestAbortScope scope = RequestAbortScope.open();
+        final Thread aborter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (connections.get() == 0) {
+                        Thread.sleep(10);
+                    }
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                scope.abort();
+            }
+        });
+        aborter.start();
+        try {
+            communicator.sendRequest(new HttpGet("http://localhost:" + server.getLocalPort() + "/issues.json"),
+                    Communicators.httpResponseCodeReader());
+            fail("Request must be aborted");
+        } catch (RedmineRequestAbortedException e) {
+            // expected
+        } finally {
+            scope.close();
+            aborter.join();
+            base.close();
+        }
+        assertThat(connections.get()).isEqualTo(1);
+        assertThat(breaker.getBufferedCalls()).isEqualTo(0);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(limiter.getInFlight()).isEqualTo(0);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test(expected = RedmineRequestAbortedException.class)
+    public void requestsOfAbortedScopeAreNotSent() throws RedmineException, IOException {
+        final BaseCommunicator base = new BaseCommunicator(HttpClients.createDefault());
+        final RequestAbortScope scope = RequestAbortScope.open();
+        try {
+            scope.abort();
+            base.sendRequest(new HttpGet("http://localhost:" + server.getLocalPort() + "/issues.json"),
+                    Communicators.httpResponseCodeReader());
+        } finally {
+            scope.close();
+            base.close();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.taskadapter.redmineapi.internal.comm;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Queue;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Test;
+
+import com.taskadapter.redmineapi.RedmineException;
+import com.taskadapter.redmineapi.RedmineTransportException;
+import com.taskadapter.redmineapi.RetryPolicy;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class RetryingCommunicatorTest {
+    private static final RetryPolicy POLICY = RetryPolicy.create().withBackoff(0, 0);
+
+    /**
+     * Returns scripted status codes, -1 means an I/O error.
+     */
+    private static final class ScriptedCommunicator implements Communicator<HttpResponse> {
+        private final Queue<Integer> codes;
+        int calls;
+
+        ScriptedCommunicator(Integer... codes) {
+            this.codes = new LinkedList<Integer>(Arrays.asList(codes));
+        }
+
+        @Override
+        public <R> R sendRequest(HttpRequest request, ContentHandler<HttpResponse, R> handler)
+                throws RedmineException {
+            calls++;
+            final int code = codes.remove();
+            if (code < 0) {
+                throw new RedmineTransportException("Cannot fetch data", new IOException("reset"));
+            }
+            final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, code, "");
+            if (code == 429) {
+                response.setHeader("Retry-After", "0");
+            }
+            return handler.processContent(response);
+        }
+    }
+
+    private static final ContentHandler<HttpResponse, Integer> STATUS = Communicators.httpResponseCodeReader();
+
+    @Test
+    public void getIsRetriedOnServiceUnavailable() throws RedmineException {
+        final ScriptedCommunicator peer = new ScriptedCommunicator(503, 502, 200);
+        final int code = new RetryingCommunicator(peer, POLICY).sendRequest(new HttpGet("http://host"), STATUS);
+        assertThat(code).isEqualTo(200);
+        assertThat(peer.calls).isEqualTo(3);
+    }
+
+    @Test
+    public void lastResponseIsReturnedWhenAttemptsAreExhausted() throws RedmineException {
+        final ScriptedCommunicator peer = new ScriptedCommunicator(503, 429, 503);
+        final int code = new RetryingCommunicator(peer, POLICY).sendRequest(new HttpGet("http://host"), STATUS);
+        assertThat(code).isEqualTo(503);
+        assertThat(peer.calls).isEqualTo(3);
+    }
+
+    @Test
+    public void ioErrorsAreRetried() throws RedmineException {
+        final ScriptedCommunicator peer = new ScriptedCommunicator(-1, 200);
+        final int code = new RetryingCommunicator(peer, POLICY).sendRequest(new HttpGet("http://host"), STATUS);
+        assertThat(code).isEqualTo(200);
+    }
+
+    @Test(expected = RedmineTransportException.class)
+    public void lastIoErrorIsThrown() throws RedmineException {
+        final ScriptedCommunicator peer = new ScriptedCommunicator(-1, -1, -1);
+        new RetryingCommunicator(peer, POLICY).sendRequest(new HttpGet("http://host"), STATUS);
+    }
+
+    @Test
+    public void postIsNotRetriedByDefault() throws RedmineException {
+        final ScriptedCommunicator peer = new ScriptedCommunicator(503, 200);
+        final int code = new RetryingCommunicator(peer, POLICY).sendRequest(new HttpPost("http://host"), STATUS);
+        assertThat(code).isEqualTo(503);
+        assertThat(peer.calls).isEqualTo(1);
+    }
+
+    @Test
+    public void postMarkedIdempotentIsRetried() throws RedmineException {
+        final ScriptedCommunicator peer = new ScriptedCommunicator(503, 200);
+        final HttpPost post = new HttpPost("http://host");
+        post.setHeader(RetryPolicy.IDEMPOTENCY_KEY_HEADER, "key-1");
+        final int code = new RetryingCommunicator(peer, POLICY).sendRequest(post, STATUS);
+        assertThat(code).isEqualTo(200);
+    }
+
+    @Test
+    public void backoffGrowsExponentiallyUpToMaximum() {
+        final RetryPolicy policy = RetryPolicy.create().withBackoff(100, 1000).withJitter(0.5);
+        assertThat(policy.getBackoffMillis(1, 0)).isEqualTo(100);
+        assertThat(policy.getBackoffMillis(3, 0)).isEqualTo(400);
+        assertThat(policy.getBackoffMillis(3, 1)).isEqualTo(200);
+        assertThat(policy.getBackoffMillis(10, 0)).isEqualTo(1000);
+    }
+}
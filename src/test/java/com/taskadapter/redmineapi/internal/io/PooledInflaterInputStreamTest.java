@@ -0,0 +1,89 @@
+package com.taskadapter.redmineapi.internal.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class PooledInflaterInputStreamTest {
+
+    @Test
+    public void gzipContentIsDecoded() throws IOException {
+        final byte[] content = createContent(100000);
+        final byte[] decoded = readAll(PooledInflaterInputStream.gzip(new ByteArrayInputStream(gzip(content))));
+        assertThat(decoded).isEqualTo(content);
+    }
+
+    @Test
+    public void deflateContentIsDecoded() throws IOException {
+        final byte[] content = createContent(50000);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final DeflaterOutputStream out = new DeflaterOutputStream(compressed);
+        out.write(content);
+        out.close();
+        final byte[] decoded = readAll(PooledInflaterInputStream.deflate(
+                new ByteArrayInputStream(compressed.toByteArray())));
+        assertThat(decoded).isEqualTo(content);
+    }
+
+    @Test
+    public void inflaterIsReturnedToPoolAtEndOfContent() throws IOException {
+        final InputStream first = PooledInflaterInputStream.gzip(new ByteArrayInputStream(gzip(createContent(10))));
+        readAll(first);
+        final int pooled = BufferPool.getPooledInflaters();
+        assertThat(pooled).isGreaterThan(0);
+        final InputStream second = PooledInflaterInputStream.gzip(new ByteArrayInputStream(gzip(createContent(10))));
+        assertThat(second.read()).isNotEqualTo(-1);
+        assertThat(BufferPool.getPooledInflaters()).isEqualTo(pooled - 1);
+        second.close();
+        assertThat(BufferPool.getPooledInflaters()).isEqualTo(pooled);
+    }
+
+    @Test(expected = ZipException.class)
+    public void corruptTrailerIsReported() throws IOException {
+        final byte[] compressed = gzip(createContent(1000));
+        compressed[compressed.length - 5]++;
+        readAll(PooledInflaterInputStream.gzip(new ByteArrayInputStream(compressed)));
+    }
+
+    @Test(expected = ZipException.class)
+    public void plainContentIsRejected() throws IOException {
+        readAll(PooledInflaterInputStream.gzip(new ByteArrayInputStream("{\"issues\":[]}".getBytes("UTF-8"))));
+    }
+
+    private static byte[] createContent(int size) {
+        final byte[] content = new byte[size];
+        final Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return content;
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final GZIPOutputStream out = new GZIPOutputStream(compressed);
+        out.write(content);
+        out.close();
+        return compressed.toByteArray();
+    }
+
+    private static byte[] readAll(InputStream input) throws IOException {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[777];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            result.write(buffer, 0, read);
+        }
+        input.close();
+        return result.toByteArray();
+    }
+}